@@ -0,0 +1,30 @@
+package api;
+
+import service.Courier;
+import service.Order;
+
+import java.util.List;
+
+// Образцы тел запросов и ответов для бенчмарков — в том виде, в каком их отдаёт сервис
+final class BenchmarkData {
+    static final String TRACK_RESPONSE = "{\"track\":524817}";
+    static final String LOGIN_RESPONSE = "{\"id\":318204}";
+    static final String ORDER_INFO_RESPONSE = "{\"order\":{\"id\":41873,\"firstName\":\"Иван\",\"lastName\":\"Петров\","
+            + "\"address\":\"Москва, ул. Льва Толстого, 16\",\"metroStation\":\"4\",\"phone\":\"+79991234567\","
+            + "\"rentTime\":5,\"deliveryDate\":\"2025-06-30T21:00:00.000Z\",\"track\":524817,"
+            + "\"color\":[\"BLACK\",\"GREY\"],\"comment\":\"Позвоните за час до доставки\","
+            + "\"cancelled\":false,\"finished\":false,\"inDelivery\":false,\"courierFirstName\":null,"
+            + "\"createdAt\":\"2025-06-28T10:15:42.512Z\",\"updatedAt\":\"2025-06-28T10:15:42.512Z\",\"status\":0}}";
+
+    private BenchmarkData() {
+    }
+
+    static Order order() {
+        return new Order("Иван", "Петров", "Москва, ул. Льва Толстого, 16", 4, "+79991234567", 5,
+                "2025-06-30", "Позвоните за час до доставки", List.of("BLACK", "GREY"));
+    }
+
+    static Courier courier() {
+        return new Courier("ninja_courier_4821", "s3cr3t-pass", "Саске");
+    }
+}
@@ -0,0 +1,63 @@
+package api;
+
+import api.log.JsonPrettyPrinter;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Перевод ответа ручки /api/v1/orders/track в читаемый вид, как в OrderAPI.printOrderInfo:
+// прежний путь через Map и новый GsonBuilder на каждый вызов против потокового JsonPrettyPrinter
+// в строку и прямо в вывод
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrettyPrintBenchmark {
+    private static final byte[] ORDER_INFO_BYTES = BenchmarkData.ORDER_INFO_RESPONSE.getBytes(StandardCharsets.UTF_8);
+
+    @Benchmark
+    public String mapRoundTrip() {
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        Map<?, ?> body = gson.fromJson(BenchmarkData.ORDER_INFO_RESPONSE, Map.class);
+        return gson.toJson(body);
+    }
+
+    @Benchmark
+    public String streaming() {
+        return JsonPrettyPrinter.toString(new ByteArrayInputStream(ORDER_INFO_BYTES));
+    }
+
+    // как в printOrderInfo: результат сразу уходит в вывод журнала, строка не создаётся
+    @Benchmark
+    public void streamingToOutput(Blackhole blackhole) throws IOException {
+        JsonPrettyPrinter.print(new ByteArrayInputStream(ORDER_INFO_BYTES), new OutputStream() {
+            @Override
+            public void write(int b) {
+                blackhole.consume(b);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                blackhole.consume(bytes);
+            }
+        });
+    }
+}
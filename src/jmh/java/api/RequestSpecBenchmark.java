@@ -0,0 +1,68 @@
+package api;
+
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import service.Courier;
+import service.Order;
+
+import java.util.concurrent.TimeUnit;
+
+// Сборка спецификаций RestAssured в том виде, в каком их собирают CourierAPI и OrderAPI перед отправкой:
+// тело из шаблонов RequestBodies, а для сравнения — прежний путь через объектный маппинг Gson.
+// Запросы не отправляются, поэтому адрес сервиса не важен
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestSpecBenchmark {
+    private final Order order = BenchmarkData.order();
+    private final Courier courier = BenchmarkData.courier();
+    private ClientContext context;
+
+    @Setup
+    public void setUp() {
+        context = new ClientContext("http://127.0.0.1:1/", PoolSettings.defaults());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RequestSpecification courierCreateSpec() {
+        return context.json().and().body(RequestBodies.courier(courier)).when();
+    }
+
+    @Benchmark
+    public RequestSpecification courierCreateSpecGson() {
+        return context.json().and().body(courier).when();
+    }
+
+    @Benchmark
+    public RequestSpecification orderCreateSpec() {
+        return context.json().and().body(RequestBodies.order(order)).when();
+    }
+
+    @Benchmark
+    public RequestSpecification orderCreateSpecGson() {
+        return context.json().and().body(order).when();
+    }
+
+    @Benchmark
+    public RequestSpecification orderInfoSpec() {
+        return context.plain().queryParam("t", 524817);
+    }
+}
@@ -0,0 +1,41 @@
+package api;
+
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.LoginResult;
+import service.TrackResult;
+
+import java.util.concurrent.TimeUnit;
+
+// Разбор тел ответов в ApiResponse — так же, как после каждого запроса в CourierAPI и OrderAPI
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseDecodingBenchmark {
+
+    @Benchmark
+    public TrackResult trackResponse() {
+        return new ApiResponse<>(201, BenchmarkData.TRACK_RESPONSE, TrackResult.class).get();
+    }
+
+    @Benchmark
+    public LoginResult loginResponse() {
+        return new ApiResponse<>(200, BenchmarkData.LOGIN_RESPONSE, LoginResult.class).get();
+    }
+
+    @Benchmark
+    public JsonObject orderInfoResponse() {
+        return new ApiResponse<>(200, BenchmarkData.ORDER_INFO_RESPONSE, JsonObject.class).get();
+    }
+}
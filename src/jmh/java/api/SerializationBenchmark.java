@@ -0,0 +1,49 @@
+package api;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.Courier;
+import service.Order;
+
+import java.util.concurrent.TimeUnit;
+
+// Сериализация тел запросов в JSON: Gson, как было раньше, и шаблоны RequestBodies, которые клиенты используют сейчас
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    private final Gson gson = new Gson();
+    private final Order order = BenchmarkData.order();
+    private final Courier courier = BenchmarkData.courier();
+
+    @Benchmark
+    public String orderBody() {
+        return gson.toJson(order);
+    }
+
+    @Benchmark
+    public String courierBody() {
+        return gson.toJson(courier);
+    }
+
+    @Benchmark
+    public byte[] orderTemplate() {
+        return RequestBodies.order(order);
+    }
+
+    @Benchmark
+    public byte[] courierTemplate() {
+        return RequestBodies.courier(courier);
+    }
+}
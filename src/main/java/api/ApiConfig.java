@@ -0,0 +1,40 @@
+package api;
+
+import api.transport.ExchangeTransport;
+import com.google.gson.Gson;
+import lombok.Builder;
+import lombok.Getter;
+import service.ServiceLinks;
+
+// Неизменяемые настройки одного экземпляра клиента: адрес сервиса, тайм-ауты, пул соединений,
+// Gson, которым разбираются ответы, и транспорт (живые запросы, запись или воспроизведение журнала). Пути ручек в ServiceLinks относительные и разрешаются от baseUri,
+// поэтому клиенты с разными настройками работают в одной JVM одновременно и не трогают
+// глобальное состояние RestAssured
+@Getter
+@Builder(toBuilder = true)
+public class ApiConfig {
+    @Builder.Default private final String baseUri = ServiceLinks.BASE_URI;
+    // тайм-аут установки соединения
+    @Builder.Default private final long connectTimeoutMillis = 10_000;
+    // сколько ждать ответа на отправленный запрос
+    @Builder.Default private final long responseTimeoutMillis = 30_000;
+    @Builder.Default private final PoolSettings pool = PoolSettings.defaults();
+    @Builder.Default private final Gson gson = new Gson();
+    @Builder.Default private final ExchangeTransport transport = ExchangeTransport.live();
+
+    public static ApiConfig defaults() {
+        return ApiConfig.builder().build();
+    }
+
+    // Настройки по свойствам api.baseUri, api.connectTimeoutMillis, api.responseTimeoutMillis
+    // и транспорт процесса по свойству api.transport
+    public static ApiConfig fromSystemProperties() {
+        ApiConfig defaults = defaults();
+        return defaults.toBuilder()
+                .baseUri(System.getProperty("api.baseUri", defaults.getBaseUri()))
+                .connectTimeoutMillis(Long.getLong("api.connectTimeoutMillis", defaults.getConnectTimeoutMillis()))
+                .responseTimeoutMillis(Long.getLong("api.responseTimeoutMillis", defaults.getResponseTimeoutMillis()))
+                .transport(ExchangeTransport.getDefault())
+                .build();
+    }
+}
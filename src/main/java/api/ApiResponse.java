@@ -0,0 +1,85 @@
+package api;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import io.restassured.response.Response;
+
+import java.net.http.HttpResponse;
+
+// Ответ сервиса, тело которого разбирается ровно один раз: в дерево JSON и в типизированный объект.
+// Все последующие обращения к полям и проверки читают уже разобранные данные
+public class ApiResponse<T> {
+    private static final Gson GSON = new Gson();
+
+    private final int statusCode;
+    private final String body;
+    private final JsonObject json;
+    private final T value;
+
+    public ApiResponse(int statusCode, String body, Class<T> type) {
+        this(statusCode, body, type, GSON);
+    }
+
+    // gson — сериализатор из настроек клиента (ApiConfig)
+    public ApiResponse(int statusCode, String body, Class<T> type, Gson gson) {
+        this.statusCode = statusCode;
+        this.body = body;
+        this.json = parse(body);
+        this.value = json == null ? null
+                : type.isInstance(json) ? type.cast(json)
+                : gson.fromJson(json, type);
+    }
+
+    public static <T> ApiResponse<T> of(Response response, Class<T> type) {
+        return of(response, type, GSON);
+    }
+
+    public static <T> ApiResponse<T> of(Response response, Class<T> type, Gson gson) {
+        return new ApiResponse<>(response.getStatusCode(), response.asString(), type, gson);
+    }
+
+    public static <T> ApiResponse<T> of(HttpResponse<String> response, Class<T> type) {
+        return new ApiResponse<>(response.statusCode(), response.body(), type);
+    }
+
+    private static JsonObject parse(String body) {
+        if (body == null || body.isEmpty()) {
+            return null;
+        }
+        try {
+            JsonElement element = JsonParser.parseString(body);
+            return element.isJsonObject() ? element.getAsJsonObject() : null;
+        } catch (JsonParseException e) {
+            // например, html-страница ошибки от прокси
+            return null;
+        }
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    // Типизированное тело ответа; null, если тело не является JSON-объектом
+    public T get() {
+        return value;
+    }
+
+    // Значение поля верхнего уровня в виде строки; null, если поля нет
+    public String path(String key) {
+        if (json == null) {
+            return null;
+        }
+        JsonElement element = json.get(key);
+        if (element == null || element.isJsonNull()) {
+            return null;
+        }
+        return element.isJsonPrimitive() ? element.getAsString() : element.toString();
+    }
+}
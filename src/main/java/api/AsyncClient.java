@@ -0,0 +1,345 @@
+package api;
+
+import api.concurrent.AsyncSemaphore;
+import api.limit.ConcurrencyLimits;
+import api.limit.LimitPermit;
+import api.metrics.MetricsRegistry;
+import api.resilience.ResilienceExecutor;
+import api.resilience.ResiliencePolicy;
+import api.transport.ExchangeTransport;
+import api.transport.RecordedExchange;
+import lombok.Getter;
+import service.Endpoint;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Неблокирующий HTTP-клиент для асинхронных вариантов CourierAPI и OrderAPI.
+// Количество одновременно выполняющихся запросов ограничено окном: когда оно заполнено,
+// запрос ставится в очередь окна и отправляется, как только завершится один из уже отправленных;
+// вызывающий поток при этом не ждёт.
+// Запросы к ручкам сервиса выполняются по политике устойчивости: повторы, хеджирование и выключатель,
+// а каждая отправка дополнительно ждёт места в адаптивном лимите своей группы ручек.
+// При записи или воспроизведении (транспорт из ApiConfig) отправки идут через журнал обменов
+public class AsyncClient implements Closeable {
+    private static final byte[] NO_BODY = new byte[0];
+
+    private final HttpClient httpClient;
+    @Getter private final ApiConfig config;
+    private final URI baseUri;
+    private final Duration responseTimeout;
+    private final AsyncSemaphore window;
+    @Getter private final int maxInFlight;
+    @Getter private final MetricsRegistry metrics;
+    private final ResilienceExecutor resilience;
+    @Getter private final ConcurrencyLimits limits;
+    private final ExchangeTransport transport;
+    // политика и лимиты, созданные самим клиентом, а не переданные ему, закрываются вместе с ним
+    private final boolean ownsResilience;
+    private final boolean ownsLimits;
+
+    public AsyncClient(String baseUri, int maxInFlight, Duration connectTimeout) {
+        this(baseUri, maxInFlight, connectTimeout, MetricsRegistry.getDefault());
+    }
+
+    public AsyncClient(String baseUri, int maxInFlight, Duration connectTimeout, MetricsRegistry metrics) {
+        this(configFor(baseUri, connectTimeout), maxInFlight, metrics,
+                new ResilienceExecutor(ResiliencePolicy.fromSystemProperties(), metrics),
+                ConcurrencyLimits.fromSystemProperties(), true, true);
+    }
+
+    public AsyncClient(String baseUri, int maxInFlight, Duration connectTimeout, MetricsRegistry metrics,
+                       ResilienceExecutor resilience) {
+        this(configFor(baseUri, connectTimeout), maxInFlight, metrics, resilience,
+                ConcurrencyLimits.fromSystemProperties(), false, true);
+    }
+
+    public AsyncClient(String baseUri, int maxInFlight, Duration connectTimeout, MetricsRegistry metrics,
+                       ResilienceExecutor resilience, ConcurrencyLimits limits) {
+        this(configFor(baseUri, connectTimeout), maxInFlight, metrics, resilience, limits);
+    }
+
+    public AsyncClient(ApiConfig config, int maxInFlight, MetricsRegistry metrics,
+                       ResilienceExecutor resilience, ConcurrencyLimits limits) {
+        this(config, maxInFlight, metrics, resilience, limits, false, false);
+    }
+
+    private AsyncClient(ApiConfig config, int maxInFlight, MetricsRegistry metrics, ResilienceExecutor resilience,
+                        ConcurrencyLimits limits, boolean ownsResilience, boolean ownsLimits) {
+        this.ownsResilience = ownsResilience;
+        this.ownsLimits = ownsLimits;
+        this.config = config;
+        this.baseUri = URI.create(config.getBaseUri());
+        this.responseTimeout = Duration.ofMillis(config.getResponseTimeoutMillis());
+        this.maxInFlight = maxInFlight;
+        this.window = new AsyncSemaphore(maxInFlight);
+        this.metrics = metrics;
+        this.resilience = resilience;
+        this.limits = limits;
+        this.transport = config.getTransport();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(config.getConnectTimeoutMillis()))
+                .build();
+    }
+
+    // Сколько запросов сейчас в полёте
+    public int getInFlight() {
+        return maxInFlight - window.availablePermits();
+    }
+
+    // HttpClient закрывается только начиная с Java 21, где он AutoCloseable: close() дожидается запросов в полёте
+    // и останавливает его потоки. На более ранних версиях потоки клиента завершаются сами,
+    // когда на клиент не остаётся ссылок. Переданные снаружи политика и лимиты закрывает их владелец
+    @Override
+    public void close() {
+        if (httpClient instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) httpClient).close();
+            } catch (Exception e) {
+                throw new IllegalStateException("HTTP-клиент не закрыт", e);
+            }
+        }
+        if (ownsResilience) {
+            resilience.close();
+        }
+        if (ownsLimits) {
+            limits.close();
+        }
+    }
+
+    private static ApiConfig configFor(String baseUri, Duration connectTimeout) {
+        return ApiConfig.builder().baseUri(baseUri).connectTimeoutMillis(connectTimeout.toMillis()).build();
+    }
+
+    HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(responseTimeout);
+    }
+
+    // Готовое тело запроса отправляется без копирования
+    HttpRequest.BodyPublisher body(byte[] body) {
+        return new ByteArrayBody(body);
+    }
+
+    // Синхронный запрос, тело ответа которого читается по мере поступления из сокета.
+    // Место в окне освобождается, когда вызывающий закрывает поток тела.
+    // Политика устойчивости сюда не применяется: частично прочитанное тело повторить нельзя
+    StreamingResponse sendStreaming(HttpRequest request) throws IOException, InterruptedException {
+        if (transport.isReplaying()) {
+            return replayStreaming(request);
+        }
+        window.acquireBlocking();
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            window.release();
+            record(endpoint(request), request, 0, 0, -1, -1, System.nanoTime() - start);
+            throw e;
+        }
+        long headersAt = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        // при записи прочитанные байты копируются, чтобы при закрытии сохранить тело целиком
+        ByteArrayOutputStream recorded = transport.isRecording() ? new ByteArrayOutputStream() : null;
+        InputStream body = new FilterInputStream(response.body()) {
+            private long bytesRead;
+
+            @Override
+            public int read() throws IOException {
+                int value = super.read();
+                if (value >= 0) {
+                    bytesRead++;
+                    if (recorded != null) {
+                        recorded.write(value);
+                    }
+                }
+                return value;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int count = super.read(buffer, offset, length);
+                if (count > 0) {
+                    bytesRead += count;
+                    if (recorded != null) {
+                        recorded.write(buffer, offset, count);
+                    }
+                }
+                return count;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    if (recorded != null && !released.get()) {
+                        // недочитанный остаток тоже попадает в журнал
+                        recorded.write(in.readAllBytes());
+                        transport.record(request.method(), request.uri(), requestBody(request),
+                                response.statusCode(), contentType(response), recorded.toByteArray());
+                    }
+                } finally {
+                    try {
+                        super.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            window.release();
+                            long end = System.nanoTime();
+                            record(endpoint(request), request, response.statusCode(), bytesRead,
+                                    headersAt - start, end - headersAt, end - start);
+                        }
+                    }
+                }
+            }
+        };
+        return new StreamingResponse(response.statusCode(), body);
+    }
+
+    // Потоковый ответ из журнала: тело читается прямо из отображённого файла
+    private StreamingResponse replayStreaming(HttpRequest request) {
+        long start = System.nanoTime();
+        RecordedExchange exchange;
+        try {
+            exchange = transport.replay(request.method(), request.uri(), requestBody(request));
+        } catch (RuntimeException e) {
+            record(endpoint(request), request, 0, 0, -1, -1, System.nanoTime() - start);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        record(endpoint(request), request, exchange.getStatusCode(), exchange.getBodyLength(), elapsed, 0, elapsed);
+        return new StreamingResponse(exchange.getStatusCode(), exchange.openBody());
+    }
+
+    <T> CompletableFuture<ApiResponse<T>> send(HttpRequest request, Class<T> type) {
+        Endpoint endpoint = endpoint(request);
+        if (endpoint == null) {
+            return sendOnce(null, request, type, LimitPermit.none());
+        }
+        return resilience.callAsync(endpoint,
+                () -> limits.callAsync(endpoint, permit -> sendOnce(endpoint, request, type, permit),
+                        ApiResponse::getStatusCode),
+                ApiResponse::getStatusCode);
+    }
+
+    // Одна отправка запроса; повторы и хеджирующие копии отправляются этим же методом.
+    // Если окно заполнено, отправка начнётся в потоке, освободившем место
+    private <T> CompletableFuture<ApiResponse<T>> sendOnce(Endpoint endpoint, HttpRequest request, Class<T> type,
+                                                           LimitPermit permit) {
+        if (transport.isReplaying()) {
+            permit.start();
+            return replay(endpoint, request, type);
+        }
+        return window.acquire().thenCompose(ignored -> exchange(endpoint, request, type, permit));
+    }
+
+    // Отправка с уже занятым местом в окне; место освобождается по завершении обмена.
+    // Задержка для адаптивного лимита отсчитывается отсюда, без времени ожидания окна
+    private <T> CompletableFuture<ApiResponse<T>> exchange(Endpoint endpoint, HttpRequest request, Class<T> type,
+                                                           LimitPermit permit) {
+        permit.start();
+        long start = System.nanoTime();
+        long[] headersAt = new long[1];
+        // обработчик вызывается, как только пришли заголовки ответа
+        HttpResponse.BodyHandler<byte[]> handler = responseInfo -> {
+            headersAt[0] = System.nanoTime();
+            return HttpResponse.BodySubscribers.ofByteArray();
+        };
+        try {
+            return httpClient.sendAsync(request, handler)
+                    .whenComplete((response, error) -> {
+                        window.release();
+                        long end = System.nanoTime();
+                        if (response == null) {
+                            record(endpoint, request, 0, 0, -1, -1, end - start);
+                        } else {
+                            record(endpoint, request, response.statusCode(), response.body().length,
+                                    headersAt[0] - start, end - headersAt[0], end - start);
+                            if (transport.isRecording()) {
+                                transport.record(request.method(), request.uri(), requestBody(request),
+                                        response.statusCode(), contentType(response), response.body());
+                            }
+                        }
+                    })
+                    .thenApply(response -> new ApiResponse<>(response.statusCode(),
+                            new String(response.body(), StandardCharsets.UTF_8), type, config.getGson()));
+        } catch (RuntimeException e) {
+            window.release();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // Ответ из журнала вместо отправки; тело декодируется прямо из отображённого файла
+    private <T> CompletableFuture<ApiResponse<T>> replay(Endpoint endpoint, HttpRequest request, Class<T> type) {
+        long start = System.nanoTime();
+        try {
+            RecordedExchange exchange = transport.replay(request.method(), request.uri(), requestBody(request));
+            ApiResponse<T> response = new ApiResponse<>(exchange.getStatusCode(), exchange.getBodyAsString(),
+                    type, config.getGson());
+            long elapsed = System.nanoTime() - start;
+            record(endpoint, request, exchange.getStatusCode(), exchange.getBodyLength(), elapsed, 0, elapsed);
+            return CompletableFuture.completedFuture(response);
+        } catch (RuntimeException e) {
+            record(endpoint, request, 0, 0, -1, -1, System.nanoTime() - start);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // Время установки соединения у JDK-клиента недоступно и не записывается
+    private void record(Endpoint endpoint, HttpRequest request, int statusCode, long responseBytes,
+                        long firstByteNanos, long bodyNanos, long totalNanos) {
+        if (endpoint != null) {
+            long requestBytes = request.bodyPublisher().map(HttpRequest.BodyPublisher::contentLength).orElse(0L);
+            metrics.get(endpoint).record(statusCode, requestBytes, responseBytes,
+                    -1, firstByteNanos, bodyNanos, totalNanos);
+        }
+    }
+
+    private static Endpoint endpoint(HttpRequest request) {
+        return Endpoint.resolve(request.method(), request.uri().getPath());
+    }
+
+    private static byte[] requestBody(HttpRequest request) {
+        return request.bodyPublisher()
+                .filter(ByteArrayBody.class::isInstance)
+                .map(publisher -> ((ByteArrayBody) publisher).bytes)
+                .orElse(NO_BODY);
+    }
+
+    private static String contentType(HttpResponse<?> response) {
+        return response.headers().firstValue("Content-Type").orElse(null);
+    }
+
+    // Тело из готового массива байтов; массив остаётся доступен для ключа журнала обменов
+    private static class ByteArrayBody implements HttpRequest.BodyPublisher {
+        private final byte[] bytes;
+        private final HttpRequest.BodyPublisher delegate;
+
+        ByteArrayBody(byte[] bytes) {
+            this.bytes = bytes;
+            this.delegate = HttpRequest.BodyPublishers.ofByteArray(bytes);
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            delegate.subscribe(subscriber);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package api;
+
+import service.Courier;
+import service.LoginResult;
+import service.OkResult;
+
+import java.util.concurrent.CompletableFuture;
+
+import static service.ServiceLinks.*;
+
+// Асинхронные варианты запросов CourierAPI: каждый вызов сразу возвращает CompletableFuture
+public class AsyncCourierAPI {
+    private final AsyncClient client;
+
+    public AsyncCourierAPI() {
+        this(ClientContext.getDefault().getAsyncClient());
+    }
+
+    public AsyncCourierAPI(AsyncClient client) {
+        this.client = client;
+    }
+
+    // Создание курьера. Ручка api/v1/courier
+    public CompletableFuture<ApiResponse<OkResult>> postForCourierCreating(Courier courier) {
+        return client.send(client.request(COURIER_CREATE_ENDPOINT)
+                .header("Content-Type", "application/json")
+                .POST(client.body(RequestBodies.courier(courier)))
+                .build(), OkResult.class);
+    }
+
+    // Логин курьера в системе. Ручка api/v1/courier/login
+    public CompletableFuture<ApiResponse<LoginResult>> postForLogin(Courier courier) {
+        return client.send(client.request(COURIER_LOGIN_ENDPOINT)
+                .header("Content-Type", "application/json")
+                .POST(client.body(RequestBodies.courier(courier)))
+                .build(), LoginResult.class);
+    }
+
+    // Удаление курьера. Ручка api/v1/courier/:id
+    public CompletableFuture<ApiResponse<OkResult>> deleteCourier(Courier courier, int courierId) {
+        return client.send(client.request(String.format(COURIER_DELETE_ENDPOINT, courierId))
+                .header("Content-Type", "application/json")
+                .method("DELETE", client.body(RequestBodies.courier(courier)))
+                .build(), OkResult.class);
+    }
+}
@@ -0,0 +1,82 @@
+package api;
+
+import com.google.gson.JsonObject;
+import service.OkResult;
+import service.Order;
+import service.OrderListPage;
+import service.OrderListQuery;
+import service.TrackResult;
+
+import java.net.http.HttpRequest;
+import java.util.concurrent.CompletableFuture;
+
+import static service.ServiceLinks.*;
+
+// Асинхронные варианты запросов OrderAPI: каждый вызов сразу возвращает CompletableFuture
+public class AsyncOrderAPI {
+    private final AsyncClient client;
+    // кэш ручки заказа, который сбрасывается при отмене; null — кэша нет
+    private final TrackCache<?> orderInfoCache;
+
+    public AsyncOrderAPI() {
+        this(ClientContext.getDefault());
+    }
+
+    public AsyncOrderAPI(ClientContext context) {
+        this(context.getAsyncClient(), context.getOrderInfoCache());
+    }
+
+    public AsyncOrderAPI(AsyncClient client) {
+        this(client, null);
+    }
+
+    public AsyncOrderAPI(AsyncClient client, TrackCache<?> orderInfoCache) {
+        this.client = client;
+        this.orderInfoCache = orderInfoCache;
+    }
+
+    // Создание заказа. Ручка /api/v1/orders
+    public CompletableFuture<ApiResponse<TrackResult>> makeAnOrder(Order order) {
+        return client.send(client.request(ORDER_CREATE_ENDPOINT)
+                .header("Content-Type", "application/json")
+                .POST(client.body(RequestBodies.order(order)))
+                .build(), TrackResult.class);
+    }
+
+    // Информация о заказе по треку. Ручка /api/v1/orders/track
+    public CompletableFuture<ApiResponse<JsonObject>> getOrderInfo(int orderTrack) {
+        return client.send(client.request(ORDER_INFO_ENDPOINT + "?t=" + orderTrack)
+                .GET()
+                .build(), JsonObject.class);
+    }
+
+    // Список заказов. Ручка /api/v1/orders
+    public CompletableFuture<ApiResponse<JsonObject>> getOrderList(int limit) {
+        return client.send(client.request(ORDER_LIST_ENDPOINT + "?limit=" + limit)
+                .header("Content-Type", "application/json")
+                .GET()
+                .build(), JsonObject.class);
+    }
+
+    // Страница списка заказов с фильтрами. Ручка /api/v1/orders
+    public CompletableFuture<ApiResponse<OrderListPage>> getOrderList(OrderListQuery query, int page) {
+        return client.send(client.request(ORDER_LIST_ENDPOINT + "?" + query.toQueryString(page))
+                .header("Content-Type", "application/json")
+                .GET()
+                .build(), OrderListPage.class);
+    }
+
+    // Отмена заказа по треку. Ручка /api/v1/orders/cancel. Как и в OrderAPI, после отмены
+    // закэшированный ответ по треку сбрасывается при любом исходе запроса
+    public CompletableFuture<ApiResponse<OkResult>> cancelOrder(int orderTrack) {
+        CompletableFuture<ApiResponse<OkResult>> cancel = client.send(
+                client.request(ORDER_CANCEL_ENDPOINT + "?track=" + orderTrack)
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.noBody())
+                        .build(), OkResult.class);
+        if (orderInfoCache == null) {
+            return cancel;
+        }
+        return cancel.whenComplete((response, error) -> orderInfoCache.invalidate(orderTrack));
+    }
+}
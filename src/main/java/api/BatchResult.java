@@ -0,0 +1,74 @@
+package api;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+// Компактный результат пакетной операции: по одному треку и одному статус-коду на элемент, без объектов Response.
+// Статус-код 0 означает, что ответ не получен (ошибка соединения, таймаут или исключение при отправке);
+// причина такого элемента доступна через getError
+@Getter
+public class BatchResult {
+    private final int[] tracks;
+    private final int[] statusCodes;
+    @Getter(AccessLevel.NONE) private final Throwable[] errors;
+    private final int expectedStatusCode;
+    private final long elapsedMillis;
+
+    BatchResult(int[] tracks, int[] statusCodes, Throwable[] errors, int expectedStatusCode, long elapsedMillis) {
+        this.tracks = tracks;
+        this.statusCodes = statusCodes;
+        this.errors = errors;
+        this.expectedStatusCode = expectedStatusCode;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int size() {
+        return statusCodes.length;
+    }
+
+    public boolean isSucceeded(int index) {
+        return statusCodes[index] == expectedStatusCode;
+    }
+
+    public int getSucceededCount() {
+        int count = 0;
+        for (int statusCode : statusCodes) {
+            if (statusCode == expectedStatusCode) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getFailedCount() {
+        return size() - getSucceededCount();
+    }
+
+    // Исключение, из-за которого элемент не получил ответа; null — ответ получен
+    public Throwable getError(int index) {
+        return errors[index];
+    }
+
+    // Сколько элементов завершились исключением, а не ответом сервиса
+    public int getErrorCount() {
+        int count = 0;
+        for (Throwable error : errors) {
+            if (error != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Треки только успешно обработанных элементов
+    public int[] getSucceededTracks() {
+        int[] result = new int[getSucceededCount()];
+        int position = 0;
+        for (int i = 0; i < statusCodes.length; i++) {
+            if (statusCodes[i] == expectedStatusCode) {
+                result[position++] = tracks[i];
+            }
+        }
+        return result;
+    }
+}
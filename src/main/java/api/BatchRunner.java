@@ -0,0 +1,90 @@
+package api;
+
+import api.log.ApiLog;
+import api.log.ApiLogger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+// Запускает пакет асинхронных запросов с ограничением параллельности и скорости отправки
+class BatchRunner {
+    private static final ApiLogger log = ApiLog.getLogger(BatchRunner.class);
+
+    private final BatchSettings settings;
+
+    BatchRunner(BatchSettings settings) {
+        this.settings = settings;
+    }
+
+    // request — отправка i-го запроса, trackOf — извлечение трека из успешного ответа (null — треки уже известны)
+    <T> BatchResult run(int size, int expectedStatusCode, int[] tracks,
+                        IntFunction<CompletableFuture<ApiResponse<T>>> request,
+                        ToIntFunction<T> trackOf) {
+        int[] statusCodes = new int[size];
+        // исключение, из-за которого элемент остался без ответа; запись идёт из потоков завершения,
+        // чтение — после того, как все разрешения вернулись в семафор
+        Throwable[] errors = new Throwable[size];
+        Semaphore permits = new Semaphore(settings.getParallelism());
+        long intervalNanos = settings.getRatePerSecond() > 0
+                ? TimeUnit.SECONDS.toNanos(1) / settings.getRatePerSecond()
+                : 0;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < size; i++) {
+            // выдерживаем расписание отправки, не накапливая отставание от него
+            if (intervalNanos > 0) {
+                long delay = start + i * intervalNanos - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+            }
+            permits.acquireUninterruptibly();
+            int index = i;
+            CompletableFuture<ApiResponse<T>> future;
+            try {
+                future = request.apply(index);
+            } catch (RuntimeException e) {
+                failed(errors, index, e);
+                permits.release();
+                continue;
+            }
+            future.whenComplete((response, error) -> {
+                if (error != null) {
+                    failed(errors, index, error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                } else if (response != null) {
+                    int statusCode = response.getStatusCode();
+                    if (trackOf != null && statusCode == expectedStatusCode) {
+                        tracks[index] = response.get() != null ? trackOf.applyAsInt(response.get()) : 0;
+                    }
+                    statusCodes[index] = statusCode;
+                }
+                permits.release();
+            });
+        }
+
+        // дожидаемся завершения всех запросов: все разрешения вернулись в семафор
+        try {
+            if (!permits.tryAcquire(settings.getParallelism(), settings.getTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException(new TimeoutException("Пакет запросов не завершился за отведённое время"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new BatchResult(tracks, statusCodes, errors, expectedStatusCode, elapsedMillis);
+    }
+
+    // Элемент засчитывается как неудачный со статус-кодом 0, исключение сохраняется в результате
+    private static void failed(Throwable[] errors, int index, Throwable error) {
+        errors[index] = error;
+        log.warn("⚠\uFE0F ВНИМАНИЕ. Запрос %d пакета не выполнен: %s", index, error.toString());
+    }
+}
@@ -0,0 +1,20 @@
+package api;
+
+import lombok.Builder;
+import lombok.Getter;
+
+// Настройки пакетного создания и отмены заказов
+@Getter
+@Builder(toBuilder = true)
+public class BatchSettings {
+    // сколько запросов пакета может выполняться одновременно
+    @Builder.Default private final int parallelism = 32;
+    // ограничение скорости отправки, запросов в секунду; 0 — без ограничения
+    @Builder.Default private final int ratePerSecond = 0;
+    // сколько ждём завершения всего пакета
+    @Builder.Default private final long timeoutMillis = 600_000;
+
+    public static BatchSettings defaults() {
+        return BatchSettings.builder().build();
+    }
+}
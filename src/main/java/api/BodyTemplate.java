@@ -0,0 +1,154 @@
+package api;
+
+import java.nio.charset.StandardCharsets;
+
+// Шаблон JSON-тела с фиксированным набором полей. Имена полей, кавычки и двоеточия закодированы
+// в байты один раз при создании шаблона; при каждом запросе подставляются только значения.
+// Шаблон помнит закодированные значения предыдущего тела и не кодирует заново поля,
+// которые не изменились, — в нагрузочном прогоне меняются в основном логин, телефон и комментарий.
+// Экземпляр не потокобезопасен: RequestBodies держит по шаблону на поток
+final class BodyTemplate {
+    private final byte[][] names;
+    private final Object[] lastValues;
+    private final byte[][] lastEncoded;
+    private final byte[][] encoded;
+
+    BodyTemplate(String... fieldNames) {
+        this.names = new byte[fieldNames.length][];
+        for (int i = 0; i < fieldNames.length; i++) {
+            names[i] = ("\"" + fieldNames[i] + "\":").getBytes(StandardCharsets.UTF_8);
+        }
+        this.lastValues = new Object[fieldNames.length];
+        this.lastEncoded = new byte[fieldNames.length][];
+        this.encoded = new byte[fieldNames.length][];
+    }
+
+    // Значения полей в порядке имён: String, Integer или готовый JSON-фрагмент byte[].
+    // Поля со значением null пропускаются, как это делает Gson
+    byte[] encode(Object... values) {
+        int size = 2;
+        int present = 0;
+        for (int i = 0; i < names.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                encoded[i] = null;
+                continue;
+            }
+            byte[] bytes = value instanceof byte[] ? (byte[]) value : encodeCached(i, value);
+            encoded[i] = bytes;
+            size += (present++ > 0 ? 1 : 0) + names[i].length + bytes.length;
+        }
+
+        // тело пишется сразу в массив нужной длины, который потом без копирования уходит в запрос
+        byte[] body = new byte[size];
+        int position = 0;
+        body[position++] = '{';
+        boolean first = true;
+        for (int i = 0; i < names.length; i++) {
+            byte[] bytes = encoded[i];
+            if (bytes == null) {
+                continue;
+            }
+            if (!first) {
+                body[position++] = ',';
+            }
+            first = false;
+            System.arraycopy(names[i], 0, body, position, names[i].length);
+            position += names[i].length;
+            System.arraycopy(bytes, 0, body, position, bytes.length);
+            position += bytes.length;
+            encoded[i] = null;
+        }
+        body[position] = '}';
+        return body;
+    }
+
+    private byte[] encodeCached(int field, Object value) {
+        Object last = lastValues[field];
+        if (last == value || value.equals(last)) {
+            return lastEncoded[field];
+        }
+        byte[] bytes = value instanceof String ? string((String) value) : number((Integer) value);
+        lastValues[field] = value;
+        lastEncoded[field] = bytes;
+        return bytes;
+    }
+
+    static byte[] number(int value) {
+        return Integer.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // Строка JSON в кавычках; длина считается заранее, чтобы записать её в массив точного размера
+    static byte[] string(String value) {
+        byte[] out = new byte[stringLength(value)];
+        writeString(value, out, 0);
+        return out;
+    }
+
+    static int stringLength(String value) {
+        int length = 2;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\' || c == '\n' || c == '\r' || c == '\t' || c == '\b' || c == '\f') {
+                length += 2;
+            } else if (c < 0x20) {
+                length += 6;
+            } else if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    static int writeString(String value, byte[] out, int position) {
+        out[position++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out[position++] = '\\'; out[position++] = '"'; continue;
+                case '\\': out[position++] = '\\'; out[position++] = '\\'; continue;
+                case '\n': out[position++] = '\\'; out[position++] = 'n'; continue;
+                case '\r': out[position++] = '\\'; out[position++] = 'r'; continue;
+                case '\t': out[position++] = '\\'; out[position++] = 't'; continue;
+                case '\b': out[position++] = '\\'; out[position++] = 'b'; continue;
+                case '\f': out[position++] = '\\'; out[position++] = 'f'; continue;
+                default:
+            }
+            if (c < 0x20) {
+                out[position++] = '\\';
+                out[position++] = 'u';
+                out[position++] = '0';
+                out[position++] = '0';
+                out[position++] = (byte) Character.forDigit(c >> 4, 16);
+                out[position++] = (byte) Character.forDigit(c & 0xF, 16);
+            } else if (c < 0x80) {
+                out[position++] = (byte) c;
+            } else if (c < 0x800) {
+                out[position++] = (byte) (0xC0 | (c >> 6));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out[position++] = (byte) (0xF0 | (codePoint >> 18));
+                out[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                out[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                // остальные символы BMP и одиночные суррогаты — тремя байтами
+                out[position++] = (byte) (0xE0 | (c >> 12));
+                out[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        out[position++] = '"';
+        return position;
+    }
+}
@@ -0,0 +1,246 @@
+package api;
+
+import api.cleanup.CleanupRegistry;
+import api.cleanup.CleanupSettings;
+import api.concurrent.TaskThreads;
+import api.limit.ConcurrencyLimits;
+import api.limit.LimitPermit;
+import api.metrics.MetricsFilter;
+import api.metrics.MetricsRegistry;
+import api.metrics.TimingRequestExecutor;
+import api.resilience.ResilienceExecutor;
+import api.resilience.ResiliencePolicy;
+import api.transport.ExchangeTransport;
+import api.transport.RecordReplayFilter;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import lombok.Getter;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.protocol.HttpRequestExecutor;
+import service.Endpoint;
+
+import java.io.Closeable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static io.restassured.RestAssured.given;
+
+// Общий контекст для CourierAPI и OrderAPI: заранее собранные спецификации запросов
+// и один HTTP-клиент с пулом keep-alive соединений, которые переиспользуются между вызовами.
+// Всё состояние принадлежит экземпляру и настраивается неизменяемым ApiConfig,
+// поэтому контекст можно делить между параллельно выполняющимися тестами
+@SuppressWarnings("deprecation")
+public class ClientContext implements Closeable {
+    private static volatile ClientContext defaultContext;
+    private static final int LOGIN_CACHE_SIZE = 10_000;
+    private static final long LOGIN_CACHE_TTL_MILLIS = 600_000;
+
+    @Getter private final ApiConfig config;
+    @Getter private final MetricsRegistry metrics;
+    // общий для всех CourierAPI этого контекста кэш ID курьеров
+    @Getter private final LoginCache loginCache = new LoginCache(LOGIN_CACHE_SIZE, LOGIN_CACHE_TTL_MILLIS);
+    // кэш тел ответов ручки заказа по треку; включается свойством api.orderInfoCache, иначе null.
+    // Хранятся байты тела, а не объекты Response: они не зависят от того, прочитано ли тело фильтрами
+    @Getter private final TrackCache<byte[]> orderInfoCache = Boolean.getBoolean("api.orderInfoCache")
+            ? new TrackCache<>(Integer.getInteger("api.orderInfoCache.size", 4096),
+                    Long.getLong("api.orderInfoCache.ttlMillis", 2_000))
+            : null;
+    private final LeaseTrackingConnectionManager connectionManager;
+    private final RequestSpecification jsonSpec;
+    private final RequestSpecification plainSpec;
+    private final ScheduledExecutorService evictor;
+    // повторы, хеджирование и выключатель для запросов обоих клиентов этого контекста
+    private final ResilienceExecutor resilience;
+    // адаптивные лимиты одновременных запросов по группам ручек, общие для обоих клиентов
+    @Getter private final ConcurrencyLimits limits;
+    private volatile AsyncClient asyncClient;
+    private volatile CleanupRegistry cleanup;
+
+    public ClientContext(String baseUri, PoolSettings poolSettings) {
+        this(baseUri, poolSettings, MetricsRegistry.getDefault());
+    }
+
+    public ClientContext(String baseUri, PoolSettings poolSettings, MetricsRegistry metrics) {
+        this(baseUri, poolSettings, metrics, ResiliencePolicy.fromSystemProperties());
+    }
+
+    public ClientContext(String baseUri, PoolSettings poolSettings, MetricsRegistry metrics,
+                         ResiliencePolicy resiliencePolicy) {
+        this(ApiConfig.builder().baseUri(baseUri).pool(poolSettings).build(), metrics, resiliencePolicy);
+    }
+
+    public ClientContext(ApiConfig config) {
+        this(config, MetricsRegistry.getDefault(), ResiliencePolicy.fromSystemProperties());
+    }
+
+    public ClientContext(ApiConfig config, MetricsRegistry metrics, ResiliencePolicy resiliencePolicy) {
+        this(config, metrics, resiliencePolicy, ConcurrencyLimits.fromSystemProperties());
+    }
+
+    public ClientContext(ApiConfig config, MetricsRegistry metrics, ResiliencePolicy resiliencePolicy,
+                         ConcurrencyLimits limits) {
+        this.config = config;
+        this.metrics = metrics;
+        this.limits = limits;
+        PoolSettings poolSettings = config.getPool();
+        this.resilience = new ResilienceExecutor(resiliencePolicy, metrics);
+        this.connectionManager = new LeaseTrackingConnectionManager(poolSettings, TaskThreads.isVirtual());
+
+        // исполнитель запросов отмечает получение заголовков ответа для метрик
+        DefaultHttpClient httpClient = new DefaultHttpClient(connectionManager) {
+            @Override
+            protected HttpRequestExecutor createRequestExecutor() {
+                return new TimingRequestExecutor();
+            }
+        };
+        long keepAlive = poolSettings.getKeepAliveMillis();
+        // сервер может сам указать время жизни соединения, но не дольше нашего лимита
+        httpClient.setKeepAliveStrategy((response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive) : keepAlive;
+        });
+
+        // RestAssured по умолчанию создаёт новый клиент на каждый запрос, поэтому отдаём ему всегда один и тот же
+        // тайм-ауты из ApiConfig RestAssured передаёт в параметры этого клиента
+        RestAssuredConfig restAssuredConfig = RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig()
+                .reuseHttpClientInstance()
+                .httpClientFactory(() -> httpClient)
+                .setParam(CoreConnectionPNames.CONNECTION_TIMEOUT, (int) config.getConnectTimeoutMillis())
+                .setParam(CoreConnectionPNames.SO_TIMEOUT, (int) config.getResponseTimeoutMillis()));
+
+        RequestSpecBuilder plain = new RequestSpecBuilder()
+                .setBaseUri(config.getBaseUri())
+                .setConfig(restAssuredConfig)
+                .addFilter(new MetricsFilter(metrics));
+        // при записи или воспроизведении обмены идут через журнал транспорта из настроек
+        ExchangeTransport transport = config.getTransport();
+        if (transport.isRecording() || transport.isReplaying()) {
+            plain.addFilter(new RecordReplayFilter(transport));
+        }
+        this.plainSpec = plain.build();
+        this.jsonSpec = new RequestSpecBuilder()
+                .addRequestSpecification(plainSpec)
+                .setContentType(ContentType.JSON)
+                .build();
+
+        // фоновая очистка просроченных и простаивающих соединений
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = poolSettings.getEvictionPeriodMillis();
+        evictor.scheduleWithFixedDelay(() -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(poolSettings.getIdleEvictionMillis(), TimeUnit.MILLISECONDS);
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // Контекст по умолчанию: настройки из системных свойств (ApiConfig.fromSystemProperties)
+    public static ClientContext getDefault() {
+        ClientContext context = defaultContext;
+        if (context == null) {
+            synchronized (ClientContext.class) {
+                context = defaultContext;
+                if (context == null) {
+                    context = new ClientContext(ApiConfig.fromSystemProperties());
+                    defaultContext = context;
+                }
+            }
+        }
+        return context;
+    }
+
+    // Запрос с телом в формате JSON
+    public RequestSpecification json() {
+        return given().spec(jsonSpec);
+    }
+
+    // Запрос без указания типа содержимого
+    public RequestSpecification plain() {
+        return given().spec(plainSpec);
+    }
+
+    // Запрос к ручке по политике устойчивости; request собирает и отправляет одну попытку,
+    // каждая попытка ждёт места в лимите своей группы ручек
+    public Response call(Endpoint endpoint, Supplier<Response> request) {
+        return resilience.call(endpoint,
+                () -> limits.call(endpoint, permit -> withConnection(permit, request), Response::getStatusCode),
+                Response::getStatusCode);
+    }
+
+    // RestAssured дочитывает тело до возврата, так что к release() соединение уже вернулось в пул.
+    // Задержка для лимита отсчитывается с момента, когда соединение получено
+    private Response withConnection(LimitPermit permit, Supplier<Response> request) {
+        try {
+            connectionManager.acquireGate();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание свободного соединения прервано", e);
+        }
+        permit.start();
+        try {
+            return request.get();
+        } finally {
+            connectionManager.releaseGate();
+        }
+    }
+
+    // Неблокирующий клиент с тем же адресом сервиса; окно запросов в полёте равно лимиту соединений на хост
+    public AsyncClient getAsyncClient() {
+        AsyncClient client = asyncClient;
+        if (client == null) {
+            synchronized (this) {
+                client = asyncClient;
+                if (client == null) {
+                    client = new AsyncClient(config, config.getPool().getMaxPerRoute(), metrics, resilience, limits);
+                    asyncClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    // Реестр созданных через этот контекст курьеров и заказов для их фонового удаления
+    public CleanupRegistry getCleanup() {
+        CleanupRegistry registry = cleanup;
+        if (registry == null) {
+            synchronized (this) {
+                registry = cleanup;
+                if (registry == null) {
+                    registry = new CleanupRegistry(getAsyncClient(), orderInfoCache, CleanupSettings.defaults());
+                    cleanup = registry;
+                }
+            }
+        }
+        return registry;
+    }
+
+    public PoolStatistics getPoolStatistics() {
+        return connectionManager.statistics();
+    }
+
+    // Закрывает всё, что создал контекст: реестр очистки дожидается удалений через асинхронный клиент,
+    // поэтому он закрывается первым, а пул соединений — последним
+    @Override
+    public void close() {
+        if (cleanup != null) {
+            cleanup.close();
+        }
+        if (asyncClient != null) {
+            asyncClient.close();
+        }
+        resilience.close();
+        limits.close();
+        evictor.shutdownNow();
+        connectionManager.shutdown();
+    }
+}
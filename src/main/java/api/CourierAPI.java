@@ -1,126 +1,164 @@
 package api;
 
 import service.Courier;
+import service.Endpoint;
+import service.LoginResult;
+import service.OkResult;
+import api.log.ApiLog;
+import api.log.ApiLogger;
 import io.qameta.allure.Step;
-import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import static service.ServiceLinks.*;
-import static io.restassured.RestAssured.given;
 import static org.apache.http.HttpStatus.SC_CREATED;
 import static org.apache.http.HttpStatus.SC_OK;
 import static org.junit.Assert.assertEquals;
 
 public class CourierAPI {
+    private static final ApiLogger log = ApiLog.getLogger(CourierAPI.class);
+
+    private final ClientContext context;
+
+    public CourierAPI() {
+        this(ClientContext.getDefault());
+    }
+
+    public CourierAPI(ClientContext context) {
+        this.context = context;
+    }
 
     @Step("Получение ответа на POST запрос создания курьера. Ручка api/v1/courier")
-    public Response postForCourierCreating(Courier courier) {
-        System.out.println("Создаётся новый курьер...");
+    public ApiResponse<OkResult> postForCourierCreating(Courier courier) {
+        log.info("Создаётся новый курьер...");
 
-        Response response =
-                given()
-                        .contentType(ContentType.JSON)
+        ApiResponse<OkResult> response = ApiResponse.of(
+                context.call(Endpoint.COURIER_CREATE, () -> context.json()
                         .and()
-                        .body(courier)
+                        .body(RequestBodies.courier(courier))
                         .when()
-                        .post(COURIER_CREATE_ENDPOINT);
+                        .post(COURIER_CREATE_ENDPOINT)),
+                OkResult.class, context.getConfig().getGson());
 
-        // вывод сообщения в зависимости от исхода запроса
-        String responseBody = response.then().extract().body().asString();
+        // вывод сообщения в зависимости от исхода запроса; тело нужно только для предупреждения
         int statusCode = response.getStatusCode();
-        String info = (statusCode == SC_CREATED)
-                ? String.format("Статус-код: %d. Создан новый курьер.%n", statusCode)
-                : String.format("⚠\uFE0F ВНИМАНИЕ. Тело ответа: %s.%nКурьер не создан. Проверьте тело запроса.%n", responseBody);
-        System.out.println(info);
+        if (statusCode == SC_CREATED) {
+            log.info("Статус-код: %d. Создан новый курьер.%n", statusCode);
+            // курьер будет удалён после теста, если тест не удалит его сам
+            context.getCleanup().registerCourier(courier);
+        } else {
+            log.warn("⚠\uFE0F ВНИМАНИЕ. Тело ответа: %s.%nКурьер не создан. Проверьте тело запроса.%n", response.getBody());
+        }
 
         return response;
     }
 
     @Step("Получение ответа на POST запрос логина курьера в систему. Ручка api/v1/courier/login")
-    public Response postForLogin (Courier courier) {
-        System.out.println("Выполняется логин курьера в систему...");
-        Response response = given()
-                .contentType(ContentType.JSON)
-                .and()
-                .body(courier)
-                .when()
-                .post(COURIER_LOGIN_ENDPOINT);
+    public ApiResponse<LoginResult> postForLogin (Courier courier) {
+        log.info("Выполняется логин курьера в систему...");
+        ApiResponse<LoginResult> response = ApiResponse.of(
+                context.call(Endpoint.COURIER_LOGIN, () -> context.json()
+                        .and()
+                        .body(RequestBodies.courier(courier))
+                        .when()
+                        .post(COURIER_LOGIN_ENDPOINT)),
+                LoginResult.class, context.getConfig().getGson());
 
-        // вывод сообщения в зависимости от исхода запроса
-        String responseBody = response.then().extract().body().asString();
+        // вывод сообщения в зависимости от исхода запроса; тело нужно только для предупреждения
         int statusCode = response.getStatusCode();
-        String info = (statusCode == SC_OK)
-                ? String.format("Статус-код: %d. Успешный вход в систему.%n", statusCode)
-                : String.format("⚠\uFE0F ВНИМАНИЕ. Тело ответа: %s.%nВход не выполнен. Проверьте тело запроса.%n", responseBody);
-        System.out.println(info);
+        if (statusCode == SC_OK) {
+            log.info("Статус-код: %d. Успешный вход в систему.%n", statusCode);
+            if (response.get() != null && response.get().getId() != null) {
+                context.getLoginCache().put(courier.getLogin(), courier.getPassword(), response.get().getId());
+                context.getCleanup().courierLoggedIn(courier.getLogin(), response.get().getId());
+            }
+        } else {
+            log.warn("⚠\uFE0F ВНИМАНИЕ. Тело ответа: %s.%nВход не выполнен. Проверьте тело запроса.%n", response.getBody());
+        }
 
         return response;
     }
 
     @Step("Получение ID курьера. Ручка api/v1/courier/login")
-    public int getCourierId(Response response) {
-        System.out.println("Попытка входа курьера в систему...");
+    public int getCourierId(ApiResponse<LoginResult> response) {
+        log.info("Попытка входа курьера в систему...");
 
-        int courierId = response.then().extract().body().path("id");
+        // 0 — айди в ответе нет, курьер не вошёл в систему
+        LoginResult loginResult = response.get();
+        int courierId = (loginResult != null && loginResult.getId() != null) ? loginResult.getId() : 0;
 
-        // вывод сообщения в зависимости от исхода запроса
-        String responseBody = response.then().extract().body().asString();
+        // вывод сообщения в зависимости от исхода запроса; тело нужно только для предупреждения
         int statusCode = response.getStatusCode();
-        String info = (statusCode == SC_OK)
-                ? String.format("Статус-код: %d. Выполнен вход в систему курьера c ID: %d.%n", statusCode, courierId)
-                : String.format("⚠\uFE0F ВНИМАНИЕ. Тело ответа: %s.%nВход в систему курьером не выполнен.%n", responseBody);
-        System.out.println(info);
+        if (statusCode == SC_OK) {
+            log.info("Статус-код: %d. Выполнен вход в систему курьера c ID: %d.%n", statusCode, courierId);
+        } else {
+            log.warn("⚠\uFE0F ВНИМАНИЕ. Тело ответа: %s.%nВход в систему курьером не выполнен.%n", response.getBody());
+        }
 
         return courierId;
     }
 
+    @Step("Получение ID курьера по логину и паролю. Ручка api/v1/courier/login")
+    public int getCourierId(Courier courier) {
+        // логинимся, только если ID этого курьера ещё не встречался
+        int courierId = context.getLoginCache().get(courier.getLogin(), courier.getPassword());
+        if (courierId != 0) {
+            log.info("ID курьера %d взят из кэша.%n", courierId);
+            return courierId;
+        }
+        return getCourierId(postForLogin(courier));
+    }
+
     @Step ("Проверка статус-кода.")
-    public void assertStatusCode(Response response, int expectedStatusCode) {
-        System.out.println("Проверяется статус-код ответа...");
+    public void assertStatusCode(ApiResponse<?> response, int expectedStatusCode) {
+        log.info("Проверяется статус-код ответа...");
         int actualStatusCode = response.getStatusCode();
-        System.out.println(String.format("ОР: %d%nФР: %d", expectedStatusCode, actualStatusCode));
+        log.info("ОР: %d%nФР: %d", expectedStatusCode, actualStatusCode);
 
         if (actualStatusCode==expectedStatusCode) {
-            System.out.println("Статус-коды совпали.\n");
+            log.info("Статус-коды совпали.\n");
         } else {
-            System.out.println("⚠\uFE0F ВНИМАНИЕ. Статус-коды не совпали.\n");
+            log.warn("⚠\uFE0F ВНИМАНИЕ. Статус-коды не совпали.\n");
         }
 
         assertEquals("Ошибка. Статус-коды не совпали.", expectedStatusCode, actualStatusCode);
     }
 
     @Step ("Проверка тела ответа.")
-    public void assertResponseBody(Response response, String responseBodyKey, String expectedKeyValue) {
-        System.out.println("Проверяется тело ответа...");
-        String actualKeyValue = response.then().extract().body().path(responseBodyKey).toString();
-        System.out.println(String.format("ОР: %s%nФР: %s", expectedKeyValue, actualKeyValue));
+    public void assertResponseBody(ApiResponse<?> response, String responseBodyKey, String expectedKeyValue) {
+        log.info("Проверяется тело ответа...");
+        String actualKeyValue = response.path(responseBodyKey);
+        log.info("ОР: %s%nФР: %s", expectedKeyValue, actualKeyValue);
 
-        if (actualKeyValue.equals(expectedKeyValue)) {
-            System.out.println("Тела ответов совпадали.\n");
+        if (expectedKeyValue.equals(actualKeyValue)) {
+            log.info("Тела ответов совпадали.\n");
         } else {
-            System.out.println("⚠\uFE0F ВНИМАНИЕ. Тела ответов не совпали.\n");
+            log.warn("⚠\uFE0F ВНИМАНИЕ. Тела ответов не совпали.\n");
         }
 
         assertEquals("Ошибка. Тела ответов не совпали.", expectedKeyValue, actualKeyValue);
     }
 
-    @Step ("Удаление курьера из системы. Ручка /api/v1/courier/:id")
+    @Step ("Удаление курьера из системы. Ручка api/v1/courier/:id")
     public void deleteCourier(Courier courier, int courierId) {
-        System.out.println("Удаляем курьера из БД...");
+        log.info("Удаляем курьера из БД...");
 
-        Response response = given()
-                .contentType(ContentType.JSON)
+        // удаление идемпотентно, поэтому при 5xx и сбоях соединения запрос повторяется
+        Response response = context.call(Endpoint.COURIER_DELETE, () -> context.json()
                 .and()
-                .body(courier)
+                .body(RequestBodies.courier(courier))
                 .when()
-                .delete(String.format(COURIER_DELETE_ENDPOINT, courierId));
+                .delete(String.format(COURIER_DELETE_ENDPOINT, courierId)));
 
-        // вывод сообщения в зависимости от исхода запроса
-        String responseBody = response.then().extract().body().asString();
+        // после попытки удаления ID из кэша уже ненадёжен, каким бы ни был ответ
+        context.getLoginCache().invalidate(courierId);
+
+        // вывод сообщения в зависимости от исхода запроса; тело декодируется только для предупреждения
         int statusCode = response.getStatusCode();
-        String info = (statusCode == SC_OK)
-                ? String.format("Статус-код: %d. Курьер с id %d удалён.%n", statusCode, courierId)
-                : String.format("⚠\uFE0F ВНИМАНИЕ. Тело ответа: %s.%nКурьер с id %d не удалён.%n", responseBody, courierId);
-        System.out.println(info);
+        if (statusCode == SC_OK) {
+            log.info("Статус-код: %d. Курьер с id %d удалён.%n", statusCode, courierId);
+            context.getCleanup().forgetCourier(courierId);
+        } else if (log.isWarnEnabled()) {
+            log.warn("⚠\uFE0F ВНИМАНИЕ. Тело ответа: %s.%nКурьер с id %d не удалён.%n", response.asString(), courierId);
+        }
     }
 
 }
@@ -0,0 +1,99 @@
+package api;
+
+import api.metrics.TimingConnectionOperator;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Пул соединений, который дополнительно считает, сколько раз и как долго потоки ждали свободное соединение.
+// RestAssured работает поверх DefaultHttpClient, поэтому используется "старый" API пула HttpClient 4.x
+@SuppressWarnings("deprecation")
+class LeaseTrackingConnectionManager extends PoolingClientConnectionManager {
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    // Очередь за соединением для виртуальных потоков: пул Apache ждёт под монитором и занял бы поток-носитель.
+    // Все запросы контекста идут на один адрес сервиса, поэтому разрешений столько же, сколько соединений
+    // на этот маршрут. Для потоков платформы null: они ждут в самом пуле
+    private final Semaphore gate;
+
+    LeaseTrackingConnectionManager(PoolSettings settings, boolean gated) {
+        super();
+        setMaxTotal(settings.getMaxTotal());
+        setDefaultMaxPerRoute(settings.getMaxPerRoute());
+        this.gate = gated ? new Semaphore(Math.min(settings.getMaxPerRoute(), settings.getMaxTotal())) : null;
+    }
+
+    // Ожидание в очереди учитывается в статистике так же, как ожидание в пуле
+    void acquireGate() throws InterruptedException {
+        if (gate == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        gate.acquire();
+        recordWait(System.nanoTime() - start);
+    }
+
+    void releaseGate() {
+        if (gate != null) {
+            gate.release();
+        }
+    }
+
+    // оператор замеряет время установки новых соединений для метрик
+    @Override
+    protected ClientConnectionOperator createConnectionOperator(SchemeRegistry schemes) {
+        return new TimingConnectionOperator(schemes);
+    }
+
+    @Override
+    public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ClientConnectionRequest request = super.requestConnection(route, state);
+        return new ClientConnectionRequest() {
+            @Override
+            public ManagedClientConnection getConnection(long timeout, TimeUnit unit)
+                    throws InterruptedException, ConnectionPoolTimeoutException {
+                long start = System.nanoTime();
+                try {
+                    return request.getConnection(timeout, unit);
+                } finally {
+                    recordLease(System.nanoTime() - start);
+                }
+            }
+
+            @Override
+            public void abortRequest() {
+                request.abortRequest();
+            }
+        };
+    }
+
+    private void recordLease(long nanos) {
+        leases.increment();
+        recordWait(nanos);
+    }
+
+    private void recordWait(long nanos) {
+        waitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    PoolStatistics statistics() {
+        PoolStats stats = getTotalStats();
+        int queued = gate == null ? 0 : gate.getQueueLength();
+        return new PoolStatistics(stats.getLeased(), stats.getPending() + queued, stats.getAvailable(), stats.getMax(),
+                leases.sum(),
+                TimeUnit.NANOSECONDS.toMillis(waitNanos.sum()),
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+    }
+}
@@ -0,0 +1,116 @@
+package api;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Кэш ID курьеров по паре логин+пароль. Заполняется каждым успешным логином,
+// ограничен по размеру (вытесняется давно не использованная запись) и по времени жизни записи,
+// сбрасывается при удалении курьера
+public class LoginCache {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<String, CachedId> entries;
+    // ключи записей по ID курьера, чтобы удаление курьера не обходило весь кэш; меняется под той же блокировкой
+    private final Map<Integer, Set<String>> keysById = new HashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public LoginCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        // порядок доступа: при переполнении удаляется запись, к которой дольше всего не обращались
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedId> eldest) {
+                if (size() <= LoginCache.this.maxSize) {
+                    return false;
+                }
+                LoginCache.this.unindex(eldest.getKey(), eldest.getValue().courierId);
+                return true;
+            }
+        };
+    }
+
+    // ID курьера или 0, если его нет в кэше или запись устарела
+    public int get(String login, String password) {
+        String key = key(login, password);
+        synchronized (entries) {
+            CachedId entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.cachedAt < ttlNanos) {
+                hits.incrementAndGet();
+                return entry.courierId;
+            }
+            if (entry != null) {
+                entries.remove(key);
+                unindex(key, entry.courierId);
+            }
+        }
+        misses.incrementAndGet();
+        return 0;
+    }
+
+    public void put(String login, String password, int courierId) {
+        String key = key(login, password);
+        synchronized (entries) {
+            CachedId previous = entries.put(key, new CachedId(courierId, System.nanoTime()));
+            if (previous != null && previous.courierId != courierId) {
+                unindex(key, previous.courierId);
+            }
+            keysById.computeIfAbsent(courierId, id -> new HashSet<>(2)).add(key);
+        }
+    }
+
+    // Курьер удалён: убираем все записи с его ID
+    public void invalidate(int courierId) {
+        synchronized (entries) {
+            Set<String> keys = keysById.remove(courierId);
+            if (keys != null) {
+                for (String key : keys) {
+                    entries.remove(key);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    // Вызывается под блокировкой entries
+    private void unindex(String key, int courierId) {
+        Set<String> keys = keysById.get(courierId);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            keysById.remove(courierId);
+        }
+    }
+
+    private static String key(String login, String password) {
+        // нулевой символ не встречается ни в логине, ни в пароле
+        return login + '\u0000' + password;
+    }
+
+    private static final class CachedId {
+        private final int courierId;
+        private final long cachedAt;
+
+        private CachedId(int courierId, long cachedAt) {
+            this.courierId = courierId;
+            this.cachedAt = cachedAt;
+        }
+    }
+}
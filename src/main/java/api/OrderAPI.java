@@ -1,54 +1,87 @@
 package api;
 
+import service.Endpoint;
 import service.Order;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import service.OrderListPage;
+import service.OrderListQuery;
+import service.OrderView;
+import service.PageInfo;
+import service.TrackResult;
+import api.cleanup.CleanupRegistry;
+import api.log.ApiLog;
+import api.log.ApiLogger;
+import api.log.JsonPrettyPrinter;
+import api.log.LogLevel;
 import io.qameta.allure.Step;
-import io.restassured.http.ContentType;
+import io.restassured.builder.ResponseBuilder;
 import io.restassured.response.Response;
-import java.util.Map;
-import java.util.Objects;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import static service.ServiceLinks.*;
-import static io.restassured.RestAssured.given;
 import static org.apache.http.HttpStatus.SC_CREATED;
 import static org.apache.http.HttpStatus.SC_OK;
 import static org.junit.Assert.assertTrue;
 
 public class OrderAPI {
+    private static final ApiLogger log = ApiLog.getLogger(OrderAPI.class);
+
+    private final ClientContext context;
+
+    public OrderAPI() {
+        this(ClientContext.getDefault());
+    }
+
+    public OrderAPI(ClientContext context) {
+        this.context = context;
+    }
 
     @Step("Создаём заказ и получаем ответ. Ручка /api/v1/orders")
-    public Response makeAnOrder (Order order) {
-        System.out.println("Создаём заказ...");
-
-        Response response = given()
-                .contentType(ContentType.JSON)
-                .and()
-                .body(order)
-                .when()
-                .post(ORDER_CREATE_ENDPOINT);
-
-        // вывод сообщения в зависимости от исхода запроса
-        String responseBody = response.getBody().asString();
+    public ApiResponse<TrackResult> makeAnOrder (Order order) {
+        log.info("Создаём заказ...");
+
+        ApiResponse<TrackResult> response = ApiResponse.of(
+                context.call(Endpoint.ORDER_CREATE, () -> context.json()
+                        .and()
+                        .body(RequestBodies.order(order))
+                        .when()
+                        .post(ORDER_CREATE_ENDPOINT)),
+                TrackResult.class, context.getConfig().getGson());
+
+        // вывод сообщения в зависимости от исхода запроса; тело нужно только для предупреждения
         int statusCode = response.getStatusCode();
-        String info = (statusCode == SC_CREATED)
-                ? String.format("Статус-код: %d. Создан новый заказ.%n", statusCode)
-                : String.format("⚠\uFE0F ВНИМАНИЕ. Тело ответа: %s.%nЗаказ не создан. Проверьте тело запроса.%n", responseBody);
-        System.out.println(info);
+        if (statusCode == SC_CREATED) {
+            log.info("Статус-код: %d. Создан новый заказ.%n", statusCode);
+            // заказ будет отменён после теста, если тест не отменит его сам
+            if (response.get() != null && response.get().getTrack() != null) {
+                context.getCleanup().registerOrder(response.get().getTrack());
+            }
+        } else {
+            log.warn("⚠\uFE0F ВНИМАНИЕ. Тело ответа: %s.%nЗаказ не создан. Проверьте тело запроса.%n", response.getBody());
+        }
 
         return response;
     }
 
     @Step ("Проверяем, что тело ответа содержит трек-номер")
-    public void checkResponseBodyIncludesTrack (Response response) {
-        System.out.println("Проверяется наличие трек номера в теле ответа...");
+    public void checkResponseBodyIncludesTrack (ApiResponse<TrackResult> response) {
+        log.info("Проверяется наличие трек номера в теле ответа...");
 
-        boolean isTrackExist = response.then().extract().body().path("track")!=null;
+        boolean isTrackExist = response.get() != null && response.get().getTrack() != null;
 
         // Вывод информации о наличии содержимого в поле "track"
         if(isTrackExist) {
-            System.out.println("В теле ответа содержится трек-номер заказа.\n");
+            log.info("В теле ответа содержится трек-номер заказа.\n");
         } else {
-            System.out.println("⚠\uFE0F ВНИМАНИЕ. Трек-номер в теле ответа отсутствует.\n");
+            log.warn("⚠\uFE0F ВНИМАНИЕ. Трек-номер в теле ответа отсутствует.\n");
         }
 
         // Проверка
@@ -57,90 +90,238 @@ public class OrderAPI {
     }
 
     @Step ("Получаем трек-номер заказа. Ручка /api/v1/orders")
-    public int getOrderTrack (Response response) {
-        System.out.println("Получаем трек-номер заказа...");
+    public int getOrderTrack (ApiResponse<TrackResult> response) {
+        log.info("Получаем трек-номер заказа...");
 
-        int orderTrack = response.then().extract().body().path("track");
+        // 0 — трек-номер в ответе отсутствует
+        TrackResult trackResult = response.get();
+        int orderTrack = (trackResult != null && trackResult.getTrack() != null) ? trackResult.getTrack() : 0;
 
-        // вывод сообщения в зависимости от исхода запроса
-        String responseBody = response.getBody().asString();
+        // вывод сообщения в зависимости от исхода запроса; тело нужно только для предупреждения
         int statusCode = response.getStatusCode();
-        String info = (statusCode == SC_CREATED)
-                ? String.format("Статус-код: %d. Заказу присвоен трек-номер: %d.%n", statusCode, orderTrack)
-                : String.format("⚠\uFE0F ВНИМАНИЕ. Тело ответа: %s.%nТрек-номер не получен. Проверьте входные параметры.%n", responseBody);
-        System.out.println(info);
+        if (statusCode == SC_CREATED) {
+            log.info("Статус-код: %d. Заказу присвоен трек-номер: %d.%n", statusCode, orderTrack);
+        } else {
+            log.warn("⚠\uFE0F ВНИМАНИЕ. Тело ответа: %s.%nТрек-номер не получен. Проверьте входные параметры.%n", response.getBody());
+        }
 
         return orderTrack;
     }
 
     @Step ("Вывод на экран информации о заказе. Ручка /api/v1/orders/track")
     public Response printOrderInfo (int orderTrack) {
-        System.out.println("Выводится информация о заказе...");
+        log.info("Выводится информация о заказе...");
 
-        Response response = given()
-                .queryParam("t", orderTrack)
-                .get(ORDER_INFO_ENDPOINT);
+        // при включённом кэше повторные запросы того же трека в сервис не уходят: ответ собирается
+        // заново из сохранённых байтов тела, поэтому вызывающие не делят между собой один объект Response
+        TrackCache<byte[]> cache = context.getOrderInfoCache();
+        byte[] cached = cache != null ? cache.get(orderTrack) : null;
+        Response response;
+        if (cached == null) {
+            // долгий ответ дублируется хеджирующим запросом, 5xx и сбои соединения повторяются
+            response = context.call(Endpoint.ORDER_INFO, () -> context.plain()
+                    .queryParam("t", orderTrack)
+                    .get(ORDER_INFO_ENDPOINT));
+            if (cache != null && response.getStatusCode() == SC_OK) {
+                cache.put(orderTrack, response.asByteArray());
+            }
+        } else {
+            log.debug("Информация о заказе %d взята из кэша.", orderTrack);
+            response = new ResponseBuilder()
+                    .setStatusCode(SC_OK)
+                    .setContentType("application/json; charset=utf-8")
+                    .setBody(cached)
+                    .build();
+        }
 
-        int statusCode = response.getStatusCode();
+        // при выключенном выводе тело ответа не разбираем
+        if (!log.isInfoEnabled()) {
+            return response;
+        }
 
-        // Создаём объект gson для читаемого вида
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-        // Ответ представляет собой мэп, где ключ=строка, а значение может быть любым типом
-        Map<String, Object> responseBody = response.getBody().as(Map.class);
-        // Упаковываем его в читаемый вид
-        String prettyBody = gson.toJson(responseBody);
-        // Выводим на экран
-        System.out.println(String.format("Статус-код: %d. Создан заказ:%n%s%n", statusCode, prettyBody));
+        // тело переводится в читаемый вид прямо из байтов ответа в вывод журнала, без разбора в Map и без строки
+        Response printed = response;
+        log.log(LogLevel.INFO, String.format("Статус-код: %d. Создан заказ:", printed.getStatusCode()),
+                out -> JsonPrettyPrinter.print(printed.asInputStream(), out));
 
         return response;
     }
 
     @Step ("Получаем список заказов. Ручка /api/v1/orders")
-    public Map<String, Objects> getOrderList () {
-        System.out.println("Запрашиваем список заказов...");
+    public OrderListPage getOrderList () {
+        log.info("Запрашиваем список заказов...");
 
-        Response response = given()
-                .contentType(ContentType.JSON)
+        Response response = context.call(Endpoint.ORDER_LIST, () -> context.json()
                 .queryParam("limit", 2)
-                .get(ORDER_LIST_ENDPOINT);
+                .get(ORDER_LIST_ENDPOINT));
 
         int statusCode = response.getStatusCode();
-        if (statusCode == SC_OK) {
-            System.out.println(String.format("Статус код: %d", statusCode));
-        } else {
-            System.out.println(String.format("⚠\uFE0F ВНИМАНИЕ. Статус-код: %d", statusCode));
+        if (statusCode != SC_OK) {
+            log.warn("⚠\uFE0F ВНИМАНИЕ. Статус-код: %d", statusCode);
+            return null;
         }
+        log.info("Статус код: %d", statusCode);
 
-        // Получаем ответ со списком объектов
-        Map<String, Objects> orderList = response.getBody().as(Map.class);
+        // Получаем типизированную страницу: заказы разбираются потоком из тела ответа, без промежуточного Map
+        List<OrderView> orders = new ArrayList<>();
+        OrderListPage orderList = new OrderListPage();
+        orderList.setPageInfo(OrderListDecoder.decode(response.asInputStream(), orders::add));
+        orderList.setOrders(orders);
 
-        // Вывод информации о наличии непустого тела в ответе
-        boolean noEmptyBody = orderList != null;
-        if (noEmptyBody) {
-            System.out.println("В теле ответа содержится информация.");
+        // Вывод информации о наличии заказов в ответе
+        if (!orders.isEmpty()) {
+            log.info("В теле ответа содержится информация.");
         } else {
-            System.out.println("Тело ответа пустое.");
+            log.info("Тело ответа пустое.");
         }
         return orderList;
     }
 
     @Step ("Отмена заказа по его треку. Ручка /api/v1/orders/cancel")
     public void cancelOrder (int orderTrack) {
-        System.out.println("Отменяем заказ...");
+        log.info("Отменяем заказ...");
 
-        Response response = given().
-                contentType(ContentType.JSON)
+        Response response = context.call(Endpoint.ORDER_CANCEL, () -> context.json()
                 .queryParam("track", orderTrack)
-                .put(ORDER_CANCEL_ENDPOINT);
+                .put(ORDER_CANCEL_ENDPOINT));
 
-        // вывод сообщения в зависимости от исхода запроса
-        String responseBody = response.getBody().asString();
+        // после отмены закэшированный ответ по этому треку устарел
+        TrackCache<byte[]> cache = context.getOrderInfoCache();
+        if (cache != null) {
+            cache.invalidate(orderTrack);
+        }
+
+        // вывод сообщения в зависимости от исхода запроса; тело декодируется только для предупреждения
         int statusCode = response.getStatusCode();
-        String info = (statusCode == 200)
-                ? String.format("Статус-код: %d. Заказ с трек-номером %d отменён.%n", statusCode, orderTrack)
-                : String.format("⚠\uFE0F ВНИМАНИЕ. Тело ответа: %s.%nЗаказ с трек-номером %d не отменён. Проверьте запрос.%n", responseBody, orderTrack);
-        System.out.println(info);
+        if (statusCode == 200) {
+            log.info("Статус-код: %d. Заказ с трек-номером %d отменён.%n", statusCode, orderTrack);
+            context.getCleanup().forgetOrder(orderTrack);
+        } else if (log.isWarnEnabled()) {
+            log.warn("⚠\uFE0F ВНИМАНИЕ. Тело ответа: %s.%nЗаказ с трек-номером %d не отменён. Проверьте запрос.%n", response.asString(), orderTrack);
+        }
+    }
+
+    @Step ("Потоковое чтение списка заказов. Ручка /api/v1/orders")
+    public PageInfo forEachOrder (int limit, Consumer<OrderView> consumer) {
+        log.info("Запрашиваем список заказов потоком...");
+
+        int[] count = new int[1];
+        try (StreamingResponse response = requestOrderList(limit)) {
+            if (response.getStatusCode() != SC_OK) {
+                log.warn("⚠\uFE0F ВНИМАНИЕ. Статус-код: %d", response.getStatusCode());
+                return null;
+            }
+            PageInfo pageInfo = OrderListDecoder.decode(response.getBody(), order -> {
+                count[0]++;
+                consumer.accept(order);
+            });
+            log.info("Получено заказов: %d.%n", count[0]);
+            return pageInfo;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Заказы читаются из сокета по мере потребления потока; поток нужно закрыть (try-with-resources)
+    @Step ("Потоковое чтение списка заказов. Ручка /api/v1/orders")
+    public Stream<OrderView> streamOrders (int limit) {
+        StreamingResponse response = requestOrderList(limit);
+        if (response.getStatusCode() != SC_OK) {
+            log.warn("⚠\uFE0F ВНИМАНИЕ. Статус-код: %d", response.getStatusCode());
+            closeQuietly(response);
+            return Stream.empty();
+        }
+        OrderListDecoder decoder = new OrderListDecoder(response.getBody());
+        return StreamSupport.stream(decoder.spliterator(), false)
+                .onClose(() -> closeQuietly(response));
+    }
+
+    // Ленивый обход всех заказов по фильтру: страницы запрашиваются по мере чтения, следующая — заранее
+    @Step ("Постраничный обход списка заказов. Ручка /api/v1/orders")
+    public Iterator<OrderView> ordersIterator (OrderListQuery query) {
+        return Spliterators.iterator(ordersSpliterator(query));
     }
 
+    @Step ("Постраничный обход списка заказов. Ручка /api/v1/orders")
+    public Stream<OrderView> ordersStream (OrderListQuery query, boolean parallel) {
+        return StreamSupport.stream(ordersSpliterator(query), parallel);
+    }
 
+    private Spliterator<OrderView> ordersSpliterator (OrderListQuery query) {
+        log.info("Запрашиваем список заказов постранично, по %d на странице...", query.getLimit());
+        return OrderPageSpliterator.open(new AsyncOrderAPI(context.getAsyncClient()), query);
+    }
+
+    private StreamingResponse requestOrderList (int limit) {
+        try {
+            return context.getAsyncClient().sendStreaming(context.getAsyncClient()
+                    .request(ORDER_LIST_ENDPOINT + "?limit=" + limit)
+                    .GET()
+                    .build());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void closeQuietly (StreamingResponse response) {
+        try {
+            response.close();
+        } catch (IOException e) {
+            log.debug("Не удалось закрыть поток ответа: %s", e);
+        }
+    }
+
+    @Step ("Пакетное создание заказов. Ручка /api/v1/orders")
+    public BatchResult makeOrders (Collection<Order> orders) {
+        return makeOrders(orders, BatchSettings.defaults());
+    }
+
+    @Step ("Пакетное создание заказов. Ручка /api/v1/orders")
+    public BatchResult makeOrders (Collection<Order> orders, BatchSettings settings) {
+        log.info("Создаём пакет из %d заказов...", orders.size());
+
+        AsyncOrderAPI asyncOrderAPI = new AsyncOrderAPI(context.getAsyncClient());
+        // заказ выбирается по индексу запроса, чтобы результат с номером i всегда относился к i-му заказу
+        List<Order> batch = new ArrayList<>(orders);
+        BatchResult result = new BatchRunner(settings).run(batch.size(), SC_CREATED, new int[batch.size()],
+                index -> asyncOrderAPI.makeAnOrder(batch.get(index)),
+                trackResult -> trackResult.getTrack() != null ? trackResult.getTrack() : 0);
+        CleanupRegistry cleanup = context.getCleanup();
+        for (int track : result.getSucceededTracks()) {
+            if (track != 0) {
+                cleanup.registerOrder(track);
+            }
+        }
+
+        log.log(LogLevel.INFO, () -> String.format("Создано заказов: %d из %d за %d мс.%n",
+                result.getSucceededCount(), result.size(), result.getElapsedMillis()));
+        return result;
+    }
+
+    @Step ("Пакетная отмена заказов по трекам. Ручка /api/v1/orders/cancel")
+    public BatchResult cancelOrders (int[] orderTracks) {
+        return cancelOrders(orderTracks, BatchSettings.defaults());
+    }
+
+    @Step ("Пакетная отмена заказов по трекам. Ручка /api/v1/orders/cancel")
+    public BatchResult cancelOrders (int[] orderTracks, BatchSettings settings) {
+        log.info("Отменяем пакет из %d заказов...", orderTracks.length);
+
+        // отмена через асинхронный клиент сама сбрасывает кэш ручки заказа
+        AsyncOrderAPI asyncOrderAPI = new AsyncOrderAPI(context);
+        BatchResult result = new BatchRunner(settings).run(orderTracks.length, SC_OK, orderTracks.clone(),
+                index -> asyncOrderAPI.cancelOrder(orderTracks[index]),
+                null);
+        CleanupRegistry cleanup = context.getCleanup();
+        for (int track : result.getSucceededTracks()) {
+            cleanup.forgetOrder(track);
+        }
+
+        log.log(LogLevel.INFO, () -> String.format("Отменено заказов: %d из %d за %d мс.%n",
+                result.getSucceededCount(), result.size(), result.getElapsedMillis()));
+        return result;
+    }
 }
@@ -0,0 +1,121 @@
+package api;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import service.OrderView;
+import service.PageInfo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+// Потоковый разбор ответа со списком заказов: заказы читаются по одному прямо из входного потока,
+// поэтому расход памяти не зависит от количества заказов в ответе.
+// Поля ответа, кроме orders и pageInfo, пропускаются без построения объектов
+public class OrderListDecoder implements Closeable {
+    private static final Gson GSON = new Gson();
+    private static final TypeAdapter<OrderView> ORDER_ADAPTER = GSON.getAdapter(OrderView.class);
+    private static final TypeAdapter<PageInfo> PAGE_INFO_ADAPTER = GSON.getAdapter(PageInfo.class);
+
+    private final JsonReader reader;
+    private PageInfo pageInfo;
+    // true — читатель стоит внутри массива orders
+    private boolean insideOrders;
+    private boolean finished;
+
+    public OrderListDecoder(InputStream body) {
+        this.reader = new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    // Разбирает весь ответ, передавая каждый заказ потребителю; возвращает информацию о странице
+    public static PageInfo decode(InputStream body, Consumer<OrderView> consumer) {
+        try (OrderListDecoder decoder = new OrderListDecoder(body)) {
+            OrderView order;
+            while ((order = decoder.next()) != null) {
+                consumer.accept(order);
+            }
+            return decoder.getPageInfo();
+        }
+    }
+
+    // Следующий заказ или null, если заказы закончились
+    public OrderView next() {
+        try {
+            if (finished) {
+                return null;
+            }
+            if (!insideOrders && !seekOrders()) {
+                finished = true;
+                return null;
+            }
+            if (reader.hasNext()) {
+                return ORDER_ADAPTER.read(reader);
+            }
+            reader.endArray();
+            insideOrders = false;
+            // дочитываем оставшиеся поля, чтобы получить pageInfo, если он идёт после заказов
+            seekOrders();
+            finished = true;
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Информация о странице; доступна после того, как заказы прочитаны до конца
+    public PageInfo getPageInfo() {
+        return pageInfo;
+    }
+
+    // Spliterator поверх заказов ответа для построения Stream<OrderView>
+    public Spliterator<OrderView> spliterator() {
+        return new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super OrderView> action) {
+                OrderView order = next();
+                if (order == null) {
+                    return false;
+                }
+                action.accept(order);
+                return true;
+            }
+        };
+    }
+
+    // Читает поля верхнего уровня до начала массива orders (true) или до конца объекта (false)
+    private boolean seekOrders() throws IOException {
+        if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+            reader.beginObject();
+        }
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("orders".equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                insideOrders = true;
+                return true;
+            } else if ("pageInfo".equals(name) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                pageInfo = PAGE_INFO_ADAPTER.read(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package api;
+
+import service.OrderListPage;
+import service.OrderListQuery;
+import service.OrderView;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.apache.http.HttpStatus.SC_OK;
+
+// Ленивый обход всех страниц списка заказов: первая страница запрашивается только при первом обращении
+// к обходу, а пока потребитель читает текущую страницу, следующая уже запрашивается в фоне.
+// Если известно общее число заказов, диапазон страниц делится пополам для параллельных потоков,
+// и каждая половина подгружает свои страницы сама. Страница с ответом не 200 или с неразборчивым телом
+// прерывает обход IllegalStateException, а не выдаётся за конец списка
+class OrderPageSpliterator implements Spliterator<OrderView> {
+    private final AsyncOrderAPI asyncOrderAPI;
+    private final OrderListQuery query;
+    // следующая страница, которую нужно запросить или забрать из prefetched
+    private int nextPage;
+    // граница диапазона страниц (не включается)
+    private int endPage;
+    private Iterator<OrderView> current = Collections.emptyIterator();
+    private CompletableFuture<ApiResponse<OrderListPage>> prefetched;
+    // загружена ли первая страница, по которой определяется граница обхода
+    private boolean opened;
+
+    private OrderPageSpliterator(AsyncOrderAPI asyncOrderAPI, OrderListQuery query, int nextPage, int endPage,
+                                 boolean opened) {
+        this.asyncOrderAPI = asyncOrderAPI;
+        this.query = query;
+        this.nextPage = nextPage;
+        this.endPage = endPage;
+        this.opened = opened;
+    }
+
+    // Запросов при создании не делается: первая страница загружается при первом tryAdvance или trySplit
+    static OrderPageSpliterator open(AsyncOrderAPI asyncOrderAPI, OrderListQuery query) {
+        return new OrderPageSpliterator(asyncOrderAPI, query, query.getPage(), Integer.MAX_VALUE, false);
+    }
+
+    // Загружает первую страницу, чтобы узнать общее число заказов и границу обхода
+    private void ensureOpened() {
+        if (opened) {
+            return;
+        }
+        opened = true;
+        OrderListPage first = pageOrThrow(nextPage, fetch(nextPage));
+        if (first.getPageInfo() != null && query.getLimit() > 0) {
+            int total = first.getPageInfo().getTotal();
+            endPage = Math.max(nextPage + 1, (total + query.getLimit() - 1) / query.getLimit());
+        }
+        accept(first);
+    }
+
+    private CompletableFuture<ApiResponse<OrderListPage>> fetch(int page) {
+        return asyncOrderAPI.getOrderList(query, page);
+    }
+
+    // Разобранная страница; ошибка сервиса или неразборчивое тело — исключение, а не пустая страница
+    private static OrderListPage pageOrThrow(int page, CompletableFuture<ApiResponse<OrderListPage>> request) {
+        ApiResponse<OrderListPage> response = request.join();
+        if (response.getStatusCode() != SC_OK || response.get() == null) {
+            throw new IllegalStateException(String.format("Страница %d списка заказов: %d %s",
+                    page, response.getStatusCode(), response.getBody()));
+        }
+        return response.get();
+    }
+
+    // Делает страницу текущей и сразу запрашивает следующую
+    private void accept(OrderListPage page) {
+        nextPage++;
+        List<OrderView> orders = page.getOrders() == null
+                ? Collections.emptyList()
+                : page.getOrders();
+        if (orders.size() < query.getLimit()) {
+            // неполная страница — дальше заказов нет
+            endPage = nextPage;
+        }
+        prefetched = nextPage < endPage ? fetch(nextPage) : null;
+        current = orders.iterator();
+    }
+
+    private boolean loadNextPage() {
+        if (nextPage >= endPage) {
+            return false;
+        }
+        CompletableFuture<ApiResponse<OrderListPage>> page = prefetched != null ? prefetched : fetch(nextPage);
+        accept(pageOrThrow(nextPage, page));
+        return true;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super OrderView> action) {
+        ensureOpened();
+        while (!current.hasNext()) {
+            if (!loadNextPage()) {
+                return false;
+            }
+        }
+        action.accept(current.next());
+        return true;
+    }
+
+    @Override
+    public Spliterator<OrderView> trySplit() {
+        // параллельный поток делит обход до первого чтения, а делить можно только зная число заказов
+        ensureOpened();
+        // страница в prefetched уже запрошена этой частью, делим только нетронутые
+        int from = prefetched != null ? nextPage + 1 : nextPage;
+        if (endPage == Integer.MAX_VALUE || endPage - from < 2) {
+            return null;
+        }
+        int middle = from + (endPage - from) / 2;
+        OrderPageSpliterator split = new OrderPageSpliterator(asyncOrderAPI, query, middle, endPage, true);
+        endPage = middle;
+        return split;
+    }
+
+    @Override
+    public long estimateSize() {
+        return endPage == Integer.MAX_VALUE ? Long.MAX_VALUE : (long) (endPage - nextPage + 1) * query.getLimit();
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
@@ -0,0 +1,24 @@
+package api;
+
+import lombok.Builder;
+import lombok.Getter;
+
+// Настройки пула HTTP-соединений, через который ходят CourierAPI и OrderAPI
+@Getter
+@Builder(toBuilder = true)
+public class PoolSettings {
+    // максимальное число соединений в пуле
+    @Builder.Default private final int maxTotal = 200;
+    // максимальное число соединений на один хост (маршрут)
+    @Builder.Default private final int maxPerRoute = 100;
+    // сколько держим соединение открытым, если сервер не прислал Keep-Alive
+    @Builder.Default private final long keepAliveMillis = 30_000;
+    // соединения, простаивающие дольше этого времени, закрываются фоновой задачей
+    @Builder.Default private final long idleEvictionMillis = 10_000;
+    // период запуска фоновой задачи очистки пула
+    @Builder.Default private final long evictionPeriodMillis = 5_000;
+
+    public static PoolSettings defaults() {
+        return PoolSettings.builder().build();
+    }
+}
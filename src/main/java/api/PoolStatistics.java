@@ -0,0 +1,28 @@
+package api;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Снимок состояния пула соединений: текущая занятость и накопленная статистика выдачи соединений
+@Getter
+@AllArgsConstructor
+public class PoolStatistics {
+    private final int leased;
+    private final int pending;
+    private final int available;
+    private final int max;
+    private final long totalLeases;
+    private final long totalWaitMillis;
+    private final long maxWaitMillis;
+
+    public double getAverageWaitMillis() {
+        return totalLeases == 0 ? 0 : (double) totalWaitMillis / totalLeases;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("занято: %d, в ожидании: %d, свободно: %d, максимум: %d, выдано: %d, " +
+                        "ожидание (сред./макс.): %.2f/%d мс",
+                leased, pending, available, max, totalLeases, getAverageWaitMillis(), maxWaitMillis);
+    }
+}
@@ -0,0 +1,82 @@
+package api;
+
+import service.Courier;
+import service.Order;
+import service.ScooterColor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// JSON-тела запросов курьеров и заказов без рефлексии: через шаблоны BodyTemplate, по одному на поток.
+// Поля идут в том же порядке, что и у Gson, поля со значением null пропускаются
+final class RequestBodies {
+    private static final ThreadLocal<BodyTemplate> orderTemplate = ThreadLocal.withInitial(() -> new BodyTemplate(
+            "firstName", "lastName", "address", "metroStation", "phone",
+            "rentTime", "deliveryDate", "comment", "color"));
+    private static final ThreadLocal<BodyTemplate> courierTemplate = ThreadLocal.withInitial(() -> new BodyTemplate(
+            "login", "password", "firstName"));
+    // готовые фрагменты для каждого набора цветов, индекс — битовая маска ScooterColor
+    private static final byte[][] COLOR_SETS = new byte[1 << ScooterColor.values().length][];
+
+    static {
+        for (int mask = 0; mask < COLOR_SETS.length; mask++) {
+            StringBuilder json = new StringBuilder("[");
+            for (ScooterColor color : ScooterColor.values()) {
+                if ((mask & (1 << color.ordinal())) != 0) {
+                    json.append(json.length() > 1 ? "," : "").append('"').append(color.name()).append('"');
+                }
+            }
+            COLOR_SETS[mask] = json.append(']').toString().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private RequestBodies() {
+    }
+
+    static byte[] order(Order order) {
+        return orderTemplate.get().encode(
+                order.getFirstName(), order.getLastName(), order.getAddress(), order.getMetroStation(),
+                order.getPhone(), order.getRentTime(), order.getDeliveryDate(), order.getComment(),
+                colors(order.getColor()));
+    }
+
+    static byte[] courier(Courier courier) {
+        return courierTemplate.get().encode(courier.getLogin(), courier.getPassword(), courier.getFirstName());
+    }
+
+    // Цвета из известного набора в порядке объявления и без повторов берутся готовым фрагментом по маске;
+    // прочие списки (другой порядок, повторы, пустая строка в тесте заказа без цвета) кодируются
+    // как обычный массив строк, поэтому тело всегда совпадает с тем, что выдал бы Gson
+    static byte[] colors(List<String> colors) {
+        if (colors == null) {
+            return null;
+        }
+        int mask = ScooterColor.mask(colors);
+        if (mask >= 0) {
+            return COLOR_SETS[mask];
+        }
+        int size = 2 + Math.max(0, colors.size() - 1);
+        for (String color : colors) {
+            size += color == null ? 4 : BodyTemplate.stringLength(color);
+        }
+        byte[] out = new byte[size];
+        int position = 0;
+        out[position++] = '[';
+        for (int i = 0; i < colors.size(); i++) {
+            if (i > 0) {
+                out[position++] = ',';
+            }
+            String color = colors.get(i);
+            if (color == null) {
+                out[position++] = 'n';
+                out[position++] = 'u';
+                out[position++] = 'l';
+                out[position++] = 'l';
+            } else {
+                position = BodyTemplate.writeString(color, out, position);
+            }
+        }
+        out[position] = ']';
+        return out;
+    }
+}
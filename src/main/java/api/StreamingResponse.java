@@ -0,0 +1,24 @@
+package api;
+
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Ответ, тело которого ещё не прочитано и читается потоком. Обязательно закрывается после чтения
+@Getter
+public class StreamingResponse implements Closeable {
+    private final int statusCode;
+    private final InputStream body;
+
+    StreamingResponse(int statusCode, InputStream body) {
+        this.statusCode = statusCode;
+        this.body = body;
+    }
+
+    @Override
+    public void close() throws IOException {
+        body.close();
+    }
+}
@@ -0,0 +1,183 @@
+package api;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Кэш ответов по трек-номеру заказа. Ключи хранятся в массиве int без упаковки в Integer:
+// таблица с открытой адресацией разбита на сегменты со своей блокировкой, ключ ищется
+// в окне из нескольких соседних ячеек. Если окно заполнено, вытесняется самая старая запись окна.
+// Записи живут не дольше ttl
+public class TrackCache<V> {
+    private static final int PROBE_WINDOW = 8;
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment<V>[] segments;
+    private final int segmentShift;
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public TrackCache(int capacity, long ttlMillis) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        int tableSize = Integer.highestOneBit(Math.max(PROBE_WINDOW, capacity - 1) << 1);
+        int segmentCount = Math.min(MAX_SEGMENTS, tableSize / PROBE_WINDOW);
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+        this.segments = (Segment<V>[]) new Segment<?>[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(tableSize / segmentCount);
+        }
+    }
+
+    // Значение по треку или null, если его нет или оно устарело
+    public V get(int track) {
+        int hash = hash(track);
+        V value = segmentFor(hash).get(track, hash, System.nanoTime(), ttlNanos);
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    public void put(int track, V value) {
+        int hash = hash(track);
+        if (segmentFor(hash).put(track, hash, value, System.nanoTime(), ttlNanos)) {
+            evictions.increment();
+        }
+    }
+
+    public void invalidate(int track) {
+        int hash = hash(track);
+        segmentFor(hash).remove(track, hash);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    // Доля запросов, обслуженных из кэша
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("записей: %d, попаданий: %d, промахов: %d, доля попаданий: %.1f%%, вытеснено: %d",
+                size(), getHits(), getMisses(), getHitRatio() * 100, getEvictions());
+    }
+
+    private Segment<V> segmentFor(int hash) {
+        return segments.length == 1 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    // треки идут подряд, поэтому перемешиваем биты, чтобы соседние треки попадали в разные сегменты
+    private static int hash(int track) {
+        int hash = track * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Segment<V> {
+        private final int[] keys;
+        private final long[] storedAt;
+        private final Object[] values;
+        private final int mask;
+        private final int window;
+        private int size;
+
+        private Segment(int capacity) {
+            this.keys = new int[capacity];
+            this.storedAt = new long[capacity];
+            this.values = new Object[capacity];
+            this.mask = capacity - 1;
+            this.window = Math.min(PROBE_WINDOW, capacity);
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized V get(int track, int hash, long now, long ttlNanos) {
+            int slot = find(track, hash);
+            if (slot < 0) {
+                return null;
+            }
+            if (now - storedAt[slot] >= ttlNanos) {
+                clear(slot);
+                return null;
+            }
+            return (V) values[slot];
+        }
+
+        // true — ради новой записи пришлось вытеснить живую
+        synchronized boolean put(int track, int hash, V value, long now, long ttlNanos) {
+            int slot = find(track, hash);
+            boolean evicted = false;
+            if (slot < 0) {
+                slot = freeOrOldest(hash, now, ttlNanos);
+                evicted = values[slot] != null && now - storedAt[slot] < ttlNanos;
+                if (values[slot] == null) {
+                    size++;
+                }
+            }
+            keys[slot] = track;
+            storedAt[slot] = now;
+            values[slot] = value;
+            return evicted;
+        }
+
+        synchronized void remove(int track, int hash) {
+            int slot = find(track, hash);
+            if (slot >= 0) {
+                clear(slot);
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private int find(int track, int hash) {
+            for (int i = 0; i < window; i++) {
+                int slot = (hash + i) & mask;
+                if (values[slot] != null && keys[slot] == track) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        // пустая или устаревшая ячейка окна, а если таких нет — самая старая
+        private int freeOrOldest(int hash, long now, long ttlNanos) {
+            int oldest = hash & mask;
+            for (int i = 0; i < window; i++) {
+                int slot = (hash + i) & mask;
+                if (values[slot] == null || now - storedAt[slot] >= ttlNanos) {
+                    return slot;
+                }
+                if (storedAt[slot] - storedAt[oldest] < 0) {
+                    oldest = slot;
+                }
+            }
+            return oldest;
+        }
+
+        private void clear(int slot) {
+            values[slot] = null;
+            size--;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package api.cleanup;
+
+import api.report.AllureRunSummary;
+import io.qameta.allure.model.Status;
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.RunListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Отмечает границы тестов для CleanupRegistry: созданное тестом удаляется в фоне сразу после него.
+// По окончании прогона дожидается очистки и добавляет итог в общую запись прогона в отчёте Allure.
+// Подключается в maven-surefire-plugin как listener
+public class CleanupListener extends RunListener {
+
+    @Override
+    public void testStarted(Description description) {
+        CleanupRegistry.enterScope();
+    }
+
+    @Override
+    public void testFinished(Description description) {
+        CleanupRegistry.exitScope();
+    }
+
+    @Override
+    public void testRunFinished(Result result) {
+        CleanupReport report = CleanupRegistry.flushAll();
+        if (report.getCleaned() + report.getAlreadyGone() == 0 && !report.hasLeaks()) {
+            return;
+        }
+        AllureRunSummary.attach("api.cleanup.CleanupRegistry", "Очистка тестовых данных", "Очистка",
+                report.hasLeaks() ? Status.BROKEN : Status.PASSED,
+                List.of(new AllureRunSummary.Part("Итог очистки", "text/plain", ".txt",
+                        report.toString().getBytes(StandardCharsets.UTF_8))));
+    }
+}
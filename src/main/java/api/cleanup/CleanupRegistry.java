@@ -0,0 +1,358 @@
+package api.cleanup;
+
+import api.ApiResponse;
+import api.AsyncClient;
+import api.AsyncCourierAPI;
+import api.AsyncOrderAPI;
+import api.TrackCache;
+import api.log.ApiLog;
+import api.log.ApiLogger;
+import service.Courier;
+import service.LoginResult;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.http.HttpStatus.SC_NOT_FOUND;
+import static org.apache.http.HttpStatus.SC_OK;
+
+// Реестр созданных на сервере курьеров и заказов. CourierAPI и OrderAPI сами регистрируют всё,
+// что создали, и снимают с учёта то, что тест удалил явно. Оставшееся удаляется в фоне:
+// после окончания теста (границы теста отмечает CleanupListener) или при закрытии реестра.
+// Удаления идут параллельно с ограничением, неудачные повторяются с растущей паузой,
+// а то, что удалить так и не удалось, попадает в отчёт
+public class CleanupRegistry implements Closeable {
+    private static final ApiLogger log = ApiLog.getLogger(CleanupRegistry.class);
+    // объекты, созданные вне теста, удаляются только при закрытии реестра
+    private static final long RUN_SCOPE = 0;
+    private static final AtomicLong scopeIds = new AtomicLong();
+    private static final ThreadLocal<Long> currentScope = new ThreadLocal<>();
+    private static final Set<CleanupRegistry> liveRegistries = ConcurrentHashMap.newKeySet();
+
+    private final AsyncCourierAPI courierAPI;
+    private final AsyncOrderAPI orderAPI;
+    private final CleanupSettings settings;
+    // созданные и ещё не переданные на удаление объекты
+    private final Map<String, CleanupTask> pending = new ConcurrentHashMap<>();
+    // ключи ожидающих курьеров по их ID, чтобы снимать с учёта удалённого тестом курьера без обхода pending
+    private final Map<Integer, String> courierKeys = new ConcurrentHashMap<>();
+    // объекты в очереди, в процессе удаления или в ожидании повторной попытки
+    private final Set<CleanupTask> inProgress = ConcurrentHashMap.newKeySet();
+    private final BlockingQueue<CleanupTask> queue = new LinkedBlockingQueue<>();
+    private final Queue<CleanupTask> leaked = new ConcurrentLinkedQueue<>();
+    private final Semaphore permits;
+    private final ScheduledExecutorService retryScheduler;
+    private final Thread drainer;
+    private final Thread shutdownHook;
+    private final AtomicInteger cleaned = new AtomicInteger();
+    private final AtomicInteger alreadyGone = new AtomicInteger();
+    private final AtomicInteger retries = new AtomicInteger();
+    private volatile boolean closed;
+
+    public CleanupRegistry(AsyncClient client, CleanupSettings settings) {
+        this(client, null, settings);
+    }
+
+    // orderInfoCache — кэш ручки заказа, из которого убираются заказы, отменённые реестром; null — кэша нет
+    public CleanupRegistry(AsyncClient client, TrackCache<?> orderInfoCache, CleanupSettings settings) {
+        this.courierAPI = new AsyncCourierAPI(client);
+        this.orderAPI = new AsyncOrderAPI(client, orderInfoCache);
+        this.settings = settings;
+        this.permits = new Semaphore(settings.getParallelism());
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cleanup-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.drainer = new Thread(this::drain, "cleanup-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+        // последняя блокирующая очистка, если реестр не закрыли явно
+        this.shutdownHook = new Thread(this::close, "cleanup-flush");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        liveRegistries.add(this);
+    }
+
+    // Начало теста в текущем потоке: всё созданное дальше будет удалено после exitScope()
+    public static void enterScope() {
+        currentScope.set(scopeIds.incrementAndGet());
+    }
+
+    // Конец теста в текущем потоке: созданные в нём объекты уходят на фоновое удаление
+    public static void exitScope() {
+        Long scope = currentScope.get();
+        currentScope.remove();
+        if (scope != null) {
+            for (CleanupRegistry registry : liveRegistries) {
+                registry.release(scope);
+            }
+        }
+    }
+
+    // Дожидается очистки во всех открытых реестрах и возвращает общий отчёт
+    public static CleanupReport flushAll() {
+        int cleaned = 0;
+        int alreadyGone = 0;
+        int retries = 0;
+        List<String> leaked = new ArrayList<>();
+        for (CleanupRegistry registry : liveRegistries) {
+            CleanupReport report = registry.flush();
+            cleaned += report.getCleaned();
+            alreadyGone += report.getAlreadyGone();
+            retries += report.getRetries();
+            leaked.addAll(report.getLeaked());
+        }
+        return new CleanupReport(cleaned, alreadyGone, retries, leaked);
+    }
+
+    public void registerCourier(Courier courier) {
+        register(CleanupTask.courier(courier, scope()));
+    }
+
+    // ID курьера из ответа на логин: при удалении не придётся логиниться ещё раз
+    public void courierLoggedIn(String login, int courierId) {
+        String key = CleanupTask.courierKey(login);
+        CleanupTask task = pending.get(key);
+        if (task != null) {
+            task.setCourierId(courierId);
+            courierKeys.put(courierId, key);
+        }
+    }
+
+    // Курьер удалён тестом, удалять его больше не нужно
+    public void forgetCourier(int courierId) {
+        String key = courierKeys.remove(courierId);
+        if (key == null) {
+            return;
+        }
+        CleanupTask task = pending.get(key);
+        if (task != null && task.getCourierId() == courierId) {
+            pending.remove(key, task);
+        }
+    }
+
+    // Курьер больше не нужен: он сразу уходит на фоновое удаление, не дожидаясь конца теста.
+    // courierId равен 0, если ID неизвестен, — тогда реестр получит его логином
+    public void deleteCourier(Courier courier, int courierId) {
+        CleanupTask task = CleanupTask.courier(courier, scope());
+        task.setCourierId(courierId);
+        if (closed) {
+            log.warn("⚠️ ВНИМАНИЕ. Реестр очистки уже закрыт, %s останется на сервере.%n", task);
+            return;
+        }
+        submit(task);
+    }
+
+    public void registerOrder(int track) {
+        register(CleanupTask.order(track, scope()));
+    }
+
+    // Заказ отменён тестом, отменять его больше не нужно
+    public void forgetOrder(int track) {
+        pending.remove(CleanupTask.orderKey(track));
+    }
+
+    // Сколько объектов ждут удаления, включая те, что ещё используются тестами
+    public int getPendingCount() {
+        return pending.size() + inProgress.size();
+    }
+
+    // Отправляет на удаление всё, что есть в реестре, и ждёт окончания, но не дольше flushTimeoutMillis
+    public CleanupReport flush() {
+        for (CleanupTask task : pending.values()) {
+            if (pending.remove(task.key(), task)) {
+                unindex(task);
+                submit(task);
+            }
+        }
+        long deadline = System.currentTimeMillis() + settings.getFlushTimeoutMillis();
+        synchronized (inProgress) {
+            long left;
+            while (!inProgress.isEmpty() && (left = deadline - System.currentTimeMillis()) > 0) {
+                try {
+                    inProgress.wait(left);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        return report();
+    }
+
+    public CleanupReport report() {
+        List<String> notCleaned = new ArrayList<>();
+        for (CleanupTask task : leaked) {
+            notCleaned.add(task.toString());
+        }
+        for (CleanupTask task : inProgress) {
+            notCleaned.add(task + " (не успели удалить)");
+        }
+        return new CleanupReport(cleaned.get(), alreadyGone.get(), retries.get(), notCleaned);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        CleanupReport report = flush();
+        closed = true;
+        liveRegistries.remove(this);
+        drainer.interrupt();
+        retryScheduler.shutdownNow();
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // JVM уже останавливается
+            }
+        }
+        if (report.hasLeaks()) {
+            log.warn("⚠️ ВНИМАНИЕ. Не все тестовые данные удалены. %s", report);
+        } else {
+            log.info("Тестовые данные удалены. %s", report);
+        }
+    }
+
+    private static long scope() {
+        Long scope = currentScope.get();
+        return scope != null ? scope : RUN_SCOPE;
+    }
+
+    private void register(CleanupTask task) {
+        if (closed) {
+            log.warn("⚠️ ВНИМАНИЕ. Реестр очистки уже закрыт, %s останется на сервере.%n", task);
+            return;
+        }
+        pending.put(task.key(), task);
+    }
+
+    private void release(long scope) {
+        for (CleanupTask task : pending.values()) {
+            if (task.getScope() == scope && pending.remove(task.key(), task)) {
+                unindex(task);
+                submit(task);
+            }
+        }
+    }
+
+    private void unindex(CleanupTask task) {
+        if (task.isCourier() && task.getCourierId() != 0) {
+            courierKeys.remove(task.getCourierId(), task.key());
+        }
+    }
+
+    private void submit(CleanupTask task) {
+        inProgress.add(task);
+        queue.add(task);
+    }
+
+    private void drain() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                CleanupTask task = queue.take();
+                permits.acquire();
+                CompletableFuture<Boolean> cleanup;
+                try {
+                    cleanup = execute(task);
+                } catch (RuntimeException e) {
+                    cleanup = CompletableFuture.failedFuture(e);
+                }
+                cleanup.whenComplete((removed, error) -> {
+                    permits.release();
+                    complete(task, removed, error);
+                });
+            }
+        } catch (InterruptedException e) {
+            // реестр закрыт
+        }
+    }
+
+    // true — объект удалён, false — на сервере его уже нет; исключение — попытку нужно повторить
+    private CompletableFuture<Boolean> execute(CleanupTask task) {
+        if (!task.isCourier()) {
+            return orderAPI.cancelOrder(task.getTrack()).thenApply(response -> removed(response, "отмена"));
+        }
+        if (task.getCourierId() != 0) {
+            return deleteCourier(task);
+        }
+        return courierAPI.postForLogin(task.getCourier()).thenCompose(response -> {
+            if (response.getStatusCode() == SC_NOT_FOUND) {
+                return CompletableFuture.completedFuture(false);
+            }
+            LoginResult result = response.get();
+            if (response.getStatusCode() != SC_OK || result == null || result.getId() == null) {
+                throw new IllegalStateException(String.format("логин: %d %s", response.getStatusCode(), response.getBody()));
+            }
+            task.setCourierId(result.getId());
+            return deleteCourier(task);
+        });
+    }
+
+    private CompletableFuture<Boolean> deleteCourier(CleanupTask task) {
+        return courierAPI.deleteCourier(task.getCourier(), task.getCourierId())
+                .thenApply(response -> removed(response, "удаление"));
+    }
+
+    private static boolean removed(ApiResponse<?> response, String action) {
+        if (response.getStatusCode() == SC_OK) {
+            return true;
+        }
+        if (response.getStatusCode() == SC_NOT_FOUND) {
+            return false;
+        }
+        throw new IllegalStateException(String.format("%s: %d %s", action, response.getStatusCode(), response.getBody()));
+    }
+
+    private void complete(CleanupTask task, Boolean removed, Throwable error) {
+        if (error == null) {
+            (removed ? cleaned : alreadyGone).incrementAndGet();
+            finish(task);
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        task.setLastError(cause.getMessage() != null ? cause.getMessage() : cause.toString());
+        int attempt = task.nextAttempt();
+        if (attempt >= settings.getMaxAttempts() || closed) {
+            leaked.add(task);
+            log.warn("⚠️ ВНИМАНИЕ. Попытки удаления исчерпаны (%d): %s.%n", attempt, task);
+            finish(task);
+            return;
+        }
+        retries.incrementAndGet();
+        retryScheduler.schedule(() -> queue.add(task), backoffMillis(attempt), TimeUnit.MILLISECONDS);
+    }
+
+    // экспоненциальная пауза со случайным разбросом, чтобы повторы не приходили на сервер пачкой
+    private long backoffMillis(int attempt) {
+        long backoff = Math.min(settings.getMaxBackoffMillis(), settings.getInitialBackoffMillis() << (attempt - 1));
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+
+    private void finish(CleanupTask task) {
+        synchronized (inProgress) {
+            inProgress.remove(task);
+            if (inProgress.isEmpty()) {
+                inProgress.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package api.cleanup;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Итог очистки: сколько объектов удалено, сколько уже отсутствовало на сервере
+// и какие так и не удалось удалить
+@Getter
+@AllArgsConstructor
+public class CleanupReport {
+    private final int cleaned;
+    private final int alreadyGone;
+    private final int retries;
+    private final List<String> leaked;
+
+    public boolean hasLeaks() {
+        return !leaked.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(String.format(
+                "Удалено: %d, уже отсутствовали: %d, повторных попыток: %d, не удалено: %d.%n",
+                cleaned, alreadyGone, retries, leaked.size()));
+        for (String resource : leaked) {
+            text.append("  ").append(resource).append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+}
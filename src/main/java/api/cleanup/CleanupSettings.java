@@ -0,0 +1,23 @@
+package api.cleanup;
+
+import lombok.Builder;
+import lombok.Getter;
+
+// Настройки фоновой очистки созданных тестами курьеров и заказов
+@Getter
+@Builder(toBuilder = true)
+public class CleanupSettings {
+    // сколько удалений и отмен может выполняться одновременно
+    @Builder.Default private final int parallelism = 8;
+    // сколько попыток даётся на удаление одного объекта
+    @Builder.Default private final int maxAttempts = 5;
+    // пауза перед первой повторной попыткой; дальше удваивается
+    @Builder.Default private final long initialBackoffMillis = 200;
+    @Builder.Default private final long maxBackoffMillis = 5_000;
+    // сколько ждём окончательной очистки при завершении прогона
+    @Builder.Default private final long flushTimeoutMillis = 60_000;
+
+    public static CleanupSettings defaults() {
+        return CleanupSettings.builder().build();
+    }
+}
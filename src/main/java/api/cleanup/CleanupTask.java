@@ -0,0 +1,81 @@
+package api.cleanup;
+
+import service.Courier;
+
+// Объект, созданный на сервере и подлежащий удалению: курьер (по логину и ID) или заказ (по треку)
+final class CleanupTask {
+    private final Courier courier;
+    private final int track;
+    private final long scope;
+    // ID курьера становится известен после первого успешного логина
+    private volatile int courierId;
+    private int attempts;
+    private String lastError;
+
+    private CleanupTask(Courier courier, int track, long scope) {
+        this.courier = courier;
+        this.track = track;
+        this.scope = scope;
+    }
+
+    static CleanupTask courier(Courier courier, long scope) {
+        // копия: тесты меняют логин и пароль у своего объекта уже после создания курьера
+        return new CleanupTask(new Courier(courier.getLogin(), courier.getPassword(), courier.getFirstName()), 0, scope);
+    }
+
+    static CleanupTask order(int track, long scope) {
+        return new CleanupTask(null, track, scope);
+    }
+
+    static String courierKey(String login) {
+        return "courier:" + login;
+    }
+
+    static String orderKey(int track) {
+        return "order:" + track;
+    }
+
+    String key() {
+        return isCourier() ? courierKey(courier.getLogin()) : orderKey(track);
+    }
+
+    boolean isCourier() {
+        return courier != null;
+    }
+
+    Courier getCourier() {
+        return courier;
+    }
+
+    int getTrack() {
+        return track;
+    }
+
+    long getScope() {
+        return scope;
+    }
+
+    int getCourierId() {
+        return courierId;
+    }
+
+    void setCourierId(int courierId) {
+        this.courierId = courierId;
+    }
+
+    int nextAttempt() {
+        return ++attempts;
+    }
+
+    void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    @Override
+    public String toString() {
+        String resource = isCourier()
+                ? String.format("курьер %s (id %d)", courier.getLogin(), courierId)
+                : String.format("заказ с треком %d", track);
+        return lastError == null ? resource : resource + ": " + lastError;
+    }
+}
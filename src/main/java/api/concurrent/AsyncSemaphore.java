@@ -0,0 +1,90 @@
+package api.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Семафор, ожидание которого не занимает поток: acquire() возвращает future, который завершается,
+// когда разрешение освободится. Ожидающие получают разрешения в порядке очереди.
+// Отменённое ожидание пропускается, и его разрешение достаётся следующему
+public class AsyncSemaphore {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private int permits;
+
+    public AsyncSemaphore(int permits) {
+        this.permits = permits;
+    }
+
+    public CompletableFuture<Void> acquire() {
+        lock.lock();
+        try {
+            if (permits > 0 && waiters.isEmpty()) {
+                permits--;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.addLast(waiter);
+            return waiter;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Ожидание разрешения в вызывающем потоке, для синхронных вызовов
+    public void acquireBlocking() throws InterruptedException {
+        CompletableFuture<Void> permit = acquire();
+        try {
+            permit.get();
+        } catch (InterruptedException e) {
+            // разрешение могло достаться нам одновременно с прерыванием — тогда его нужно вернуть
+            if (!permit.cancel(false)) {
+                release();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ожидание разрешения завершилось ошибкой", e.getCause());
+        }
+    }
+
+    // Разрешение передаётся первому ожидающему; его продолжение выполняется в этом потоке после снятия блокировки
+    public void release() {
+        while (true) {
+            CompletableFuture<Void> next;
+            lock.lock();
+            try {
+                next = waiters.pollFirst();
+                if (next == null) {
+                    permits++;
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (next.complete(null)) {
+                return;
+            }
+        }
+    }
+
+    public int availablePermits() {
+        lock.lock();
+        try {
+            return permits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Сколько запросов ждут разрешения, включая ещё не пропущенные отменённые
+    public int getQueueLength() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
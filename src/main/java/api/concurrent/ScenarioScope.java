@@ -0,0 +1,145 @@
+package api.concurrent;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Структурная группа задач: каждая задача из fork() выполняется в своём потоке из TaskThreads,
+// join() ждёт их все. Если cancelOnFailure, первая упавшая задача отменяет остальные (их потоки прерываются),
+// а join() бросает её исключение. Задачи, не успевшие к сроку join(timeout), тоже отменяются.
+// close() отменяет всё, что ещё выполняется, и дожидается остановки потоков, поэтому задачи
+// не переживают блок try-with-resources, в котором запущены.
+// Прерывание останавливает запрос, заблокированный в сокете, только в виртуальном потоке;
+// поток платформы замечает отмену после возврата из текущего запроса
+public class ScenarioScope implements AutoCloseable {
+    private final ExecutorService executor;
+    private final boolean cancelOnFailure;
+    private final Queue<Future<?>> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean cancelled;
+
+    public ScenarioScope(String name) {
+        this(name, true);
+    }
+
+    public ScenarioScope(String name, boolean cancelOnFailure) {
+        this.executor = TaskThreads.newPerTaskExecutor(name);
+        this.cancelOnFailure = cancelOnFailure;
+    }
+
+    // Запускает задачу; задачи можно запускать и из других задач этой же группы
+    public <T> Future<T> fork(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(() -> {
+            try {
+                return task.call();
+            } catch (Exception | Error e) {
+                if (failure.compareAndSet(null, e) && cancelOnFailure) {
+                    cancelAll();
+                }
+                throw e;
+            }
+        });
+        // задача попадает в группу до запуска, чтобы отмена группы её не пропустила
+        tasks.add(future);
+        if (cancelOnFailure && failure.get() != null) {
+            future.cancel(false);
+        } else {
+            executor.execute(future);
+        }
+        return future;
+    }
+
+    // Ждёт завершения всех задач; при cancelOnFailure бросает исключение первой упавшей задачи
+    public void join() throws InterruptedException {
+        for (Future<?> task : tasks) {
+            await(task);
+        }
+        throwIfFailed();
+    }
+
+    // Как join(), но задачи, не завершившиеся за timeout, отменяются, и бросается TimeoutException
+    public void join(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Future<?> task : tasks) {
+            try {
+                task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | CancellationException e) {
+                // исключение задачи уже сохранено в failure
+            } catch (TimeoutException e) {
+                cancelAll();
+                throw e;
+            }
+        }
+        throwIfFailed();
+    }
+
+    // Исключение первой упавшей задачи или null
+    public Throwable getFailure() {
+        return failure.get();
+    }
+
+    // Группа отменена: после сбоя задачи, по сроку join(timeout) или вызовом cancelAll()
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void cancelAll() {
+        cancelled = true;
+        for (Future<?> task : tasks) {
+            task.cancel(true);
+        }
+    }
+
+    // Прерывание во время ожидания не бросается, а запоминается и восстанавливается после остановки потоков:
+    // задачи не должны пережить блок try-with-resources даже при прерывании вызывающего потока
+    @Override
+    public void close() {
+        cancelAll();
+        executor.shutdownNow();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+            // ждём потоки, которые ещё не вышли из блокирующего вызова
+            executor.shutdownNow();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(Future<?> task) throws InterruptedException {
+        try {
+            task.get();
+        } catch (ExecutionException | CancellationException e) {
+            // исключение задачи уже сохранено в failure
+        }
+    }
+
+    private void throwIfFailed() {
+        Throwable error = failure.get();
+        if (error == null || !cancelOnFailure) {
+            return;
+        }
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+        throw new IllegalStateException(error);
+    }
+}
@@ -0,0 +1,64 @@
+package api.concurrent;
+
+import api.log.ApiLog;
+import api.log.ApiLogger;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Потоки для блокирующих вызовов CourierAPI и OrderAPI и для сценариев. По умолчанию это обычные потоки
+// платформы, как и раньше. С -Dapi.threads=virtual на Java 21 при сборке с профилем java21 задачи идут
+// в виртуальных потоках, и в одной JVM помещаются десятки тысяч одновременных сценариев.
+// Если виртуальные потоки недоступны, режим остаётся прежним, а в журнал пишется предупреждение
+public final class TaskThreads {
+    private static final ApiLogger log = ApiLog.getLogger(TaskThreads.class);
+    private static final String VIRTUAL_PROVIDER = "api.concurrent.VirtualThreadProvider";
+    private static final ThreadProvider provider = load();
+
+    private TaskThreads() {
+    }
+
+    public static boolean isVirtual() {
+        return provider.isVirtual();
+    }
+
+    // Исполнитель «поток на задачу»: виртуальные потоки или кэширующий пул потоков-демонов платформы
+    public static ExecutorService newPerTaskExecutor(String name) {
+        return provider.newPerTaskExecutor(name);
+    }
+
+    private static ThreadProvider load() {
+        if (!"virtual".equalsIgnoreCase(System.getProperty("api.threads", "platform"))) {
+            return new PlatformThreadProvider();
+        }
+        if (Runtime.version().feature() < 21) {
+            log.warn("Виртуальные потоки требуют Java 21, запущена Java %d: используются потоки платформы",
+                    Runtime.version().feature());
+            return new PlatformThreadProvider();
+        }
+        try {
+            // класс собирается только профилем java21 (src/main/java21)
+            return (ThreadProvider) Class.forName(VIRTUAL_PROVIDER).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("Сборка без профиля java21 (%s): используются потоки платформы", e);
+            return new PlatformThreadProvider();
+        }
+    }
+
+    private static class PlatformThreadProvider implements ThreadProvider {
+
+        @Override
+        public ExecutorService newPerTaskExecutor(String name) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        @Override
+        public boolean isVirtual() {
+            return false;
+        }
+    }
+}
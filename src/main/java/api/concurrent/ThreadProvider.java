@@ -0,0 +1,12 @@
+package api.concurrent;
+
+import java.util.concurrent.ExecutorService;
+
+// Откуда берутся потоки для блокирующих задач: потоки платформы или виртуальные (Java 21)
+interface ThreadProvider {
+
+    // Исполнитель, запускающий каждую задачу в новом потоке с именем name
+    ExecutorService newPerTaskExecutor(String name);
+
+    boolean isVirtual();
+}
@@ -0,0 +1,230 @@
+package api.limit;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Адаптивный лимит одновременных запросов одной группы ручек (AIMD).
+// Пока ответы укладываются в целевую задержку и лимит используется, он растёт на единицу за каждые
+// limit успешных ответов. Ответ дольше цели, 5xx или сбой соединения уменьшают лимит в backoffRatio раз,
+// но не чаще одного раза на «поколение»: запросы, отправленные до последнего уменьшения, его не повторяют.
+// Так лимит держится у наибольшего уровня параллельности, при котором сервис отвечает быстрее цели.
+// Синхронные запросы ждут места на ReentrantLock, а не на мониторе: ждущий виртуальный поток не занимает
+// поток-носитель. Асинхронные запросы ждут в очереди, не занимая поток вовсе
+public class AdaptiveLimiter {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final EndpointGroup group;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetNanos;
+    private final double backoffRatio;
+    private final long maxWaitNanos;
+    private double limit;
+    private int peakLimit;
+    private int inFlight;
+    private int waiting;
+    // асинхронные запросы, ждущие места, в порядке поступления
+    private final Deque<CompletableFuture<LimitPermit>> queued = new ArrayDeque<>();
+    private long lastDecreaseAt;
+    private long rejected;
+    private boolean closed;
+
+    public AdaptiveLimiter(EndpointGroup group, LimitSettings settings) {
+        this.group = group;
+        this.minLimit = Math.max(1, settings.getMinLimit());
+        this.maxLimit = Math.max(minLimit, settings.getMaxLimit());
+        this.targetNanos = TimeUnit.MILLISECONDS.toNanos(settings.getTargetLatencyMillis());
+        this.backoffRatio = settings.getBackoffRatio();
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(settings.getMaxWaitMillis());
+        this.limit = Math.min(maxLimit, Math.max(minLimit, settings.getInitialLimit()));
+        this.peakLimit = (int) limit;
+        this.lastDecreaseAt = System.nanoTime();
+    }
+
+    // Занимает место под запрос, при необходимости ожидая в вызывающем потоке не дольше maxWaitMillis.
+    // Асинхронные запросы, вставшие в очередь раньше, получают место первыми
+    public LimitPermit acquire() {
+        lock.lock();
+        try {
+            if (closed) {
+                rejected++;
+                throw new ConcurrencyLimitException(group, (int) limit);
+            }
+            if (inFlight >= (int) limit || hasQueued()) {
+                long left = maxWaitNanos;
+                waiting++;
+                try {
+                    while (inFlight >= (int) limit || hasQueued()) {
+                        if (left <= 0 || closed) {
+                            rejected++;
+                            throw new ConcurrencyLimitException(group, (int) limit);
+                        }
+                        left = released.awaitNanos(left);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rejected++;
+                    throw new ConcurrencyLimitException(group, (int) limit);
+                } finally {
+                    waiting--;
+                }
+            }
+            inFlight++;
+            return new LimitPermit(this);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Место без ожидания в потоке: future завершается, когда место освободится, или завершается
+    // с ConcurrencyLimitException, если за maxWaitMillis оно так и не освободилось
+    public CompletableFuture<LimitPermit> acquireAsync() {
+        CompletableFuture<LimitPermit> waiter;
+        lock.lock();
+        try {
+            if (closed) {
+                rejected++;
+                return CompletableFuture.failedFuture(new ConcurrencyLimitException(group, (int) limit));
+            }
+            if (inFlight < (int) limit && !hasQueued()) {
+                inFlight++;
+                return CompletableFuture.completedFuture(new LimitPermit(this));
+            }
+            waiter = new CompletableFuture<>();
+            queued.addLast(waiter);
+        } finally {
+            lock.unlock();
+        }
+        // срок ожидания отсчитывает общий планировщик CompletableFuture; просроченная запись
+        // остаётся в очереди и пропускается при следующем освобождении места
+        CompletableFuture.delayedExecutor(maxWaitNanos, TimeUnit.NANOSECONDS, Runnable::run).execute(() -> {
+            if (waiter.completeExceptionally(new ConcurrencyLimitException(group, getLimit()))) {
+                lock.lock();
+                try {
+                    rejected++;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+        return waiter;
+    }
+
+    // Освобождает место; лимит подбирается только по отправкам, которые действительно начались
+    void release(LimitPermit permit, boolean overloaded) {
+        long now = System.nanoTime();
+        List<CompletableFuture<LimitPermit>> granted = new ArrayList<>();
+        lock.lock();
+        try {
+            inFlight--;
+            if (permit.isStarted()) {
+                long startedAt = permit.getStartedAt();
+                if (overloaded || now - startedAt > targetNanos) {
+                    if (startedAt - lastDecreaseAt > 0) {
+                        limit = Math.max(minLimit, limit * backoffRatio);
+                        lastDecreaseAt = now;
+                    }
+                } else if (inFlight + 1 >= limit / 2) {
+                    // лимит растёт, только если он действительно используется
+                    limit = Math.min(maxLimit, limit + 1 / limit);
+                    peakLimit = Math.max(peakLimit, (int) limit);
+                }
+            }
+            // сначала места получают асинхронные запросы из очереди
+            while (inFlight < (int) limit && hasQueued()) {
+                granted.add(queued.pollFirst());
+                inFlight++;
+            }
+            // затем будим по одному ждущему потоку на каждое оставшееся место, а не всех сразу:
+            // при тысячах ждущих сценариев signalAll будил бы их всех на каждый ответ
+            for (int free = (int) limit - inFlight; free > 0 && waiting > 0; free--) {
+                released.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        // продолжения запросов выполняются вне блокировки; место, выданное уже отменённому
+        // или просроченному ожиданию, сразу возвращается
+        for (CompletableFuture<LimitPermit> waiter : granted) {
+            LimitPermit next = new LimitPermit(this);
+            if (!waiter.complete(next)) {
+                next.release(false);
+            }
+        }
+    }
+
+    // Отказывает всем ждущим и новым запросам: потоки просыпаются и получают ConcurrencyLimitException,
+    // асинхронные ожидания из очереди завершаются тем же исключением. Запросы в полёте дорабатывают
+    public void close() {
+        List<CompletableFuture<LimitPermit>> waiters;
+        lock.lock();
+        try {
+            closed = true;
+            waiters = new ArrayList<>(queued);
+            queued.clear();
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (CompletableFuture<LimitPermit> waiter : waiters) {
+            if (waiter.completeExceptionally(new ConcurrencyLimitException(group, getLimit()))) {
+                lock.lock();
+                try {
+                    rejected++;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    // Есть ли в очереди живые асинхронные ожидания; просроченные и отменённые снимаются с головы очереди
+    private boolean hasQueued() {
+        while (!queued.isEmpty() && queued.peekFirst().isDone()) {
+            queued.pollFirst();
+        }
+        return !queued.isEmpty();
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejected() {
+        lock.lock();
+        try {
+            return rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public LimitSnapshot snapshot() {
+        lock.lock();
+        try {
+            return new LimitSnapshot(group, (int) limit, inFlight, peakLimit, rejected);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package api.limit;
+
+// Запрос не отправлен: лимит одновременных запросов группы ручек занят дольше maxWaitMillis
+public class ConcurrencyLimitException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    public ConcurrencyLimitException(EndpointGroup group, int limit) {
+        super(String.format("Лимит одновременных запросов группы %s (%d) занят, запрос не отправлен", group, limit));
+    }
+}
@@ -0,0 +1,105 @@
+package api.limit;
+
+import api.resilience.ResilienceExecutor;
+import service.Endpoint;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+// Адаптивные лимиты одновременных запросов по группам ручек. Каждая отправка запроса,
+// включая повторы и хеджирующие копии, занимает место в лимите своей группы
+public class ConcurrencyLimits implements Closeable {
+    private final Map<EndpointGroup, AdaptiveLimiter> limiters = new EnumMap<>(EndpointGroup.class);
+    private final boolean enabled;
+
+    public ConcurrencyLimits(LimitSettings settings) {
+        this(settings, true);
+    }
+
+    private ConcurrencyLimits(LimitSettings settings, boolean enabled) {
+        this.enabled = enabled;
+        for (EndpointGroup group : EndpointGroup.values()) {
+            limiters.put(group, new AdaptiveLimiter(group, settings));
+        }
+    }
+
+    // Без ограничения: запросы отправляются сразу, лимиты не подбираются
+    public static ConcurrencyLimits unlimited() {
+        return new ConcurrencyLimits(LimitSettings.defaults(), false);
+    }
+
+    // Лимиты по свойству api.limit: выключены, пока свойство не равно true.
+    // Нагрузочные прогоны включают их сами через LoadSettings и SimulationSettings
+    public static ConcurrencyLimits fromSystemProperties() {
+        return of(Boolean.getBoolean("api.limit"));
+    }
+
+    // Включённые лимиты с настройками из системных свойств api.limit.* или лимиты без ограничения
+    public static ConcurrencyLimits of(boolean enabled) {
+        return enabled ? new ConcurrencyLimits(LimitSettings.fromSystemProperties()) : unlimited();
+    }
+
+    public AdaptiveLimiter get(EndpointGroup group) {
+        return limiters.get(group);
+    }
+
+    // Одна синхронная отправка под лимитом группы ручки; call получает место и отмечает в нём начало отправки,
+    // status достаёт из ответа статус-код
+    public <T> T call(Endpoint endpoint, Function<LimitPermit, T> call, ToIntFunction<T> status) {
+        if (!enabled) {
+            return call.apply(LimitPermit.none());
+        }
+        LimitPermit permit = limiters.get(EndpointGroup.of(endpoint)).acquire();
+        T response;
+        try {
+            response = call.apply(permit);
+        } catch (Throwable error) {
+            permit.release(ResilienceExecutor.isTransient(error));
+            throw error;
+        }
+        permit.release(status.applyAsInt(response) >= 500);
+        return response;
+    }
+
+    // Одна асинхронная отправка под лимитом группы; если лимит занят, отправка ждёт в очереди лимита,
+    // а вызывающий поток сразу получает future
+    public <T> CompletableFuture<T> callAsync(Endpoint endpoint, Function<LimitPermit, CompletableFuture<T>> call,
+                                              ToIntFunction<T> status) {
+        if (!enabled) {
+            return call.apply(LimitPermit.none());
+        }
+        return limiters.get(EndpointGroup.of(endpoint)).acquireAsync().thenCompose(permit -> {
+            CompletableFuture<T> future;
+            try {
+                future = call.apply(permit);
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            return future.whenComplete((response, error) -> permit.release(
+                    error != null ? ResilienceExecutor.isTransient(error) : status.applyAsInt(response) >= 500));
+        });
+    }
+
+    // Своих потоков у лимитов нет: закрытие отказывает запросам, ждущим места, чтобы они не висели
+    // после закрытия контекста
+    @Override
+    public void close() {
+        for (AdaptiveLimiter limiter : limiters.values()) {
+            limiter.close();
+        }
+    }
+
+    public List<LimitSnapshot> snapshot() {
+        List<LimitSnapshot> snapshots = new ArrayList<>();
+        for (AdaptiveLimiter limiter : limiters.values()) {
+            snapshots.add(limiter.snapshot());
+        }
+        return snapshots;
+    }
+}
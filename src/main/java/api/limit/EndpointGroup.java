@@ -0,0 +1,21 @@
+package api.limit;
+
+import service.Endpoint;
+
+// Группы ручек с общим лимитом параллельности: ручки курьеров и ручки заказов
+// нагружают разные части сервиса, поэтому их пределы подбираются независимо
+public enum EndpointGroup {
+    COURIER,
+    ORDERS;
+
+    public static EndpointGroup of(Endpoint endpoint) {
+        switch (endpoint) {
+            case COURIER_CREATE:
+            case COURIER_LOGIN:
+            case COURIER_DELETE:
+                return COURIER;
+            default:
+                return ORDERS;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package api.limit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Место под одну отправку в лимите группы ручек. Задержка для подбора лимита отсчитывается от start():
+// его вызывают, когда запрос действительно уходит, уже после ожидания окна клиента или соединения пула,
+// иначе очередь на стороне клиента выглядела бы как медленный сервис.
+// Если отправка так и не началась, release() просто освобождает место, не трогая лимит
+public class LimitPermit {
+    // место без лимита: для выключенных лимитов и запросов не к ручкам сервиса
+    private static final LimitPermit NONE = new LimitPermit(null);
+
+    private final AdaptiveLimiter limiter;
+    private final AtomicBoolean released = new AtomicBoolean();
+    private volatile boolean started;
+    private volatile long startedAt;
+
+    LimitPermit(AdaptiveLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    public static LimitPermit none() {
+        return NONE;
+    }
+
+    // Отмечает начало отправки
+    public void start() {
+        if (limiter != null) {
+            startedAt = System.nanoTime();
+            started = true;
+        }
+    }
+
+    // Освобождает место; overloaded — ответ 5xx или сбой соединения. Повторный вызов ничего не делает
+    public void release(boolean overloaded) {
+        if (limiter != null && released.compareAndSet(false, true)) {
+            limiter.release(this, overloaded);
+        }
+    }
+
+    boolean isStarted() {
+        return started;
+    }
+
+    long getStartedAt() {
+        return startedAt;
+    }
+}
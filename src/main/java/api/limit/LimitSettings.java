@@ -0,0 +1,33 @@
+package api.limit;
+
+import lombok.Builder;
+import lombok.Getter;
+
+// Настройки адаптивного лимита одновременных запросов для группы ручек
+@Getter
+@Builder(toBuilder = true)
+public class LimitSettings {
+    // с какого лимита начинается подбор
+    @Builder.Default private final int initialLimit = 16;
+    @Builder.Default private final int minLimit = 2;
+    @Builder.Default private final int maxLimit = 256;
+    // ответ дольше этого времени считается признаком перегрузки сервиса
+    @Builder.Default private final long targetLatencyMillis = 500;
+    // во сколько раз лимит уменьшается при перегрузке
+    @Builder.Default private final double backoffRatio = 0.9;
+    // сколько запрос может ждать свободного места, прежде чем будет отклонён
+    @Builder.Default private final long maxWaitMillis = 1_000;
+
+    public static LimitSettings defaults() {
+        return LimitSettings.builder().build();
+    }
+
+    // Настройки по свойствам api.limit.targetMillis и api.limit.maxWaitMillis
+    public static LimitSettings fromSystemProperties() {
+        LimitSettings defaults = defaults();
+        return defaults.toBuilder()
+                .targetLatencyMillis(Long.getLong("api.limit.targetMillis", defaults.getTargetLatencyMillis()))
+                .maxWaitMillis(Long.getLong("api.limit.maxWaitMillis", defaults.getMaxWaitMillis()))
+                .build();
+    }
+}
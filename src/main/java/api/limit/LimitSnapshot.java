@@ -0,0 +1,22 @@
+package api.limit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Снимок адаптивного лимита группы ручек
+@Getter
+@AllArgsConstructor
+public class LimitSnapshot {
+    private final EndpointGroup group;
+    private final int limit;
+    private final int inFlight;
+    // наибольший лимит, до которого дошёл подбор
+    private final int peakLimit;
+    private final long rejected;
+
+    @Override
+    public String toString() {
+        return String.format("%s: лимит %d (максимум %d), в полёте %d, отклонено %d",
+                group, limit, peakLimit, inFlight, rejected);
+    }
+}
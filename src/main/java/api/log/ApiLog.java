@@ -0,0 +1,54 @@
+package api.log;
+
+// Общие настройки журнала API-слоя. Значения по умолчанию берутся из системных свойств:
+// api.log.level (DEBUG, INFO, WARN, ERROR, OFF; по умолчанию INFO),
+// api.log.format (TEXT или JSON_LINES; по умолчанию TEXT),
+// api.log.async (true — вывод через фоновый поток пачками; по умолчанию false)
+public final class ApiLog {
+    private static volatile LogLevel level =
+            LogLevel.valueOf(System.getProperty("api.log.level", "INFO").toUpperCase());
+    private static volatile LogAppender appender = defaultAppender();
+
+    private ApiLog() {
+    }
+
+    private static LogAppender defaultAppender() {
+        LogFormat format = LogFormat.valueOf(System.getProperty("api.log.format", "TEXT").toUpperCase());
+        LogAppender console = new ConsoleAppender(format);
+        if (!Boolean.getBoolean("api.log.async")) {
+            return console;
+        }
+        AsyncAppender async = new AsyncAppender(console, 65_536, 512);
+        Runtime.getRuntime().addShutdownHook(new Thread(async::close, "api-log-shutdown"));
+        return async;
+    }
+
+    public static ApiLogger getLogger(Class<?> owner) {
+        return new ApiLogger(owner.getSimpleName());
+    }
+
+    public static LogLevel getLevel() {
+        return level;
+    }
+
+    public static void setLevel(LogLevel newLevel) {
+        level = newLevel;
+    }
+
+    public static LogAppender getAppender() {
+        return appender;
+    }
+
+    // Подменяет получателя записей; прежний получатель закрывается
+    public static void setAppender(LogAppender newAppender) {
+        LogAppender previous = appender;
+        appender = newAppender;
+        if (previous != newAppender) {
+            previous.close();
+        }
+    }
+
+    static boolean isEnabled(LogLevel eventLevel) {
+        return eventLevel.compareTo(level) >= 0 && eventLevel != LogLevel.OFF;
+    }
+}
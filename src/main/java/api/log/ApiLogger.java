@@ -0,0 +1,204 @@
+package api.log;
+
+import java.util.function.Supplier;
+
+// Журнал API-слоя. Сообщение форматируется только если уровень включён, а перегрузки
+// с примитивными аргументами не требуют упаковки и массива varargs, поэтому при выключенном
+// уровне вызов ничего не выделяет в куче
+public class ApiLogger {
+    private final String name;
+
+    ApiLogger(String name) {
+        this.name = name;
+    }
+
+    public boolean isEnabled(LogLevel level) {
+        return ApiLog.isEnabled(level);
+    }
+
+    public boolean isDebugEnabled() {
+        return ApiLog.isEnabled(LogLevel.DEBUG);
+    }
+
+    public boolean isInfoEnabled() {
+        return ApiLog.isEnabled(LogLevel.INFO);
+    }
+
+    public boolean isWarnEnabled() {
+        return ApiLog.isEnabled(LogLevel.WARN);
+    }
+
+    private void write(LogLevel level, String message) {
+        ApiLog.getAppender().append(new LogEvent(System.currentTimeMillis(), level,
+                Thread.currentThread().getName(), name, message));
+    }
+
+    // Сообщение строится поставщиком только при включённом уровне
+    public void log(LogLevel level, Supplier<String> message) {
+        if (ApiLog.isEnabled(level)) {
+            write(level, message.get());
+        }
+    }
+
+    // Запись с телом, которое получатель пишет прямо в свой вывод; при выключенном уровне тело не читается
+    public void log(LogLevel level, String message, LogBody body) {
+        if (ApiLog.isEnabled(level)) {
+            ApiLog.getAppender().append(new LogEvent(System.currentTimeMillis(), level,
+                    Thread.currentThread().getName(), name, message), body);
+        }
+    }
+
+    public void log(LogLevel level, String message) {
+        if (ApiLog.isEnabled(level)) {
+            write(level, message);
+        }
+    }
+
+    public void log(LogLevel level, String format, int a) {
+        if (ApiLog.isEnabled(level)) {
+            write(level, String.format(format, a));
+        }
+    }
+
+    public void log(LogLevel level, String format, Object a) {
+        if (ApiLog.isEnabled(level)) {
+            write(level, String.format(format, a));
+        }
+    }
+
+    public void log(LogLevel level, String format, int a, int b) {
+        if (ApiLog.isEnabled(level)) {
+            write(level, String.format(format, a, b));
+        }
+    }
+
+    public void log(LogLevel level, String format, Object a, int b) {
+        if (ApiLog.isEnabled(level)) {
+            write(level, String.format(format, a, b));
+        }
+    }
+
+    public void log(LogLevel level, String format, int a, Object b) {
+        if (ApiLog.isEnabled(level)) {
+            write(level, String.format(format, a, b));
+        }
+    }
+
+    public void log(LogLevel level, String format, Object a, Object b) {
+        if (ApiLog.isEnabled(level)) {
+            write(level, String.format(format, a, b));
+        }
+    }
+
+    public void debug(String message) {
+        log(LogLevel.DEBUG, message);
+    }
+
+    public void debug(String format, int a) {
+        log(LogLevel.DEBUG, format, a);
+    }
+
+    public void debug(String format, Object a) {
+        log(LogLevel.DEBUG, format, a);
+    }
+
+    public void debug(String format, int a, int b) {
+        log(LogLevel.DEBUG, format, a, b);
+    }
+
+    public void debug(String format, Object a, int b) {
+        log(LogLevel.DEBUG, format, a, b);
+    }
+
+    public void debug(String format, int a, Object b) {
+        log(LogLevel.DEBUG, format, a, b);
+    }
+
+    public void debug(String format, Object a, Object b) {
+        log(LogLevel.DEBUG, format, a, b);
+    }
+
+    public void info(String message) {
+        log(LogLevel.INFO, message);
+    }
+
+    public void info(String format, int a) {
+        log(LogLevel.INFO, format, a);
+    }
+
+    public void info(String format, Object a) {
+        log(LogLevel.INFO, format, a);
+    }
+
+    public void info(String format, int a, int b) {
+        log(LogLevel.INFO, format, a, b);
+    }
+
+    public void info(String format, Object a, int b) {
+        log(LogLevel.INFO, format, a, b);
+    }
+
+    public void info(String format, int a, Object b) {
+        log(LogLevel.INFO, format, a, b);
+    }
+
+    public void info(String format, Object a, Object b) {
+        log(LogLevel.INFO, format, a, b);
+    }
+
+    public void warn(String message) {
+        log(LogLevel.WARN, message);
+    }
+
+    public void warn(String format, int a) {
+        log(LogLevel.WARN, format, a);
+    }
+
+    public void warn(String format, Object a) {
+        log(LogLevel.WARN, format, a);
+    }
+
+    public void warn(String format, int a, int b) {
+        log(LogLevel.WARN, format, a, b);
+    }
+
+    public void warn(String format, Object a, int b) {
+        log(LogLevel.WARN, format, a, b);
+    }
+
+    public void warn(String format, int a, Object b) {
+        log(LogLevel.WARN, format, a, b);
+    }
+
+    public void warn(String format, Object a, Object b) {
+        log(LogLevel.WARN, format, a, b);
+    }
+
+    public void error(String message) {
+        log(LogLevel.ERROR, message);
+    }
+
+    public void error(String format, int a) {
+        log(LogLevel.ERROR, format, a);
+    }
+
+    public void error(String format, Object a) {
+        log(LogLevel.ERROR, format, a);
+    }
+
+    public void error(String format, int a, int b) {
+        log(LogLevel.ERROR, format, a, b);
+    }
+
+    public void error(String format, Object a, int b) {
+        log(LogLevel.ERROR, format, a, b);
+    }
+
+    public void error(String format, int a, Object b) {
+        log(LogLevel.ERROR, format, a, b);
+    }
+
+    public void error(String format, Object a, Object b) {
+        log(LogLevel.ERROR, format, a, b);
+    }
+}
@@ -0,0 +1,94 @@
+package api.log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Асинхронный вывод: рабочие потоки только кладут запись в очередь, а отдельный поток
+// забирает записи пачками и передаёт их синхронному получателю.
+// Если очередь переполнена, запись отбрасывается, а рабочий поток не блокируется
+public class AsyncAppender implements LogAppender {
+    private final LogAppender delegate;
+    private final BlockingQueue<LogEvent> queue;
+    private final int batchSize;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public AsyncAppender(LogAppender delegate, int capacity, int batchSize) {
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.worker = new Thread(this::drainLoop, "api-log-appender");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        if (!queue.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    // Сколько записей отброшено из-за переполнения очереди
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void drainLoop() {
+        List<LogEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                LogEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            }
+        }
+        queue.drainTo(batch);
+        writeBatch(batch);
+    }
+
+    private void writeBatch(List<LogEvent> batch) {
+        for (LogEvent event : batch) {
+            delegate.append(event);
+        }
+        delegate.flush();
+        batch.clear();
+    }
+
+    // Дожидается, пока накопленные записи будут выведены
+    @Override
+    public void flush() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!queue.isEmpty() && worker.isAlive() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        delegate.flush();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        delegate.close();
+    }
+}
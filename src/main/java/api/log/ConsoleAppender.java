@@ -0,0 +1,84 @@
+package api.log;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+// Синхронный вывод записей в поток (по умолчанию System.out) в текстовом или JSON-формате
+public class ConsoleAppender implements LogAppender {
+    private final PrintStream stream;
+    private final LogFormat format;
+
+    public ConsoleAppender(LogFormat format) {
+        this(System.out, format);
+    }
+
+    public ConsoleAppender(PrintStream stream, LogFormat format) {
+        this.stream = stream;
+        this.format = format;
+    }
+
+    @Override
+    public synchronized void append(LogEvent event) {
+        stream.println(format == LogFormat.JSON_LINES ? toJson(event) : event.getMessage());
+    }
+
+    // В текстовом формате тело пишется прямо в поток вывода; записи выводятся под блокировкой получателя,
+    // поэтому заголовок и тело не перемежаются с записями других потоков
+    @Override
+    public void append(LogEvent event, LogBody body) {
+        if (format == LogFormat.JSON_LINES) {
+            LogAppender.super.append(event, body);
+            return;
+        }
+        synchronized (this) {
+            stream.println(event.getMessage());
+            try {
+                body.writeTo(stream);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            stream.println();
+        }
+    }
+
+    @Override
+    public void flush() {
+        stream.flush();
+    }
+
+    static String toJson(LogEvent event) {
+        StringBuilder json = new StringBuilder(96 + event.getMessage().length());
+        json.append("{\"ts\":\"").append(Instant.ofEpochMilli(event.getTimestamp()))
+                .append("\",\"level\":\"").append(event.getLevel())
+                .append("\",\"thread\":");
+        appendString(json, event.getThread());
+        json.append(",\"logger\":");
+        appendString(json, event.getLogger());
+        json.append(",\"msg\":");
+        appendString(json, event.getMessage().strip());
+        return json.append('}').toString();
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,170 @@
+package api.log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+// Перевод JSON в читаемый вид (отступ в два пробела, как у Gson с setPrettyPrinting) потоком байтов:
+// вход читается кусками и сразу переписывается с отступами, дерево объектов не строится,
+// а числа и строки выводятся ровно так, как их прислал сервис. Все служебные символы JSON — ASCII,
+// поэтому байты UTF-8 внутри строк копируются как есть. print() отдаёт результат в out кусками
+// по мере разбора, не собирая его целиком. Буферы свои у каждого потока,
+// так что общий форматтер можно вызывать из любого числа потоков без блокировок
+public final class JsonPrettyPrinter {
+    private static final ThreadLocal<Formatter> perThread = ThreadLocal.withInitial(Formatter::new);
+
+    private JsonPrettyPrinter() {
+    }
+
+    // Пишет JSON из in в читаемом виде в out; в памяти держится не больше одного буфера вывода
+    public static void print(InputStream in, OutputStream out) throws IOException {
+        perThread.get().format(in, out);
+    }
+
+    // JSON из in в читаемом виде; единственное, что выделяется на вызов, — итоговая строка
+    public static String toString(InputStream in) {
+        Formatter formatter = perThread.get();
+        try {
+            formatter.format(in, null);
+            return new String(formatter.output, 0, formatter.length, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            formatter.shrink();
+        }
+    }
+
+    // Переиспользуемые буферы и состояние разбора одного потока
+    private static class Formatter {
+        private static final int BUFFER_SIZE = 8192;
+        // больший буфер вывода после toString() не сохраняется: иначе один большой ответ оставил бы
+        // мегабайты у каждого потока, а в режиме виртуальных потоков поток есть у каждого сценария
+        private static final int MAX_RETAINED_OUTPUT = 64 * 1024;
+
+        private final byte[] input = new byte[BUFFER_SIZE];
+        private byte[] output = new byte[BUFFER_SIZE];
+        private int length;
+        // куда сбрасывать заполненный буфер вывода; null — буфер растёт, пока не вместит весь результат
+        private OutputStream sink;
+        private int depth;
+        // открывающая скобка, после которой ещё не ясно, пуст ли объект или массив
+        private byte pendingOpen;
+        private boolean inString;
+        private boolean escaped;
+
+        void format(InputStream in, OutputStream out) throws IOException {
+            sink = out;
+            length = 0;
+            depth = 0;
+            pendingOpen = 0;
+            inString = false;
+            escaped = false;
+            try {
+                int count;
+                while ((count = in.read(input)) > 0) {
+                    for (int i = 0; i < count; i++) {
+                        accept(input[i]);
+                    }
+                }
+                flushPendingOpen();
+                if (sink != null) {
+                    sink.write(output, 0, length);
+                    length = 0;
+                }
+            } finally {
+                sink = null;
+            }
+        }
+
+        void shrink() {
+            length = 0;
+            if (output.length > MAX_RETAINED_OUTPUT) {
+                output = new byte[BUFFER_SIZE];
+            }
+        }
+
+        private void accept(byte b) throws IOException {
+            if (inString) {
+                put(b);
+                if (escaped) {
+                    escaped = false;
+                } else if (b == '\\') {
+                    escaped = true;
+                } else if (b == '"') {
+                    inString = false;
+                }
+                return;
+            }
+            switch (b) {
+                case ' ':
+                case '\t':
+                case '\n':
+                case '\r':
+                    return;
+                case '{':
+                case '[':
+                    flushPendingOpen();
+                    put(b);
+                    pendingOpen = b;
+                    return;
+                case '}':
+                case ']':
+                    if (pendingOpen != 0) {
+                        // пустой объект или массив остаётся на одной строке: {} и []
+                        pendingOpen = 0;
+                    } else {
+                        depth--;
+                        newLine();
+                    }
+                    put(b);
+                    return;
+                case ',':
+                    put(b);
+                    newLine();
+                    return;
+                case ':':
+                    put(b);
+                    put((byte) ' ');
+                    return;
+                case '"':
+                    flushPendingOpen();
+                    put(b);
+                    inString = true;
+                    return;
+                default:
+                    flushPendingOpen();
+                    put(b);
+            }
+        }
+
+        private void flushPendingOpen() throws IOException {
+            if (pendingOpen != 0) {
+                pendingOpen = 0;
+                depth++;
+                newLine();
+            }
+        }
+
+        private void newLine() throws IOException {
+            put((byte) '\n');
+            for (int i = 0; i < depth; i++) {
+                put((byte) ' ');
+                put((byte) ' ');
+            }
+        }
+
+        private void put(byte b) throws IOException {
+            if (length == output.length && sink != null) {
+                sink.write(output, 0, length);
+                length = 0;
+            } else if (length == output.length) {
+                byte[] grown = new byte[output.length * 2];
+                System.arraycopy(output, 0, grown, 0, length);
+                output = grown;
+            }
+            output[length++] = b;
+        }
+    }
+}
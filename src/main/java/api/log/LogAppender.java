@@ -0,0 +1,31 @@
+package api.log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+// Получатель записей журнала
+public interface LogAppender {
+
+    void append(LogEvent event);
+
+    // Запись с телом; по умолчанию тело собирается в строку и добавляется к сообщению с новой строки
+    default void append(LogEvent event, LogBody body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            body.writeTo(buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        append(new LogEvent(event.getTimestamp(), event.getLevel(), event.getThread(), event.getLogger(),
+                event.getMessage() + System.lineSeparator() + buffer.toString(StandardCharsets.UTF_8)));
+    }
+
+    default void flush() {
+    }
+
+    default void close() {
+        flush();
+    }
+}
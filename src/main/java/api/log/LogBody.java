@@ -0,0 +1,11 @@
+package api.log;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Тело записи журнала, которое получатель пишет прямо в свой вывод, не собирая его в строку
+@FunctionalInterface
+public interface LogBody {
+
+    void writeTo(OutputStream out) throws IOException;
+}
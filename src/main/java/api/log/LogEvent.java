@@ -0,0 +1,15 @@
+package api.log;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Одна запись журнала. Создаётся только если уровень записи включён
+@Getter
+@AllArgsConstructor
+public class LogEvent {
+    private final long timestamp;
+    private final LogLevel level;
+    private final String thread;
+    private final String logger;
+    private final String message;
+}
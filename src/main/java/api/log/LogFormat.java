@@ -0,0 +1,6 @@
+package api.log;
+
+// Формат вывода: читаемый текст (как раньше в консоли) или JSON-строки для машинной обработки
+public enum LogFormat {
+    TEXT, JSON_LINES
+}
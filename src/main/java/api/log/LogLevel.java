@@ -0,0 +1,6 @@
+package api.log;
+
+// Уровни журнала API-слоя. OFF отключает вывод полностью
+public enum LogLevel {
+    DEBUG, INFO, WARN, ERROR, OFF
+}
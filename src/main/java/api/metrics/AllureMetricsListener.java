@@ -0,0 +1,28 @@
+package api.metrics;
+
+import api.report.AllureRunSummary;
+import io.qameta.allure.model.Status;
+import org.junit.runner.Result;
+import org.junit.runner.notification.RunListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// По окончании прогона добавляет в отчёт Allure снимок метрик API: таблицу по ручкам и полный снимок в JSON.
+// Каждый форк surefire прикладывает свой снимок к одной общей записи прогона (AllureRunSummary).
+// Подключается в maven-surefire-plugin как listener
+public class AllureMetricsListener extends RunListener {
+
+    @Override
+    public void testRunFinished(Result result) {
+        MetricsSnapshot snapshot = MetricsRegistry.getDefault().snapshot();
+        if (snapshot.getEndpoints().isEmpty()) {
+            return;
+        }
+        AllureRunSummary.attach("api.metrics.MetricsRegistry", "Метрики API за прогон", "Метрики", Status.PASSED,
+                List.of(new AllureRunSummary.Part("Метрики по ручкам", "text/plain", ".txt",
+                                snapshot.toString().getBytes(StandardCharsets.UTF_8)),
+                        new AllureRunSummary.Part("Метрики по ручкам (JSON)", "application/json", ".json",
+                                snapshot.toJson().getBytes(StandardCharsets.UTF_8))));
+    }
+}
@@ -0,0 +1,104 @@
+package api.metrics;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import service.Endpoint;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Метрики одной ручки: число запросов по классам статус-кодов, объём данных и гистограммы задержек по фазам
+public class EndpointMetrics {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private final Endpoint endpoint;
+    private final LongAdder requests = new LongAdder();
+    // индекс 0 — ответ не получен (ошибка соединения), 1..5 — классы 1xx..5xx
+    private final LongAdder[] statusClasses = new LongAdder[6];
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    // повторные попытки, хеджирующие запросы (и сколько из них ответили раньше основного)
+    // и запросы, отклонённые открытым автоматическим выключателем
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final Map<RequestPhase, Histogram> latencies = new EnumMap<>(RequestPhase.class);
+
+    EndpointMetrics(Endpoint endpoint) {
+        this.endpoint = endpoint;
+        for (int i = 0; i < statusClasses.length; i++) {
+            statusClasses[i] = new LongAdder();
+        }
+        for (RequestPhase phase : RequestPhase.values()) {
+            latencies.put(phase, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+        }
+    }
+
+    // statusCode 0 — ответ не получен; задержки в наносекундах, отрицательное значение — фаза не измерялась
+    public void record(int statusCode, long requestBytes, long responseBytes,
+                       long connectNanos, long firstByteNanos, long bodyNanos, long totalNanos) {
+        requests.increment();
+        int statusClass = statusCode / 100;
+        statusClasses[statusClass >= 1 && statusClass <= 5 ? statusClass : 0].increment();
+        bytesOut.add(Math.max(0, requestBytes));
+        bytesIn.add(Math.max(0, responseBytes));
+        recordLatency(RequestPhase.CONNECT, connectNanos);
+        recordLatency(RequestPhase.FIRST_BYTE, firstByteNanos);
+        recordLatency(RequestPhase.BODY, bodyNanos);
+        recordLatency(RequestPhase.TOTAL, totalNanos);
+    }
+
+    public void recordRetry() {
+        retries.increment();
+    }
+
+    public void recordHedge() {
+        hedges.increment();
+    }
+
+    public void recordHedgeWin() {
+        hedgeWins.increment();
+    }
+
+    public void recordRejected() {
+        rejected.increment();
+    }
+
+    private void recordLatency(RequestPhase phase, long nanos) {
+        if (nanos >= 0) {
+            latencies.get(phase).recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        }
+    }
+
+    public Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    EndpointSnapshot snapshot() {
+        long[] classes = new long[statusClasses.length];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = statusClasses[i].sum();
+        }
+        Map<RequestPhase, LatencySnapshot> phases = new EnumMap<>(RequestPhase.class);
+        latencies.forEach((phase, histogram) -> phases.put(phase, LatencySnapshot.of(histogram.copy())));
+        return new EndpointSnapshot(endpoint, requests.sum(), classes, bytesIn.sum(), bytesOut.sum(),
+                retries.sum(), hedges.sum(), hedgeWins.sum(), rejected.sum(), phases);
+    }
+
+    void reset() {
+        requests.reset();
+        for (LongAdder statusClass : statusClasses) {
+            statusClass.reset();
+        }
+        bytesIn.reset();
+        bytesOut.reset();
+        retries.reset();
+        hedges.reset();
+        hedgeWins.reset();
+        rejected.reset();
+        latencies.values().forEach(Histogram::reset);
+    }
+}
@@ -0,0 +1,28 @@
+package api.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import service.Endpoint;
+
+import java.util.Map;
+
+// Снимок метрик одной ручки
+@Getter
+@AllArgsConstructor
+public class EndpointSnapshot {
+    private final Endpoint endpoint;
+    private final long requests;
+    // [0] — без ответа, [1..5] — 1xx..5xx
+    private final long[] statusClasses;
+    private final long bytesIn;
+    private final long bytesOut;
+    private final long retries;
+    private final long hedges;
+    private final long hedgeWins;
+    private final long rejected;
+    private final Map<RequestPhase, LatencySnapshot> latencies;
+
+    public long getErrors() {
+        return statusClasses[0] + statusClasses[5];
+    }
+}
@@ -0,0 +1,26 @@
+package api.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+
+// Перцентили задержки одной фазы запроса, в миллисекундах
+@Getter
+@AllArgsConstructor
+public class LatencySnapshot {
+    private final long count;
+    private final double p50;
+    private final double p90;
+    private final double p99;
+    private final double p999;
+    private final double max;
+
+    static LatencySnapshot of(Histogram micros) {
+        return new LatencySnapshot(micros.getTotalCount(),
+                micros.getValueAtPercentile(50) / 1000.0,
+                micros.getValueAtPercentile(90) / 1000.0,
+                micros.getValueAtPercentile(99) / 1000.0,
+                micros.getValueAtPercentile(99.9) / 1000.0,
+                micros.getMaxValue() / 1000.0);
+    }
+}
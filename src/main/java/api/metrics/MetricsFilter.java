@@ -0,0 +1,74 @@
+package api.metrics;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import service.Endpoint;
+
+// Фильтр RestAssured, записывающий метрики каждого запроса к ручкам сервиса
+public class MetricsFilter implements Filter {
+    private final MetricsRegistry registry;
+
+    public MetricsFilter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        Endpoint endpoint = Endpoint.resolve(requestSpec.getMethod(), requestSpec.getUserDefinedPath());
+        if (endpoint == null) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        RequestTimings timings = RequestTimings.current();
+        timings.reset();
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (Exception e) {
+            // RestAssured пробрасывает и проверяемые исключения (например, UnknownHostException)
+            registry.get(endpoint).record(0, requestBytes(requestSpec), 0,
+                    timings.connectNanos, -1, -1, System.nanoTime() - start);
+            throw e;
+        }
+        // тело вычитывается из соединения здесь, поэтому время его чтения входит в фазу тела и в общее время
+        // запроса, а не достаётся тесту, который первым обратится к ответу
+        long responseBytes = response.asByteArray().length;
+        long end = System.nanoTime();
+        // по соединению из пула connectNanos = -1, и фаза соединения для такого запроса не записывается
+        long headersAt = timings.headersReceivedAt != 0 ? timings.headersReceivedAt : end;
+        registry.get(endpoint).record(response.getStatusCode(), requestBytes(requestSpec), responseBytes,
+                timings.connectNanos, headersAt - start, end - headersAt, end - start);
+        return response;
+    }
+
+    private static long requestBytes(FilterableRequestSpecification requestSpec) {
+        Object body = requestSpec.getBody();
+        if (body instanceof byte[]) {
+            return ((byte[]) body).length;
+        }
+        return body == null ? 0 : utf8Length(body.toString());
+    }
+
+    // Длина строки в UTF-8 без создания массива байтов
+    static long utf8Length(CharSequence text) {
+        long length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
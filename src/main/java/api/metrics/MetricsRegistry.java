@@ -0,0 +1,45 @@
+package api.metrics;
+
+import service.Endpoint;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Реестр метрик по ручкам сервиса. По умолчанию все клиенты пишут в общий реестр getDefault()
+public class MetricsRegistry {
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final Map<Endpoint, EndpointMetrics> metrics = new EnumMap<>(Endpoint.class);
+
+    public MetricsRegistry() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            metrics.put(endpoint, new EndpointMetrics(endpoint));
+        }
+    }
+
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public EndpointMetrics get(Endpoint endpoint) {
+        return metrics.get(endpoint);
+    }
+
+    // Снимок только тех ручек, к которым были запросы или попытки запросов
+    public MetricsSnapshot snapshot() {
+        List<EndpointSnapshot> endpoints = new ArrayList<>();
+        for (EndpointMetrics endpointMetrics : metrics.values()) {
+            EndpointSnapshot snapshot = endpointMetrics.snapshot();
+            if (snapshot.getRequests() > 0 || snapshot.getRejected() > 0) {
+                endpoints.add(snapshot);
+            }
+        }
+        return new MetricsSnapshot(System.currentTimeMillis(), endpoints);
+    }
+
+    public void reset() {
+        metrics.values().forEach(EndpointMetrics::reset);
+    }
+}
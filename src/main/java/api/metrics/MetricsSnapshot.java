@@ -0,0 +1,49 @@
+package api.metrics;
+
+import com.google.gson.GsonBuilder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import service.Endpoint;
+
+import java.util.List;
+
+// Снимок метрик всех ручек на момент вызова MetricsRegistry.snapshot()
+@Getter
+@AllArgsConstructor
+public class MetricsSnapshot {
+    private final long timestamp;
+    private final List<EndpointSnapshot> endpoints;
+
+    // Снимок ручки или null, если запросов к ней не было
+    public EndpointSnapshot get(Endpoint endpoint) {
+        for (EndpointSnapshot snapshot : endpoints) {
+            if (snapshot.getEndpoint() == endpoint) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    public String toJson() {
+        return new GsonBuilder().setPrettyPrinting().create().toJson(this);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder table = new StringBuilder(String.format("%-28s %8s %6s %6s %6s %6s %6s %6s %6s %10s %10s %9s %9s %9s %9s%n",
+                "Ручка", "Запросов", "2xx", "4xx", "5xx+ош", "Повт.", "Хедж", "Хедж✓", "Отказ", "Байт вх.", "Байт исх.",
+                "conn p99", "ttfb p99", "body p99", "p99, мс"));
+        for (EndpointSnapshot endpoint : endpoints) {
+            long[] classes = endpoint.getStatusClasses();
+            table.append(String.format("%-28s %8d %6d %6d %6d %6d %6d %6d %6d %10d %10d %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.getEndpoint(), endpoint.getRequests(), classes[2], classes[4], endpoint.getErrors(),
+                    endpoint.getRetries(), endpoint.getHedges(), endpoint.getHedgeWins(), endpoint.getRejected(),
+                    endpoint.getBytesIn(), endpoint.getBytesOut(),
+                    endpoint.getLatencies().get(RequestPhase.CONNECT).getP99(),
+                    endpoint.getLatencies().get(RequestPhase.FIRST_BYTE).getP99(),
+                    endpoint.getLatencies().get(RequestPhase.BODY).getP99(),
+                    endpoint.getLatencies().get(RequestPhase.TOTAL).getP99()));
+        }
+        return table.toString();
+    }
+}
@@ -0,0 +1,13 @@
+package api.metrics;
+
+// Фазы запроса, для которых строятся отдельные гистограммы задержек
+public enum RequestPhase {
+    // установка TCP-соединения (0, если соединение взято из пула)
+    CONNECT,
+    // от начала запроса до получения заголовков ответа
+    FIRST_BYTE,
+    // от заголовков ответа до полностью прочитанного тела
+    BODY,
+    // весь запрос целиком
+    TOTAL
+}
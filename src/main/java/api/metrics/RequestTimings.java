@@ -0,0 +1,28 @@
+package api.metrics;
+
+// Отметки времени текущего синхронного запроса. RestAssured выполняет запрос в вызывающем потоке,
+// поэтому пул соединений и исполнитель запросов пишут сюда, а фильтр метрик читает
+final class RequestTimings {
+    private static final ThreadLocal<RequestTimings> CURRENT = ThreadLocal.withInitial(RequestTimings::new);
+
+    // -1 — запрос ушёл по уже открытому соединению из пула, установка соединения не измерялась
+    long connectNanos = -1;
+    long headersReceivedAt;
+
+    private RequestTimings() {
+    }
+
+    static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    void reset() {
+        connectNanos = -1;
+        headersReceivedAt = 0;
+    }
+
+    // Запрос может открыть несколько соединений (например, после обрыва), их время складывается
+    void addConnect(long nanos) {
+        connectNanos = Math.max(0, connectNanos) + nanos;
+    }
+}
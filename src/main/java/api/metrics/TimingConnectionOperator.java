@@ -0,0 +1,31 @@
+package api.metrics;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.net.InetAddress;
+
+// Оператор соединений HttpClient, замеряющий время установки нового TCP-соединения
+@SuppressWarnings("deprecation")
+public class TimingConnectionOperator extends DefaultClientConnectionOperator {
+
+    public TimingConnectionOperator(SchemeRegistry schemes) {
+        super(schemes);
+    }
+
+    @Override
+    public void openConnection(OperatedClientConnection conn, HttpHost target, InetAddress local,
+                               HttpContext context, HttpParams params) throws IOException {
+        long start = System.nanoTime();
+        try {
+            super.openConnection(conn, target, local, context, params);
+        } finally {
+            RequestTimings.current().addConnect(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package api.metrics;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import java.io.IOException;
+
+// Исполнитель запросов HttpClient, отмечающий момент получения заголовков ответа
+public class TimingRequestExecutor extends HttpRequestExecutor {
+
+    @Override
+    protected HttpResponse doReceiveResponse(HttpRequest request, HttpClientConnection conn, HttpContext context)
+            throws HttpException, IOException {
+        HttpResponse response = super.doReceiveResponse(request, conn, context);
+        RequestTimings.current().headersReceivedAt = System.nanoTime();
+        return response;
+    }
+}
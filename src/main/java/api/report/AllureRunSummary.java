@@ -0,0 +1,149 @@
+package api.report;
+
+import api.log.ApiLog;
+import api.log.ApiLogger;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import io.qameta.allure.FileSystemResultsWriter;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.Label;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+// Итоговая запись прогона в отчёте Allure (метрики, очистка), общая для всех форков surefire.
+// uuid записи выводится из её имени и идентификатора прогона tests.runId, который pom передаёт всем форкам,
+// поэтому форки не плодят копии, а дописывают в одну запись свои вложения. Вложения форков хранятся
+// в файле состояния рядом с записью; форки обновляют его и переписывают запись по очереди под блокировкой файла.
+// Статус записи — худший из статусов форков
+public final class AllureRunSummary {
+    private static final ApiLogger log = ApiLog.getLogger(AllureRunSummary.class);
+    private static final Gson GSON = new Gson();
+    // без surefire (запуск из IDE) прогон — это один процесс
+    private static final String RUN_ID = propertyOrPid("tests.runId");
+    private static final String FORK = propertyOrPid("tests.fork");
+
+    private AllureRunSummary() {
+    }
+
+    // Добавляет вложения этого форка в запись fullName текущего прогона
+    public static void attach(String fullName, String name, String suite, Status status, List<Part> parts) {
+        Path directory = Paths.get(System.getProperty("allure.results.directory", "allure-results"));
+        String uuid = UUID.nameUUIDFromBytes((fullName + "#" + RUN_ID).getBytes(StandardCharsets.UTF_8)).toString();
+        try {
+            Files.createDirectories(directory);
+            List<Attachment> attachments = new ArrayList<>();
+            for (Part part : parts) {
+                String source = UUID.randomUUID() + "-attachment" + part.getExtension();
+                Files.write(directory.resolve(source), part.getContent());
+                attachments.add(new Attachment()
+                        .setName(String.format("%s (форк %s)", part.getName(), FORK))
+                        .setSource(source)
+                        .setType(part.getType()));
+            }
+            try (FileChannel channel = FileChannel.open(directory.resolve(uuid + "-summary.state"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    Map<String, ForkPart> forks = read(channel);
+                    forks.put(FORK, new ForkPart(status, attachments));
+                    write(channel, forks);
+                    new FileSystemResultsWriter(directory).write(merge(uuid, fullName, name, suite, forks));
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ ВНИМАНИЕ. Запись «%s» не добавлена в отчёт Allure: %s%n", name, e);
+        }
+    }
+
+    private static String propertyOrPid(String name) {
+        String value = System.getProperty(name, "").trim();
+        return value.isEmpty() ? "pid" + ProcessHandle.current().pid() : value;
+    }
+
+    private static TestResult merge(String uuid, String fullName, String name, String suite,
+                                    Map<String, ForkPart> forks) {
+        List<Attachment> attachments = new ArrayList<>();
+        Status status = Status.PASSED;
+        for (ForkPart fork : forks.values()) {
+            attachments.addAll(fork.getAttachments());
+            // в перечислении Status более тяжёлые исходы идут раньше: FAILED, BROKEN, PASSED
+            if (fork.getStatus().ordinal() < status.ordinal()) {
+                status = fork.getStatus();
+            }
+        }
+        long now = System.currentTimeMillis();
+        return new TestResult()
+                .setUuid(uuid)
+                .setHistoryId(fullName)
+                .setName(name)
+                .setFullName(fullName)
+                .setStatus(status)
+                .setStart(now)
+                .setStop(now)
+                .setLabels(List.of(new Label().setName("suite").setValue(suite)))
+                .setAttachments(attachments);
+    }
+
+    private static Map<String, ForkPart> read(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // читаем файл состояния целиком
+        }
+        Map<String, ForkPart> forks = buffer.position() == 0 ? null : GSON.fromJson(
+                new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8),
+                new TypeToken<Map<String, ForkPart>>() { }.getType());
+        // форки в отчёте идут по номеру, а не по порядку завершения
+        Map<String, ForkPart> sorted = new TreeMap<>(Comparator.comparing(String::length)
+                .thenComparing(Comparator.naturalOrder()));
+        if (forks != null) {
+            sorted.putAll(forks);
+        }
+        return sorted;
+    }
+
+    private static void write(FileChannel channel, Map<String, ForkPart> forks) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(GSON.toJson(forks).getBytes(StandardCharsets.UTF_8));
+        channel.truncate(0);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, buffer.position());
+        }
+    }
+
+    // Одно вложение записи: имя, MIME-тип, расширение файла и содержимое
+    @Getter
+    @AllArgsConstructor
+    public static class Part {
+        private final String name;
+        private final String type;
+        private final String extension;
+        private final byte[] content;
+    }
+
+    // Статус и вложения одного форка в файле состояния
+    @Getter
+    @AllArgsConstructor
+    private static class ForkPart {
+        private final Status status;
+        private final List<Attachment> attachments;
+    }
+}
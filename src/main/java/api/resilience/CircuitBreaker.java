@@ -0,0 +1,110 @@
+package api.resilience;
+
+import java.util.concurrent.TimeUnit;
+
+// Автоматический выключатель одной ручки. В замкнутом состоянии запоминает исходы последних ответов;
+// когда доля ошибок в окне достигает порога, размыкается и отклоняет запросы breakerOpenMillis.
+// Затем пропускает несколько пробных запросов: если все успешны, замыкается, если хоть один нет — снова размыкается
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean enabled;
+    private final boolean[] outcomes;
+    private final int minCalls;
+    private final double failureRate;
+    private final long openNanos;
+    private final int probes;
+    private State state = State.CLOSED;
+    // кольцевой буфер исходов: true — ошибка
+    private int next;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    public CircuitBreaker(ResilienceSettings settings) {
+        this.enabled = settings.getBreakerWindow() > 0;
+        this.outcomes = new boolean[Math.max(1, settings.getBreakerWindow())];
+        this.minCalls = Math.min(outcomes.length, Math.max(1, settings.getBreakerMinCalls()));
+        this.failureRate = settings.getBreakerFailureRate();
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(settings.getBreakerOpenMillis());
+        this.probes = Math.max(1, settings.getBreakerProbes());
+    }
+
+    // true — запрос можно отправлять
+    public synchronized boolean tryAcquire() {
+        if (!enabled) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (state == State.OPEN) {
+            if (now - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            openedAt = now;
+            probesStarted = 0;
+            probesSucceeded = 0;
+        } else if (state == State.HALF_OPEN && probesStarted >= probes && now - openedAt >= openNanos) {
+            // ответы на пробные запросы так и не пришли — пробуем заново
+            openedAt = now;
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= probes) {
+                return false;
+            }
+            probesStarted++;
+        }
+        return true;
+    }
+
+    // Исход отправленного запроса: true — 5xx или сбой соединения
+    public synchronized void onResult(boolean failure) {
+        if (!enabled || state == State.OPEN) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (failure) {
+                open();
+            } else if (++probesSucceeded >= probes) {
+                close();
+            }
+            return;
+        }
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+        if (recorded >= minCalls && failures >= failureRate * recorded) {
+            open();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,12 @@
+package api.resilience;
+
+import service.Endpoint;
+
+// Запрос не отправлен: выключатель ручки разомкнут, сервис считается деградировавшим
+public class CircuitOpenException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(Endpoint endpoint) {
+        super(String.format("Выключатель ручки %s разомкнут: сервис отвечает ошибками, запрос не отправлен", endpoint));
+    }
+}
@@ -0,0 +1,89 @@
+package api.resilience;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Пауза перед хеджирующим запросом: заданный перцентиль задержки успешных ответов ручки.
+// Задержки пишутся в Recorder без блокировок; перцентиль пересчитывается не чаще hedgeRefreshMillis
+// по ответам, накопленным с прошлого пересчёта. Пока ответов мало, хеджирование выключено.
+// Число хеджирующих запросов ограничено бюджетом: каждый запрос пополняет его на долю hedgeBudget,
+// каждый хеджирующий тратит единицу
+public class HedgeDelay {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    // бюджет хранится в тысячных долях запроса; накопить можно не больше чем на BUDGET_BURST хеджей подряд
+    private static final long BUDGET_UNIT = 1_000;
+    private static final long BUDGET_BURST = 10;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final int minSamples;
+    private final long refreshNanos;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 2);
+    private final Histogram accumulated = new Histogram(HIGHEST_TRACKABLE_MICROS, 2);
+    private final AtomicLong nextRefreshAt;
+    private final long budgetPerRequest;
+    private final AtomicLong budget = new AtomicLong();
+    private Histogram interval;
+    // 0 — хеджирование пока выключено
+    private volatile long delayNanos;
+
+    public HedgeDelay(ResilienceSettings settings) {
+        this.enabled = settings.getHedgePercentile() > 0;
+        this.percentile = Math.min(100, settings.getHedgePercentile());
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(settings.getMinHedgeDelayMillis());
+        this.minSamples = Math.max(1, settings.getHedgeMinSamples());
+        this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(settings.getHedgeRefreshMillis());
+        this.nextRefreshAt = new AtomicLong(System.nanoTime() + refreshNanos);
+        this.budgetPerRequest = (long) (settings.getHedgeBudget() * BUDGET_UNIT);
+    }
+
+    // Отправлен основной запрос
+    public void onRequest() {
+        if (enabled && budget.get() < BUDGET_BURST * BUDGET_UNIT) {
+            budget.addAndGet(budgetPerRequest);
+        }
+    }
+
+    // true — бюджет позволяет отправить хеджирующий запрос
+    public boolean tryHedge() {
+        long available;
+        do {
+            available = budget.get();
+            if (available < BUDGET_UNIT) {
+                return false;
+            }
+        } while (!budget.compareAndSet(available, available - BUDGET_UNIT));
+        return true;
+    }
+
+    public void record(long latencyNanos) {
+        if (!enabled) {
+            return;
+        }
+        recorder.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        long now = System.nanoTime();
+        long refreshAt = nextRefreshAt.get();
+        // пересчитывает тот поток, который первым заметил, что пора
+        if (now - refreshAt >= 0 && nextRefreshAt.compareAndSet(refreshAt, now + refreshNanos)) {
+            refresh();
+        }
+    }
+
+    public long getDelayNanos() {
+        return delayNanos;
+    }
+
+    private synchronized void refresh() {
+        interval = recorder.getIntervalHistogram(interval);
+        accumulated.add(interval);
+        if (accumulated.getTotalCount() >= minSamples) {
+            long micros = accumulated.getValueAtPercentile(percentile);
+            delayNanos = Math.max(Math.max(1, minDelayNanos), TimeUnit.MICROSECONDS.toNanos(micros));
+            accumulated.reset();
+        }
+    }
+}
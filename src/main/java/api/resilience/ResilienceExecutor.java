@@ -0,0 +1,359 @@
+package api.resilience;
+
+import api.concurrent.TaskThreads;
+import api.metrics.EndpointMetrics;
+import api.metrics.MetricsRegistry;
+import service.Endpoint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+// Выполняет запросы к ручкам по политике устойчивости:
+// - открытый выключатель ручки отклоняет запрос сразу, не дожидаясь таймаута;
+// - идемпотентный запрос, получивший 5xx или сбой соединения, повторяется после паузы со случайным разбросом;
+// - если запрос на чтение отвечает дольше заданного перцентиля, параллельно отправляется его копия,
+//   и вызывающий получает первый успешный ответ.
+// Каждая отправка проходит через обычные фильтры и попадает в метрики, а повторы, хеджирующие запросы
+// и отказы выключателя дополнительно считаются в EndpointMetrics
+public class ResilienceExecutor implements Closeable {
+    private final Map<Endpoint, Guard> guards = new EnumMap<>(Endpoint.class);
+    // потоки для синхронных запросов, которые хеджируются; виртуальные, если вызывающие сценарии
+    // тоже идут в виртуальных потоках. Отложенные повторы и хеджирующие копии асинхронных запросов
+    // запускаются прямо в потоке планировщика CompletableFuture: их отправка не блокирует
+    private final ExecutorService workers = TaskThreads.newPerTaskExecutor("resilience-worker");
+    // не больше maxWorkers синхронных запросов одновременно в потоках workers; когда места нет,
+    // запрос идёт в вызывающем потоке без хеджирования, а хеджирующая копия не отправляется
+    private final Semaphore workerSlots;
+
+    public ResilienceExecutor(ResiliencePolicy policy, MetricsRegistry metrics) {
+        this.workerSlots = new Semaphore(Math.max(1, policy.getMaxWorkers()));
+        for (Endpoint endpoint : Endpoint.values()) {
+            guards.put(endpoint, new Guard(endpoint, policy.settingsFor(endpoint), metrics.get(endpoint)));
+        }
+    }
+
+    // Синхронный вызов: call отправляет один запрос, status достаёт из ответа статус-код.
+    // Возвращает последний полученный ответ; сбой соединения пробрасывается, если повторы не помогли
+    public <T> T call(Endpoint endpoint, Supplier<T> call, ToIntFunction<T> status) {
+        Guard guard = guards.get(endpoint);
+        acquireOrReject(guard);
+        for (int attempt = 1; ; attempt++) {
+            boolean canRetry = attempt < guard.maxAttempts;
+            T response;
+            try {
+                // без хеджирования запрос идёт в вызывающем потоке, как и без политики
+                response = guard.hedgeDelayNanos() > 0 && !workers.isShutdown() && workerSlots.tryAcquire()
+                        ? join(hedged(guard, () -> inWorker(call), status, workerSlots::tryAcquire))
+                        : attempt(guard, call, status);
+            } catch (Throwable error) {
+                if (!canRetry || !isTransient(error) || !retryAfterBackoff(guard, attempt)) {
+                    throw error;
+                }
+                continue;
+            }
+            if (!isServerError(status.applyAsInt(response)) || !canRetry || !retryAfterBackoff(guard, attempt)) {
+                return response;
+            }
+        }
+    }
+
+    // Асинхронный вызов: call отправляет один запрос, повторы запускаются без блокировки потоков
+    public <T> CompletableFuture<T> callAsync(Endpoint endpoint, Supplier<CompletableFuture<T>> call,
+                                              ToIntFunction<T> status) {
+        Guard guard = guards.get(endpoint);
+        try {
+            acquireOrReject(guard);
+        } catch (CircuitOpenException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attemptAsync(guard, call, status, 1, result);
+        return result;
+    }
+
+    public CircuitBreaker.State getBreakerState(Endpoint endpoint) {
+        return guards.get(endpoint).breaker.getState();
+    }
+
+    private static void acquireOrReject(Guard guard) {
+        if (!guard.breaker.tryAcquire()) {
+            guard.metrics.recordRejected();
+            throw new CircuitOpenException(guard.endpoint);
+        }
+    }
+
+    private static <T> T attempt(Guard guard, Supplier<T> call, ToIntFunction<T> status) {
+        long start = System.nanoTime();
+        T response;
+        try {
+            response = call.get();
+        } catch (Throwable error) {
+            guard.onFailure(error);
+            throw error;
+        }
+        guard.onResponse(status.applyAsInt(response), System.nanoTime() - start);
+        return response;
+    }
+
+    private static <T> CompletableFuture<T> attempt(Guard guard, Supplier<CompletableFuture<T>> call,
+                                                    ToIntFunction<T> status, long start) {
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((response, error) -> {
+            if (error != null) {
+                guard.onFailure(error);
+            } else {
+                guard.onResponse(status.applyAsInt(response), System.nanoTime() - start);
+            }
+        });
+    }
+
+    private <T> void attemptAsync(Guard guard, Supplier<CompletableFuture<T>> call, ToIntFunction<T> status,
+                                  int attempt, CompletableFuture<T> result) {
+        hedged(guard, call, status, () -> true).whenComplete((response, error) -> {
+            boolean failed = error != null ? isTransient(error) : isServerError(status.applyAsInt(response));
+            if (!failed || attempt >= guard.maxAttempts) {
+                complete(result, response, error);
+                return;
+            }
+            delayed(guard.backoffMillis(attempt)).execute(() -> {
+                if (guard.breaker.tryAcquire()) {
+                    guard.metrics.recordRetry();
+                    attemptAsync(guard, call, status, attempt + 1, result);
+                } else {
+                    guard.metrics.recordRejected();
+                    complete(result, response, error);
+                }
+            });
+        });
+    }
+
+    // Запрос, к которому через паузу хеджирования добавляется копия, если ответа всё ещё нет;
+    // reserveHedge занимает место под копию и возвращает false, если его нет
+    private <T> CompletableFuture<T> hedged(Guard guard, Supplier<CompletableFuture<T>> call, ToIntFunction<T> status,
+                                            BooleanSupplier reserveHedge) {
+        long delayNanos = guard.hedgeDelayNanos();
+        guard.hedgeDelay.onRequest();
+        CompletableFuture<T> primary = attempt(guard, call, status, System.nanoTime());
+        if (delayNanos <= 0 || primary.isDone()) {
+            return primary;
+        }
+        Race<T> race = new Race<>(status);
+        race.join(primary, false, guard);
+        CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, Runnable::run).execute(() -> {
+            if (!race.tryStartHedge()) {
+                return;
+            }
+            if (!guard.hedgeDelay.tryHedge() || !guard.breaker.tryAcquire() || !reserveHedge.getAsBoolean()) {
+                race.abandonHedge();
+                return;
+            }
+            guard.metrics.recordHedge();
+            race.join(attempt(guard, call, status, System.nanoTime()), true, guard);
+        });
+        return race.result;
+    }
+
+    private boolean retryAfterBackoff(Guard guard, int attempt) {
+        try {
+            Thread.sleep(guard.backoffMillis(attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if (!guard.breaker.tryAcquire()) {
+            guard.metrics.recordRejected();
+            return false;
+        }
+        guard.metrics.recordRetry();
+        return true;
+    }
+
+    // Синхронный запрос в потоке workers; место в workerSlots занято вызывающим и освобождается по завершении
+    private <T> CompletableFuture<T> inWorker(Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, workers).whenComplete((response, error) -> workerSlots.release());
+        } catch (RejectedExecutionException e) {
+            workerSlots.release();
+            throw e;
+        }
+    }
+
+    private static Executor delayed(long millis) {
+        return CompletableFuture.delayedExecutor(millis, TimeUnit.MILLISECONDS, Runnable::run);
+    }
+
+    private static <T> void complete(CompletableFuture<T> result, T response, Throwable error) {
+        if (error != null) {
+            result.completeExceptionally(error);
+        } else {
+            result.complete(response);
+        }
+    }
+
+    // Исключение запроса без обёртки CompletionException, если оно непроверяемое
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isServerError(int statusCode) {
+        return statusCode >= 500;
+    }
+
+    // Останавливает потоки workers; синхронные запросы после закрытия идут в вызывающем потоке без хеджирования
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    // Сбой соединения или таймаут: такой запрос имеет смысл повторить
+    public static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Состояние политики для одной ручки
+    private static final class Guard {
+        private final Endpoint endpoint;
+        private final ResilienceSettings settings;
+        private final EndpointMetrics metrics;
+        private final CircuitBreaker breaker;
+        private final HedgeDelay hedgeDelay;
+        private final int maxAttempts;
+        private final boolean hedging;
+
+        private Guard(Endpoint endpoint, ResilienceSettings settings, EndpointMetrics metrics) {
+            this.endpoint = endpoint;
+            this.settings = settings;
+            this.metrics = metrics;
+            this.breaker = new CircuitBreaker(settings);
+            this.hedgeDelay = new HedgeDelay(settings);
+            // повтор неидемпотентного запроса может создать на сервере лишний объект
+            this.maxAttempts = endpoint.isIdempotent() ? Math.max(1, settings.getMaxAttempts()) : 1;
+            // копии удаления и отмены идемпотентны по состоянию, но не по ответу: опоздавшая копия
+            // получает 404, и если она ответит первой, вызывающий увидит ошибку. Поэтому хеджируем только чтение
+            this.hedging = endpoint.isSafe();
+        }
+
+        private long hedgeDelayNanos() {
+            return hedging ? hedgeDelay.getDelayNanos() : 0;
+        }
+
+        private void onResponse(int statusCode, long latencyNanos) {
+            boolean failure = isServerError(statusCode);
+            breaker.onResult(failure);
+            if (hedging && !failure) {
+                hedgeDelay.record(latencyNanos);
+            }
+        }
+
+        private void onFailure(Throwable error) {
+            breaker.onResult(isTransient(error));
+        }
+
+        // экспоненциальная пауза со случайным разбросом, чтобы повторы не приходили на сервер пачкой
+        private long backoffMillis(int attempt) {
+            long backoff = Math.min(settings.getMaxBackoffMillis(),
+                    settings.getInitialBackoffMillis() << Math.min(attempt - 1, 20));
+            return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        }
+    }
+
+    // Гонка основного и хеджирующего запросов: результат — первый ответ без 5xx и сбоя,
+    // а если таких нет — исход запроса, завершившегося последним
+    private static final class Race<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final ToIntFunction<T> status;
+        private int running;
+        private T lastResponse;
+        private Throwable lastError;
+
+        private Race(ToIntFunction<T> status) {
+            this.status = status;
+        }
+
+        private void join(CompletableFuture<T> leg, boolean hedge, Guard guard) {
+            if (!hedge) {
+                synchronized (this) {
+                    running++;
+                }
+            }
+            leg.whenComplete((response, error) -> {
+                if (finish(response, error) && hedge) {
+                    guard.metrics.recordHedgeWin();
+                }
+            });
+        }
+
+        private synchronized boolean tryStartHedge() {
+            if (result.isDone() || running == 0) {
+                return false;
+            }
+            running++;
+            return true;
+        }
+
+        private void abandonHedge() {
+            finish(null, null, false);
+        }
+
+        // true — этот запрос дал результат гонки
+        private boolean finish(T response, Throwable error) {
+            return finish(response, error, error == null && !isServerError(status.applyAsInt(response)));
+        }
+
+        private boolean finish(T response, Throwable error, boolean acceptable) {
+            boolean last;
+            synchronized (this) {
+                running--;
+                if (!acceptable && (response != null || error != null)) {
+                    lastResponse = response;
+                    lastError = error;
+                }
+                last = running == 0;
+            }
+            if (acceptable) {
+                return result.complete(response);
+            }
+            if (last) {
+                if (lastError != null) {
+                    result.completeExceptionally(lastError);
+                } else {
+                    result.complete(lastResponse);
+                }
+            }
+            return false;
+        }
+    }
+}
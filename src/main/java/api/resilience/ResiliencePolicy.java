@@ -0,0 +1,50 @@
+package api.resilience;
+
+import lombok.Builder;
+import lombok.Getter;
+import service.Endpoint;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Политика устойчивости клиента: общие настройки и отдельные настройки для выбранных ручек.
+// Пример: ResiliencePolicy.defaults().with(Endpoint.ORDER_LIST, ResilienceSettings.builder().maxAttempts(5).build())
+@Getter
+@Builder(toBuilder = true)
+public class ResiliencePolicy {
+    @Builder.Default private final ResilienceSettings defaults = ResilienceSettings.defaults();
+    @Builder.Default private final Map<Endpoint, ResilienceSettings> endpoints = Collections.emptyMap();
+    // сколько хеджируемых синхронных запросов одновременно выполняются в потоках исполнителя политики
+    @Builder.Default private final int maxWorkers = 64;
+
+    public static ResiliencePolicy defaults() {
+        return ResiliencePolicy.builder().build();
+    }
+
+    public static ResiliencePolicy disabled() {
+        return ResiliencePolicy.builder().defaults(ResilienceSettings.disabled()).build();
+    }
+
+    // Политика по свойству api.resilience: выключена, пока свойство не равно true.
+    // Нагрузочные прогоны включают её сами через LoadSettings и SimulationSettings
+    public static ResiliencePolicy fromSystemProperties() {
+        return of(Boolean.getBoolean("api.resilience"));
+    }
+
+    public static ResiliencePolicy of(boolean enabled) {
+        return enabled ? defaults() : disabled();
+    }
+
+    // Копия политики с отдельными настройками для ручки
+    public ResiliencePolicy with(Endpoint endpoint, ResilienceSettings settings) {
+        Map<Endpoint, ResilienceSettings> copy = new EnumMap<>(Endpoint.class);
+        copy.putAll(endpoints);
+        copy.put(endpoint, settings);
+        return toBuilder().endpoints(Collections.unmodifiableMap(copy)).build();
+    }
+
+    public ResilienceSettings settingsFor(Endpoint endpoint) {
+        return endpoints.getOrDefault(endpoint, defaults);
+    }
+}
@@ -0,0 +1,50 @@
+package api.resilience;
+
+import lombok.Builder;
+import lombok.Getter;
+
+// Настройки устойчивости вызовов одной ручки: повторы, хеджирование и автоматический выключатель.
+// Повторы применяются только к идемпотентным ручкам, хеджирование — только к ручкам чтения, выключатель — ко всем
+@Getter
+@Builder(toBuilder = true)
+public class ResilienceSettings {
+    // сколько всего попыток даётся запросу, включая первую; 1 — без повторов
+    @Builder.Default private final int maxAttempts = 3;
+    // пауза перед первым повтором; дальше удваивается
+    @Builder.Default private final long initialBackoffMillis = 100;
+    @Builder.Default private final long maxBackoffMillis = 2_000;
+    // перцентиль задержки ручки, после которого отправляется хеджирующий запрос; 0 — без хеджирования
+    @Builder.Default private final double hedgePercentile = 95;
+    // хеджирующий запрос не отправляется раньше этой паузы, даже если ручка отвечает быстрее
+    @Builder.Default private final long minHedgeDelayMillis = 20;
+    // сколько ответов нужно набрать, прежде чем оценивать перцентиль
+    @Builder.Default private final int hedgeMinSamples = 50;
+    // какую долю запросов можно продублировать: при перегрузке задерживаются все ответы,
+    // и без этого ограничения хеджирование удвоило бы нагрузку на сервис
+    @Builder.Default private final double hedgeBudget = 0.1;
+    // как часто пересчитывается пауза перед хеджирующим запросом
+    @Builder.Default private final long hedgeRefreshMillis = 1_000;
+    // по скольким последним ответам выключатель считает долю ошибок; 0 — без выключателя
+    @Builder.Default private final int breakerWindow = 50;
+    // выключатель не срабатывает, пока в окне меньше ответов
+    @Builder.Default private final int breakerMinCalls = 20;
+    // доля ошибок (5xx и сбоев соединения), при которой выключатель размыкается
+    @Builder.Default private final double breakerFailureRate = 0.5;
+    // сколько выключатель остаётся разомкнутым, прежде чем пропустить пробные запросы
+    @Builder.Default private final long breakerOpenMillis = 5_000;
+    // сколько пробных запросов должно пройти успешно, чтобы выключатель замкнулся
+    @Builder.Default private final int breakerProbes = 3;
+
+    public static ResilienceSettings defaults() {
+        return ResilienceSettings.builder().build();
+    }
+
+    // Один запрос без повторов, хеджирования и выключателя — как было до политики устойчивости
+    public static ResilienceSettings disabled() {
+        return ResilienceSettings.builder()
+                .maxAttempts(1)
+                .hedgePercentile(0)
+                .breakerWindow(0)
+                .build();
+    }
+}
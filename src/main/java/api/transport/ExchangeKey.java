@@ -0,0 +1,91 @@
+package api.transport;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Ключ обмена в журнале: метод, путь ручки с отсортированными параметрами запроса
+// и 64-битный хэш нормализованного тела. Один и тот же запрос из синхронного и асинхронного клиента
+// даёт одинаковый ключ, как бы ни были расставлены поля и пробелы в JSON
+final class ExchangeKey {
+    // поля, значение которых зависит от дня прогона (дата доставки отсчитывается от сегодняшней),
+    // в хэш не входят
+    private static final Set<String> VOLATILE_FIELDS = Set.of("deliveryDate");
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ExchangeKey() {
+    }
+
+    static String of(String method, URI uri, byte[] body) {
+        StringBuilder key = new StringBuilder(64).append(method).append(' ');
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        int start = 0;
+        while (start < path.length() && path.charAt(start) == '/') {
+            start++;
+        }
+        key.append(path, start, path.length());
+        String query = uri.getRawQuery();
+        if (query != null && !query.isEmpty()) {
+            String[] params = query.split("&");
+            Arrays.sort(params);
+            key.append('?').append(String.join("&", params));
+        }
+        if (body != null && body.length > 0) {
+            key.append('#').append(Long.toHexString(bodyHash(body)));
+        }
+        return key.toString();
+    }
+
+    private static long bodyHash(byte[] body) {
+        String json = new String(body, StandardCharsets.UTF_8);
+        try {
+            JsonElement element = JsonParser.parseString(json);
+            return fnv(normalize(element).toString().getBytes(StandardCharsets.UTF_8));
+        } catch (JsonParseException e) {
+            // не JSON: хэш считается по байтам как есть
+            return fnv(body);
+        }
+    }
+
+    // Ключи объектов сортируются, изменчивые поля отбрасываются
+    private static JsonElement normalize(JsonElement element) {
+        if (element.isJsonObject()) {
+            Map<String, JsonElement> sorted = new TreeMap<>();
+            for (Map.Entry<String, JsonElement> field : element.getAsJsonObject().entrySet()) {
+                if (!VOLATILE_FIELDS.contains(field.getKey())) {
+                    sorted.put(field.getKey(), normalize(field.getValue()));
+                }
+            }
+            JsonObject normalized = new JsonObject();
+            sorted.forEach(normalized::add);
+            return normalized;
+        }
+        if (element.isJsonArray()) {
+            JsonArray normalized = new JsonArray();
+            for (JsonElement item : element.getAsJsonArray()) {
+                normalized.add(normalize(item));
+            }
+            return normalized;
+        }
+        return element;
+    }
+
+    private static long fnv(byte[] bytes) {
+        long hash = FNV_OFFSET;
+        for (byte value : bytes) {
+            hash ^= value & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
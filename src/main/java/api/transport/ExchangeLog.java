@@ -0,0 +1,206 @@
+package api.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Журнал HTTP-обменов в одном файле, отображённом в память. Записи только дописываются в конец:
+//   заголовок файла: 8 байт SCXLOG01
+//   запись: int длина записи без этого поля (0 — конец журнала), int статус-код,
+//           short длина + ключ в UTF-8, short длина + тип содержимого (-1, если его нет), int длина + тело ответа
+// При воспроизведении файл отображается целиком только для чтения, а индекс «ключ → записи в порядке записи»
+// строится одним проходом при открытии. Если один и тот же запрос записан несколько раз
+// (например, повторное создание того же курьера), n-й такой запрос получает n-й ответ, а после них — последний
+class ExchangeLog implements Closeable {
+    private static final byte[] MAGIC = "SCXLOG01".getBytes(StandardCharsets.US_ASCII);
+    private static final int INITIAL_CAPACITY = 16 << 20;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final boolean writable;
+    private final Map<String, Entries> index = new HashMap<>();
+    private MappedByteBuffer buffer;
+    private int position;
+
+    private ExchangeLog(Path file, FileChannel channel, boolean writable) {
+        this.file = file;
+        this.channel = channel;
+        this.writable = writable;
+    }
+
+    // Журнал для дозаписи; существующие записи сохраняются
+    static ExchangeLog openForAppend(Path file) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ExchangeLog log = new ExchangeLog(file, channel, true);
+            long size = channel.size();
+            log.map(Math.max(INITIAL_CAPACITY, size + INITIAL_CAPACITY));
+            if (size == 0) {
+                log.buffer.put(MAGIC);
+                log.position = MAGIC.length;
+            } else {
+                log.position = log.scan(false);
+            }
+            return log;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть журнал обменов " + file, e);
+        }
+    }
+
+    // Журнал только для воспроизведения
+    static ExchangeLog openForReplay(Path file) {
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            ExchangeLog log = new ExchangeLog(file, channel, false);
+            log.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            log.position = log.scan(true);
+            return log;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть журнал обменов " + file, e);
+        }
+    }
+
+    synchronized void append(String key, int statusCode, String contentType, byte[] body) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] typeBytes = contentType == null ? null : contentType.getBytes(StandardCharsets.UTF_8);
+        int length = 4 + 2 + keyBytes.length + 2 + (typeBytes == null ? 0 : typeBytes.length) + 4 + body.length;
+        // после записи всегда остаётся место под нулевую длину — признак конца журнала
+        ensureCapacity(4 + length + 4);
+        // длина пишется последней: запись, прерванная на середине, при чтении не видна
+        int start = position;
+        buffer.position(start + 4);
+        buffer.putInt(statusCode);
+        buffer.putShort((short) keyBytes.length).put(keyBytes);
+        if (typeBytes == null) {
+            buffer.putShort((short) -1);
+        } else {
+            buffer.putShort((short) typeBytes.length).put(typeBytes);
+        }
+        buffer.putInt(body.length).put(body);
+        buffer.putInt(start, length);
+        position = start + 4 + length;
+    }
+
+    // Следующий записанный ответ на запрос с этим ключом или null, если такой запрос не записывался
+    RecordedExchange next(String key) {
+        Entries entries = index.get(key);
+        return entries == null ? null : entries.next();
+    }
+
+    int size() {
+        int size = 0;
+        for (Entries entries : index.values()) {
+            size += entries.exchanges.size();
+        }
+        return size;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    // Проходит по записям; возвращает позицию конца журнала
+    private int scan(boolean buildIndex) throws IOException {
+        int limit = (int) Math.min(buffer.capacity(), channel.size());
+        if (limit < MAGIC.length) {
+            throw new IOException("Файл " + file + " не является журналом обменов");
+        }
+        byte[] magic = new byte[MAGIC.length];
+        buffer.duplicate().get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Файл " + file + " не является журналом обменов");
+        }
+        int offset = MAGIC.length;
+        while (offset + 4 <= limit) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + 4 + length > limit) {
+                break;
+            }
+            if (buildIndex) {
+                ByteBuffer record = buffer.duplicate();
+                record.position(offset + 4).limit(offset + 4 + length);
+                int statusCode = record.getInt();
+                String key = readString(record, record.getShort());
+                String contentType = readString(record, record.getShort());
+                int bodyLength = record.getInt();
+                ByteBuffer body = record.slice();
+                body.limit(bodyLength);
+                index.computeIfAbsent(key, ignored -> new Entries())
+                        .exchanges.add(new RecordedExchange(statusCode, contentType, body.asReadOnlyBuffer()));
+            }
+            offset += 4 + length;
+        }
+        return offset;
+    }
+
+    private static String readString(ByteBuffer record, short length) {
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void ensureCapacity(int needed) {
+        if (position + (long) needed <= buffer.capacity()) {
+            return;
+        }
+        long capacity = buffer.capacity();
+        while (capacity < position + (long) needed) {
+            capacity *= 2;
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Журнал обменов " + file + " больше 2 ГБ");
+        }
+        try {
+            map(capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось расширить журнал обменов " + file, e);
+        }
+    }
+
+    private void map(long capacity) throws IOException {
+        // прежнее отображение освобождается сборщиком мусора
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writable) {
+            buffer.force();
+            // хвост отображения за последней записью не нужен
+            channel.truncate(position);
+        }
+        channel.close();
+    }
+
+    // Записи одного ключа в порядке записи и номер следующей для воспроизведения
+    private static class Entries {
+        private final List<RecordedExchange> exchanges = new ArrayList<>(1);
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        RecordedExchange next() {
+            int index = cursor.getAndIncrement();
+            return exchanges.get(Math.min(index, exchanges.size() - 1));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package api.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+// Запись HTTP-обменов в журнал и воспроизведение ответов из него для синхронного и асинхронного клиентов.
+// В режиме воспроизведения запросы в сеть не уходят, а ответы декодируются теми же путями, что и настоящие,
+// поэтому тесты, JMH и нагрузочные сценарии выполняются без сервиса.
+// Для совпадения ключей между записью и воспроизведением тестовые данные должны генерироваться одинаково:
+// тот же testdata.seed и фиксированный testdata.runId. Seed данных теста выводится из его имени,
+// поэтому порядок тестов и параллельный прогон на ключи не влияют
+public class ExchangeTransport implements Closeable {
+    private static final ExchangeTransport LIVE = new ExchangeTransport(TransportMode.LIVE, null);
+    private static volatile ExchangeTransport defaultTransport;
+
+    private final TransportMode mode;
+    private final ExchangeLog log;
+
+    private ExchangeTransport(TransportMode mode, ExchangeLog log) {
+        this.mode = mode;
+        this.log = log;
+    }
+
+    // Обычные запросы к сервису, журнал не ведётся
+    public static ExchangeTransport live() {
+        return LIVE;
+    }
+
+    // Дозапись обменов в журнал file
+    public static ExchangeTransport record(Path file) {
+        return new ExchangeTransport(TransportMode.RECORD, ExchangeLog.openForAppend(file));
+    }
+
+    // Ответы из журнала file без обращения к сети
+    public static ExchangeTransport replay(Path file) {
+        return new ExchangeTransport(TransportMode.REPLAY, ExchangeLog.openForReplay(file));
+    }
+
+    // Транспорт процесса по свойствам api.transport (live, record или replay; по умолчанию live)
+    // и api.transport.file (по умолчанию target/exchanges.log). Один журнал на процесс:
+    // его делят все клиенты, а при записи он закрывается при завершении JVM
+    public static ExchangeTransport getDefault() {
+        ExchangeTransport transport = defaultTransport;
+        if (transport == null) {
+            synchronized (ExchangeTransport.class) {
+                transport = defaultTransport;
+                if (transport == null) {
+                    transport = fromSystemProperties();
+                    if (transport.mode != TransportMode.LIVE) {
+                        Runtime.getRuntime().addShutdownHook(
+                                new Thread(transport::closeQuietly, "exchange-log-close"));
+                    }
+                    defaultTransport = transport;
+                }
+            }
+        }
+        return transport;
+    }
+
+    private static ExchangeTransport fromSystemProperties() {
+        TransportMode mode = TransportMode.valueOf(
+                System.getProperty("api.transport", "live").trim().toUpperCase(Locale.ROOT));
+        Path file = Paths.get(System.getProperty("api.transport.file", "target/exchanges.log"));
+        switch (mode) {
+            case RECORD:
+                return record(file);
+            case REPLAY:
+                return replay(file);
+            default:
+                return live();
+        }
+    }
+
+    public TransportMode getMode() {
+        return mode;
+    }
+
+    public boolean isRecording() {
+        return mode == TransportMode.RECORD;
+    }
+
+    public boolean isReplaying() {
+        return mode == TransportMode.REPLAY;
+    }
+
+    public void record(String method, URI uri, byte[] requestBody,
+                       int statusCode, String contentType, byte[] responseBody) {
+        log.append(ExchangeKey.of(method, uri, requestBody), statusCode,
+                contentType == null || contentType.isEmpty() ? null : contentType, responseBody);
+    }
+
+    // Записанный ответ на запрос; запрос, которого нет в журнале, — ошибка
+    public RecordedExchange replay(String method, URI uri, byte[] requestBody) {
+        String key = ExchangeKey.of(method, uri, requestBody);
+        RecordedExchange exchange = log.next(key);
+        if (exchange == null) {
+            throw new IllegalStateException("В журнале " + log.getFile() + " нет ответа на запрос " + key);
+        }
+        return exchange;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
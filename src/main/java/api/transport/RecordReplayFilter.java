@@ -0,0 +1,53 @@
+package api.transport;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+// Фильтр RestAssured, который записывает обмены в журнал или отвечает из него, не отправляя запрос.
+// Стоит после MetricsFilter, поэтому воспроизведённые запросы тоже попадают в метрики
+public class RecordReplayFilter implements Filter {
+    private final ExchangeTransport transport;
+
+    public RecordReplayFilter(ExchangeTransport transport) {
+        this.transport = transport;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        URI uri = URI.create(requestSpec.getURI());
+        byte[] body = body(requestSpec);
+        if (transport.isReplaying()) {
+            RecordedExchange exchange = transport.replay(requestSpec.getMethod(), uri, body);
+            ResponseBuilder response = new ResponseBuilder()
+                    .setStatusCode(exchange.getStatusCode())
+                    .setStatusLine("HTTP/1.1 " + exchange.getStatusCode())
+                    .setBody(exchange.getBodyAsString());
+            if (exchange.getContentType() != null) {
+                response.setContentType(exchange.getContentType());
+            }
+            return response.build();
+        }
+        Response response = ctx.next(requestSpec, responseSpec);
+        if (transport.isRecording()) {
+            transport.record(requestSpec.getMethod(), uri, body,
+                    response.getStatusCode(), response.getContentType(), response.asByteArray());
+        }
+        return response;
+    }
+
+    private static byte[] body(FilterableRequestSpecification requestSpec) {
+        Object body = requestSpec.getBody();
+        if (body instanceof byte[]) {
+            return (byte[]) body;
+        }
+        return body == null ? null : body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,59 @@
+package api.transport;
+
+import lombok.Getter;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Записанный ответ. Тело — срез отображённого в память журнала, байты не копируются в кучу
+public class RecordedExchange {
+    @Getter private final int statusCode;
+    // null, если сервис не указал тип содержимого
+    @Getter private final String contentType;
+    private final ByteBuffer body;
+
+    RecordedExchange(int statusCode, String contentType, ByteBuffer body) {
+        this.statusCode = statusCode;
+        this.contentType = contentType;
+        this.body = body;
+    }
+
+    public int getBodyLength() {
+        return body.remaining();
+    }
+
+    // Тело, декодированное из UTF-8 прямо из отображённого файла
+    public String getBodyAsString() {
+        return StandardCharsets.UTF_8.decode(body.duplicate()).toString();
+    }
+
+    // Поток, читающий тело прямо из отображённого файла
+    public InputStream openBody() {
+        ByteBuffer buffer = body.duplicate();
+        return new InputStream() {
+            @Override
+            public int read() {
+                return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+            }
+
+            @Override
+            public int read(byte[] target, int offset, int length) {
+                if (length == 0) {
+                    return 0;
+                }
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+                int count = Math.min(length, buffer.remaining());
+                buffer.get(target, offset, count);
+                return count;
+            }
+
+            @Override
+            public int available() {
+                return buffer.remaining();
+            }
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package api.transport;
+
+// Режим транспорта: обычные запросы к сервису, запись обменов в журнал или ответы из журнала без сети
+public enum TransportMode {
+    LIVE,
+    RECORD,
+    REPLAY
+}
@@ -0,0 +1,66 @@
+package fixtures;
+
+import service.Courier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Курьер, выданный тесту в единоличное пользование. Тест может менять логин и пароль у getCourier():
+// при возврате в пул следующий тест всё равно получит исходные данные. Если тест изменил
+// учётную запись на сервере, он вызывает invalidate() — тогда курьер удаляется и пул создаёт нового
+public class CourierLease implements AutoCloseable {
+    private final CourierPool pool;
+    private final PooledCourier pooled;
+    private final Courier courier;
+    private final List<Runnable> resetHooks = new ArrayList<>();
+    private boolean invalidated;
+    private boolean released;
+
+    CourierLease(CourierPool pool, PooledCourier pooled) {
+        this.pool = pool;
+        this.pooled = pooled;
+        this.courier = new Courier(pooled.getLogin(), pooled.getPassword(), pooled.getFirstName());
+    }
+
+    // Данные курьера для запросов; менять их можно, на другие выдачи это не влияет
+    public Courier getCourier() {
+        return courier;
+    }
+
+    // ID курьера, полученный при создании пула, — логиниться ради него не нужно
+    public int getId() {
+        return pooled.getId();
+    }
+
+    // Действие, которое выполнится при возврате курьера, например откат изменённых тестом данных
+    public CourierLease onRelease(Runnable hook) {
+        resetHooks.add(hook);
+        return this;
+    }
+
+    // Курьер больше не годится для других тестов: при возврате он будет удалён
+    public void invalidate() {
+        invalidated = true;
+    }
+
+    boolean isInvalidated() {
+        return invalidated;
+    }
+
+    PooledCourier getPooled() {
+        return pooled;
+    }
+
+    List<Runnable> getResetHooks() {
+        return resetHooks;
+    }
+
+    // Возврат курьера в пул; повторный вызов ничего не делает
+    @Override
+    public void close() {
+        if (!released) {
+            released = true;
+            pool.release(this);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package fixtures;
+
+import api.AsyncCourierAPI;
+import api.ClientContext;
+import api.cleanup.CleanupRegistry;
+import api.log.ApiLog;
+import api.log.ApiLogger;
+import service.Courier;
+import service.LoginResult;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.http.HttpStatus.SC_CREATED;
+import static org.apache.http.HttpStatus.SC_OK;
+
+// Пул заранее созданных курьеров. Вместо создания, логина и удаления курьера в каждом тесте
+// тест берёт курьера через lease() и возвращает его через CourierLease.close().
+// Пул создаёт курьеров параллельно, запоминает их ID и при необходимости дорастает до maxSize.
+// Негодных курьеров и курьеров, созданных без успешного логина, удаляет в фоне реестр очистки.
+// Все курьеры пула удаляются в close(); пул по умолчанию закрывается при остановке JVM
+public class CourierPool implements Closeable {
+    private static final ApiLogger log = ApiLog.getLogger(CourierPool.class);
+    private static final long LEASE_TIMEOUT_MILLIS = 60_000;
+    private static final long CLOSE_TIMEOUT_MILLIS = 30_000;
+    private static volatile CourierPool defaultPool;
+
+    private final AsyncCourierAPI api;
+    private final CleanupRegistry cleanup;
+    private final int maxSize;
+    // уникальная приставка логинов, чтобы пулы разных прогонов не пересекались
+    private final String loginPrefix = "pool" + UUID.randomUUID().toString().substring(0, 8) + "_";
+    private final AtomicInteger loginSequence = new AtomicInteger();
+    private final BlockingQueue<PooledCourier> idle = new LinkedBlockingQueue<>();
+    private final Set<PooledCourier> couriers = ConcurrentHashMap.newKeySet();
+    // занятые места в пуле, включая курьеров, которые ещё создаются
+    private final AtomicInteger reserved = new AtomicInteger();
+    private volatile boolean closed;
+
+    public CourierPool(AsyncCourierAPI api, CleanupRegistry cleanup, int initialSize, int maxSize) {
+        this.api = api;
+        this.cleanup = cleanup;
+        this.maxSize = Math.max(maxSize, initialSize);
+
+        List<CompletableFuture<PooledCourier>> creating = new ArrayList<>(initialSize);
+        for (int i = 0; i < initialSize; i++) {
+            reserved.incrementAndGet();
+            creating.add(create());
+        }
+        for (CompletableFuture<PooledCourier> future : creating) {
+            try {
+                idle.add(future.join());
+            } catch (CompletionException e) {
+                reserved.decrementAndGet();
+                log.warn("⚠️ ВНИМАНИЕ. Курьер для пула не создан: %s%n", e.getCause().getMessage());
+            }
+        }
+        log.info("Пул курьеров готов: %d из %d.%n", idle.size(), initialSize);
+    }
+
+    // Пул по умолчанию: размер задаётся свойствами courier.pool.size и courier.pool.maxSize
+    public static CourierPool getDefault() {
+        CourierPool pool = defaultPool;
+        if (pool == null) {
+            synchronized (CourierPool.class) {
+                pool = defaultPool;
+                if (pool == null) {
+                    ClientContext context = ClientContext.getDefault();
+                    pool = new CourierPool(new AsyncCourierAPI(context.getAsyncClient()), context.getCleanup(),
+                            Integer.getInteger("courier.pool.size", 4),
+                            Integer.getInteger("courier.pool.maxSize", 32));
+                    Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "courier-pool-cleanup"));
+                    defaultPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    // Выдаёт свободного курьера; если свободных нет и пул не заполнен — создаёт нового,
+    // иначе ждёт, пока другой тест вернёт своего
+    public CourierLease lease() {
+        if (closed) {
+            throw new IllegalStateException("Пул курьеров закрыт");
+        }
+        PooledCourier pooled = idle.poll();
+        if (pooled == null && tryReserve()) {
+            try {
+                pooled = create().join();
+            } catch (CompletionException e) {
+                reserved.decrementAndGet();
+                throw new IllegalStateException("Не удалось создать курьера для пула", e.getCause());
+            }
+        }
+        if (pooled == null) {
+            try {
+                pooled = idle.poll(LEASE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Ожидание курьера из пула прервано", e);
+            }
+            if (pooled == null) {
+                throw new IllegalStateException(String.format(
+                        "Свободный курьер не появился за %d мс, все %d заняты", LEASE_TIMEOUT_MILLIS, maxSize));
+            }
+        }
+        return new CourierLease(this, pooled);
+    }
+
+    // Сколько курьеров создано пулом
+    public int getSize() {
+        return couriers.size();
+    }
+
+    // Сколько курьеров сейчас свободно
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    void release(CourierLease lease) {
+        for (Runnable hook : lease.getResetHooks()) {
+            try {
+                hook.run();
+            } catch (RuntimeException e) {
+                log.warn("⚠️ ВНИМАНИЕ. Сброс курьера %s не выполнен: %s%n", lease.getPooled().getLogin(), e);
+                lease.invalidate();
+            }
+        }
+        PooledCourier pooled = lease.getPooled();
+        if (closed) {
+            // закрытый пул уже удалил всех своих курьеров, включая выданных
+            return;
+        }
+        if (lease.isInvalidated()) {
+            // на место удалённого курьера пул создаст нового при следующей выдаче; тест удаления не ждёт
+            couriers.remove(pooled);
+            reserved.decrementAndGet();
+            cleanup.deleteCourier(new Courier(pooled.getLogin(), pooled.getPassword(), pooled.getFirstName()),
+                    pooled.getId());
+            return;
+        }
+        idle.add(pooled);
+    }
+
+    // Удаляет всех курьеров пула, в том числе выданных: после закрытия тестам они не нужны
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        List<CompletableFuture<Boolean>> deleting = new ArrayList<>();
+        for (PooledCourier pooled : couriers) {
+            deleting.add(delete(pooled));
+        }
+        int deleted = 0;
+        try {
+            CompletableFuture.allOf(deleting.toArray(new CompletableFuture<?>[0]))
+                    .get(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException | ExecutionException e) {
+            log.warn("⚠️ ВНИМАНИЕ. Удаление курьеров пула не завершилось: %s%n", e);
+        }
+        for (CompletableFuture<Boolean> future : deleting) {
+            if (future.isDone() && !future.isCompletedExceptionally() && future.join()) {
+                deleted++;
+            }
+        }
+        couriers.clear();
+        idle.clear();
+        log.info("Пул курьеров закрыт. Удалено курьеров: %d из %d.%n", deleted, deleting.size());
+    }
+
+    private boolean tryReserve() {
+        int current;
+        do {
+            current = reserved.get();
+            if (current >= maxSize) {
+                return false;
+            }
+        } while (!reserved.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private CompletableFuture<PooledCourier> create() {
+        String login = loginPrefix + loginSequence.incrementAndGet();
+        String password = UUID.randomUUID().toString().substring(0, 10);
+        Courier courier = new Courier(login, password, "Пул");
+        return api.postForCourierCreating(courier)
+                .thenCompose(created -> {
+                    if (created.getStatusCode() != SC_CREATED) {
+                        throw new IllegalStateException("Курьер не создан: " + created.getBody());
+                    }
+                    return api.postForLogin(courier).handle((response, error) -> {
+                        LoginResult result = response == null ? null : response.get();
+                        if (result == null || result.getId() == null || response.getStatusCode() != SC_OK) {
+                            // курьер уже создан на сервере: реестр очистки получит его ID логином и удалит
+                            cleanup.deleteCourier(courier, 0);
+                            throw new IllegalStateException("Курьер не вошёл в систему: "
+                                    + (response != null ? response.getBody() : error));
+                        }
+                        PooledCourier pooled = new PooledCourier(login, password, courier.getFirstName(),
+                                result.getId());
+                        couriers.add(pooled);
+                        return pooled;
+                    });
+                });
+    }
+
+    private CompletableFuture<Boolean> delete(PooledCourier pooled) {
+        Courier courier = new Courier(pooled.getLogin(), pooled.getPassword(), pooled.getFirstName());
+        return api.deleteCourier(courier, pooled.getId())
+                .thenApply(response -> response.getStatusCode() == SC_OK)
+                .exceptionally(error -> false);
+    }
+}
@@ -0,0 +1,14 @@
+package fixtures;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Учётная запись курьера из пула в том виде, в каком она создана на сервере
+@Getter
+@AllArgsConstructor
+class PooledCourier {
+    private final String login;
+    private final String password;
+    private final String firstName;
+    private final int id;
+}
@@ -0,0 +1,176 @@
+package fixtures;
+
+import service.Courier;
+import service.Order;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Генератор тестовых курьеров и заказов вместо Faker. Все строки берутся из заранее собранных пулов,
+// поэтому на один объект создаётся только он сам и строки логина и пароля.
+// При одинаковом seed генератор выдаёт одинаковую последовательность данных. Логины уникальны между
+// прогонами и генераторами: в них входят идентификатор прогона, метка seed и счётчик генератора,
+// поэтому у разных генераторов одного прогона seed должен быть разным.
+// Экземпляр не потокобезопасен. В тестах генератор берётся через current(): TestDataListener выдаёт
+// каждому тесту свой, с seed по имени теста, так что данные теста не зависят от того,
+// в каком потоке и после каких тестов он выполняется
+public class TestDataGenerator {
+    private static final String[] FIRST_NAMES = {
+            "Александр", "Алексей", "Анна", "Андрей", "Вера", "Виктор", "Дарья", "Дмитрий",
+            "Екатерина", "Елена", "Иван", "Ирина", "Кирилл", "Ксения", "Максим", "Мария",
+            "Михаил", "Наталья", "Никита", "Ольга", "Павел", "Полина", "Роман", "Светлана",
+            "Сергей", "София", "Татьяна", "Тимур", "Юлия", "Юрий", "Яна", "Ярослав"};
+    private static final String[] LAST_NAMES = {
+            "Иванов", "Смирнов", "Кузнецов", "Попов", "Васильев", "Петров", "Соколов", "Михайлов",
+            "Новиков", "Фёдоров", "Морозов", "Волков", "Алексеев", "Лебедев", "Семёнов", "Егоров",
+            "Павлов", "Козлов", "Степанов", "Николаев", "Орлов", "Андреев", "Макаров", "Никитин",
+            "Захаров", "Зайцев", "Соловьёв", "Борисов", "Яковлев", "Григорьев", "Романов", "Воробьёв"};
+    private static final String[] STREETS = {
+            "ул. Льва Толстого", "ул. Тверская", "ул. Арбат", "Ленинский пр.", "пр. Мира", "ул. Покровка",
+            "ул. Маросейка", "Кутузовский пр.", "ул. Новый Арбат", "ул. Большая Якиманка", "Чистопрудный б-р",
+            "ул. Сретенка", "ул. Мясницкая", "ул. Пятницкая", "Садовая-Кудринская ул.", "ул. Остоженка"};
+    private static final String[] COMMENTS = {
+            "Позвоните за час до доставки", "Оставьте у консьержа", "Домофон не работает, позвоните",
+            "Доставка после 18:00", "Подъезд со двора", "Нужен самокат с полным зарядом",
+            "Код от домофона пришлю в смс", "Без звонка", "Этаж 7, лифт есть", "Оплата при получении",
+            "Встретить у метро", "Самокат на выходные", "Привезите пораньше", "Второй подъезд",
+            "Первый раз беру самокат", "Спасибо!"};
+    private static final String[] LOGIN_WORDS = {
+            "ninja", "rider", "scoot", "flash", "wheel", "speedy", "turbo", "comet",
+            "zoom", "rocket", "swift", "bolt", "breeze", "dash", "vortex", "orbit"};
+    private static final List<List<String>> COLORS = List.of(
+            List.of("BLACK"), List.of("GREY"), List.of("BLACK", "GREY"), List.of());
+    private static final char[] PASSWORD_CHARS =
+            "abcdefghijkmnopqrstuvwxyzABCDEFGHJKLMNPQRSTUVWXYZ23456789".toCharArray();
+    private static final int POOL_SIZE = 1024;
+    // метка seed в логине — шесть символов base36
+    private static final long SEED_TAGS = 2_176_782_336L;
+    private static final String[] ADDRESSES = new String[POOL_SIZE];
+    private static final String[] PHONES = new String[POOL_SIZE];
+    private static final String[] DELIVERY_DATES = new String[14];
+
+    // идентификатор прогона (время запуска и номер процесса) делает логины уникальными
+    // между прогонами с одним и тем же seed, в том числе между параллельными форками.
+    // Свойство testdata.runId фиксирует его, чтобы запросы совпадали с записанными в журнал обменов
+    private static final String RUN_ID = System.getProperty("testdata.runId",
+            Long.toString(System.currentTimeMillis() / 1000 % 1_000_000_000L, 36)
+                    + Long.toString(ProcessHandle.current().pid() % 1_296, 36));
+    private static final long DEFAULT_SEED = Long.getLong("testdata.seed", 20240101L);
+    // сколько раз запускался тест с данным именем: повторный запуск получает другой seed и другие логины
+    private static final Map<String, AtomicInteger> testRuns = new ConcurrentHashMap<>();
+    // номера генераторов потоков вне тестов: имена потоков в пулах повторяются, поэтому уникальность
+    // логинов таких генераторов держится на номере в метке, а не на seed
+    private static final AtomicLong threadGenerators = new AtomicLong();
+    private static final ThreadLocal<TestDataGenerator> perThread = ThreadLocal.withInitial(() -> {
+        long id = threadGenerators.incrementAndGet();
+        return new TestDataGenerator(seedFor(Thread.currentThread().getName() + '#' + id),
+                'T' + Long.toString(id, 36));
+    });
+
+    static {
+        // пулы собираются из фиксированного seed один раз на JVM
+        SplittableRandom random = new SplittableRandom(DEFAULT_SEED);
+        for (int i = 0; i < POOL_SIZE; i++) {
+            ADDRESSES[i] = "Москва, " + STREETS[random.nextInt(STREETS.length)] + ", " + (1 + random.nextInt(120));
+            PHONES[i] = String.format("+79%09d", random.nextInt(1_000_000_000));
+        }
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < DELIVERY_DATES.length; i++) {
+            DELIVERY_DATES[i] = today.plusDays(i + 1).toString();
+        }
+    }
+
+    private final SplittableRandom random;
+    private final String loginSuffix;
+    private long loginSequence;
+
+    public TestDataGenerator(long seed) {
+        this(seed, Long.toString(Math.floorMod(seed, SEED_TAGS), 36));
+    }
+
+    // метка генератора потока начинается с заглавной буквы и не совпадает ни с одной меткой seed
+    private TestDataGenerator(long seed, String tag) {
+        this.random = new SplittableRandom(seed);
+        this.loginSuffix = '_' + RUN_ID + '_' + tag + '_';
+    }
+
+    // Генератор текущего теста, а вне тестов — текущего потока
+    public static TestDataGenerator current() {
+        return perThread.get();
+    }
+
+    // Генератор теста с именем identity (класс и метод): seed зависит только от имени и testdata.seed
+    public static TestDataGenerator forTest(String identity) {
+        int run = testRuns.computeIfAbsent(identity, name -> new AtomicInteger()).getAndIncrement();
+        return new TestDataGenerator(seedFor(run == 0 ? identity : identity + '#' + run));
+    }
+
+    // Вызывается в потоке теста перед его началом и после окончания (см. TestDataListener)
+    public static void startTest(String identity) {
+        perThread.set(forTest(identity));
+    }
+
+    public static void finishTest() {
+        perThread.remove();
+    }
+
+    // String.hashCode определён спецификацией, поэтому seed одинаков в любой JVM
+    private static long seedFor(String identity) {
+        return DEFAULT_SEED * 1_000_003L + identity.hashCode();
+    }
+
+    // Логин, который не повторяется ни в этом прогоне, ни в других
+    public String login() {
+        return pick(LOGIN_WORDS) + loginSuffix + Long.toString(++loginSequence, 36);
+    }
+
+    // Пароль из 6–10 символов
+    public String password() {
+        char[] password = new char[6 + random.nextInt(5)];
+        for (int i = 0; i < password.length; i++) {
+            password[i] = PASSWORD_CHARS[random.nextInt(PASSWORD_CHARS.length)];
+        }
+        return new String(password);
+    }
+
+    public String firstName() {
+        return pick(FIRST_NAMES);
+    }
+
+    public Courier courier() {
+        return new Courier(login(), password(), firstName());
+    }
+
+    // Заказ со случайным вариантом цвета самоката
+    public Order order() {
+        return order(COLORS.get(random.nextInt(COLORS.size())));
+    }
+
+    public Order order(List<String> color) {
+        return new Order(
+                firstName(),
+                pick(LAST_NAMES),
+                pick(ADDRESSES),
+                1 + random.nextInt(19),
+                pick(PHONES),
+                1 + random.nextInt(6),
+                pick(DELIVERY_DATES),
+                pick(COMMENTS),
+                color);
+    }
+
+    // Бесконечный поток заказов этого генератора; как и сам генератор, только для последовательной обработки
+    public Stream<Order> orders() {
+        return Stream.generate(this::order);
+    }
+
+    private String pick(String[] pool) {
+        return pool[random.nextInt(pool.length)];
+    }
+}
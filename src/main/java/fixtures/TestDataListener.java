@@ -0,0 +1,20 @@
+package fixtures;
+
+import org.junit.runner.Description;
+import org.junit.runner.notification.RunListener;
+
+// Выдаёт каждому тесту свой генератор тестовых данных с seed по имени теста (TestDataGenerator.current()).
+// JUnit сообщает о начале теста в том же потоке, в котором тест выполняется.
+// Подключается в maven-surefire-plugin как listener
+public class TestDataListener extends RunListener {
+
+    @Override
+    public void testStarted(Description description) {
+        TestDataGenerator.startTest(description.getClassName() + '.' + description.getMethodName());
+    }
+
+    @Override
+    public void testFinished(Description description) {
+        TestDataGenerator.finishTest();
+    }
+}
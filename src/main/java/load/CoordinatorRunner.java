@@ -0,0 +1,99 @@
+package load;
+
+import api.log.ApiLog;
+import api.log.LogLevel;
+import perf.PerfRecorder;
+import stub.ScooterStandIn;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// Запуск координатора распределённого прогона:
+// mvn -Pload compile exec:java -Dexec.mainClass=load.CoordinatorRunner -Dcoordinator.workers=3 -Dload.rate=3000
+// Параметры нагрузки те же, что у LoadRunner (load.rate — суммарная частота всех исполнителей);
+// coordinator.port (по умолчанию 7700), coordinator.workers, coordinator.registrationTimeout, coordinator.interval (мс).
+// С -Dcoordinator.localWorkers=N координатор сам запускает N исполнителей отдельными JVM на этой машине
+// (с тем же classpath и свойствами api.* и testdata.*) и ждёт их на петлевом интерфейсе;
+// с -Dload.standIn=true нагрузка идёт на встроенную замену сервиса в процессе координатора,
+// с -Dperf.record=true объединённый результат сохраняется в хранилище -Dperf.store (см. PerfGate)
+public class CoordinatorRunner {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        ApiLog.setLevel(LogLevel.valueOf(System.getProperty("api.log.level", "WARN").toUpperCase()));
+        LoadSettings load = LoadRunner.fromSystemProperties();
+        if (Boolean.getBoolean("load.standIn")) {
+            ScooterStandIn standIn = ScooterStandIn.start(0);
+            load = load.toBuilder().baseUri(standIn.getBaseUri()).build();
+            System.out.println("Встроенная замена сервиса: " + standIn.getBaseUri());
+        }
+        int localWorkers = Integer.getInteger("coordinator.localWorkers", 0);
+        CoordinatorSettings defaults = CoordinatorSettings.builder().build();
+        CoordinatorSettings settings = CoordinatorSettings.builder()
+                .port(Integer.getInteger("coordinator.port", localWorkers > 0 ? 0 : defaults.getPort()))
+                .workers(Integer.getInteger("coordinator.workers", localWorkers > 0 ? localWorkers : defaults.getWorkers()))
+                .registrationTimeoutSeconds(Long.getLong("coordinator.registrationTimeout",
+                        defaults.getRegistrationTimeoutSeconds()))
+                .intervalMillis(Long.getLong("coordinator.interval", defaults.getIntervalMillis()))
+                .load(load)
+                .build();
+
+        List<Process> processes = new ArrayList<>();
+        try (LoadCoordinator coordinator = LoadCoordinator.bind(settings)) {
+            System.out.println(String.format("Координатор на порту %d ждёт исполнителей: %d",
+                    coordinator.getPort(), settings.getWorkers()));
+            for (int i = 0; i < localWorkers; i++) {
+                processes.add(startLocalWorker(coordinator.getPort(), "local-" + (i + 1)));
+            }
+            System.out.println(String.format("Нагрузка: %.1f сценариев/с в течение %d с (прогрев %d с)...",
+                    load.getRatePerSecond(), load.getDurationSeconds(), load.getWarmupSeconds()));
+
+            DistributedReport report = coordinator.run(System.out::println);
+            System.out.println(report);
+            PerfRecorder.recordLoad("distributed-load", load, report.getMerged());
+        } finally {
+            for (Process process : processes) {
+                process.destroy();
+            }
+        }
+        System.exit(0);
+    }
+
+    // Исполнитель в отдельной JVM с тем же classpath; свойства клиента и тестовых данных передаются ему как есть
+    private static Process startLocalWorker(int port, String name) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-cp");
+        command.add(classPath());
+        System.getProperties().stringPropertyNames().stream()
+                .filter(key -> key.startsWith("api.") || key.startsWith("testdata."))
+                .forEach(key -> command.add("-D" + key + "=" + System.getProperty(key)));
+        command.add("-Dload.coordinator=127.0.0.1:" + port);
+        command.add("-Dload.worker.name=" + name);
+        command.add("-Dload.worker.weight=1");
+        command.add(WorkerRunner.class.getName());
+        return new ProcessBuilder(command).inheritIO().start();
+    }
+
+    // Под exec:java классы проекта грузит отдельный загрузчик, а java.class.path — это classpath самого Maven
+    private static String classPath() {
+        ClassLoader loader = CoordinatorRunner.class.getClassLoader();
+        if (!(loader instanceof URLClassLoader)) {
+            return System.getProperty("java.class.path");
+        }
+        List<String> entries = new ArrayList<>();
+        for (URL url : ((URLClassLoader) loader).getURLs()) {
+            try {
+                entries.add(Paths.get(url.toURI()).toString());
+            } catch (URISyntaxException e) {
+                throw new IllegalStateException("Не удалось разобрать элемент classpath " + url, e);
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+}
@@ -0,0 +1,22 @@
+package load;
+
+import lombok.Builder;
+import lombok.Getter;
+
+// Параметры координатора распределённого прогона; load — общие параметры нагрузки,
+// частота в них — суммарная для всех исполнителей
+@Getter
+@Builder(toBuilder = true)
+public class CoordinatorSettings {
+    @Builder.Default private final int port = 7700;
+    // сколько исполнителей ждём перед стартом
+    @Builder.Default private final int workers = 2;
+    @Builder.Default private final long registrationTimeoutSeconds = 60;
+    // как часто исполнители присылают гистограммы и координатор печатает ход прогона
+    @Builder.Default private final long intervalMillis = 1000;
+    // запас между рассылкой заданий и общим стартом, чтобы все исполнители успели подготовиться
+    @Builder.Default private final long startDelayMillis = 2000;
+    // исполнитель, от которого столько времени нет сообщений, считается потерянным
+    @Builder.Default private final long silenceTimeoutSeconds = 30;
+    @Builder.Default private final LoadSettings load = LoadSettings.builder().build();
+}
@@ -0,0 +1,119 @@
+package load;
+
+import api.ApiConfig;
+import api.ApiResponse;
+import api.ClientContext;
+import api.CourierAPI;
+import api.OrderAPI;
+import api.concurrent.ScenarioScope;
+import api.concurrent.TaskThreads;
+import api.limit.ConcurrencyLimits;
+import api.metrics.MetricsRegistry;
+import api.resilience.ResiliencePolicy;
+import fixtures.TestDataGenerator;
+import service.Courier;
+import service.OkResult;
+import service.Order;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.apache.http.HttpStatus.SC_CREATED;
+
+// Моделирование множества одновременных курьеров на блокирующих CourierAPI и OrderAPI:
+// каждый курьер проходит свой сценарий в отдельном потоке (виртуальном при -Dapi.threads=virtual).
+// Сценарий курьера — структурная группа из двух веток: «создать курьера → войти → удалить»
+// и «создать заказ → отменить». Сбой одной ветки отменяет другую, а сценарии, не успевшие
+// к сроку, отменяются все сразу
+public class CourierSimulation {
+    private final SimulationSettings settings;
+    private final MetricsRegistry metrics = new MetricsRegistry();
+
+    public CourierSimulation(SimulationSettings settings) {
+        this.settings = settings;
+    }
+
+    public SimulationReport run() throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicReference<String> firstError = new AtomicReference<>();
+        long start = System.nanoTime();
+        try (ClientContext context = new ClientContext(ApiConfig.fromSystemProperties().toBuilder()
+                .baseUri(settings.getBaseUri())
+                .build(), metrics, ResiliencePolicy.of(settings.isResilience()),
+                ConcurrencyLimits.of(settings.isAdaptiveLimit()))) {
+            CourierAPI courierAPI = new CourierAPI(context);
+            OrderAPI orderAPI = new OrderAPI(context);
+            // сбой одного курьера не отменяет остальных
+            try (ScenarioScope couriers = new ScenarioScope("courier", false)) {
+                for (int i = 0; i < settings.getCouriers(); i++) {
+                    TestDataGenerator data = new TestDataGenerator(settings.getSeed() + i);
+                    couriers.fork(() -> {
+                        try {
+                            scenario(courierAPI, orderAPI, data.courier(), data.order());
+                            completed.incrementAndGet();
+                        } catch (Exception e) {
+                            // сценарий, прерванный отменой по сроку, считается отменённым, а не упавшим
+                            if (!couriers.isCancelled()) {
+                                failed.incrementAndGet();
+                                firstError.compareAndSet(null, e.toString());
+                            }
+                            throw e;
+                        }
+                        return null;
+                    });
+                }
+                try {
+                    couriers.join(settings.getTimeoutSeconds(), TimeUnit.SECONDS);
+                } catch (TimeoutException e) {
+                    // незавершённые сценарии уже отменены и попадут в отчёт как отменённые
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int cancelled = settings.getCouriers() - completed.get() - failed.get();
+        return new SimulationReport(settings.getCouriers(), completed.get(), failed.get(), cancelled, seconds,
+                TaskThreads.isVirtual(), threads.getPeakThreadCount(), firstError.get(), metrics.snapshot());
+    }
+
+    private static void scenario(CourierAPI courierAPI, OrderAPI orderAPI, Courier courier, Order order)
+            throws InterruptedException {
+        try (ScenarioScope scenario = new ScenarioScope("courier-scenario")) {
+            scenario.fork(() -> {
+                courierFlow(courierAPI, courier);
+                return null;
+            });
+            scenario.fork(() -> {
+                orderFlow(orderAPI, order);
+                return null;
+            });
+            scenario.join();
+        }
+    }
+
+    private static void courierFlow(CourierAPI courierAPI, Courier courier) {
+        ApiResponse<OkResult> created = courierAPI.postForCourierCreating(courier);
+        if (created.getStatusCode() != SC_CREATED) {
+            throw new IllegalStateException("Курьер не создан, статус-код " + created.getStatusCode());
+        }
+        int courierId = courierAPI.getCourierId(courierAPI.postForLogin(courier));
+        if (courierId == 0) {
+            throw new IllegalStateException("Курьер " + courier.getLogin() + " не вошёл в систему");
+        }
+        courierAPI.deleteCourier(courier, courierId);
+    }
+
+    private static void orderFlow(OrderAPI orderAPI, Order order) {
+        int track = orderAPI.getOrderTrack(orderAPI.makeAnOrder(order));
+        if (track == 0) {
+            throw new IllegalStateException("Заказ не создан");
+        }
+        orderAPI.cancelOrder(track);
+    }
+}
@@ -0,0 +1,28 @@
+package load;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Отчёт распределённого прогона: объединённые гистограммы и счётчики всех исполнителей
+// и вклад каждого из них. Лимиты параллельности в объединённом отчёте — суммы по исполнителям
+@Getter
+@AllArgsConstructor
+public class DistributedReport {
+    private final LoadReport merged;
+    private final List<WorkerSummary> workers;
+
+    public boolean isComplete() {
+        return workers.stream().allMatch(WorkerSummary::isCompleted);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder("Исполнители:").append(System.lineSeparator());
+        for (WorkerSummary worker : workers) {
+            report.append("  ").append(worker).append(System.lineSeparator());
+        }
+        return report.append(merged).toString();
+    }
+}
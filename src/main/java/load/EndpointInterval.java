@@ -0,0 +1,15 @@
+package load;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+
+// Приращение статистики одной ручки за интервал: задержки в микросекундах и счётчики исходов.
+// Интервалы разных исполнителей и разных моментов складываются без потерь точности
+@Getter
+@AllArgsConstructor
+public class EndpointInterval {
+    private final Histogram histogram;
+    private final long successes;
+    private final long errors;
+}
@@ -0,0 +1,34 @@
+package load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Статистика одной ручки за прогон: гистограмма задержек в микросекундах и счётчики исходов
+public class EndpointStats {
+    // до часа с точностью три значащие цифры
+    static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    void record(long latencyNanos, boolean success) {
+        histogram.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        (success ? successes : errors).increment();
+    }
+
+    public Histogram getHistogram() {
+        return histogram;
+    }
+
+    public long getSuccessCount() {
+        return successes.sum();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+}
@@ -0,0 +1,24 @@
+package load;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import service.Endpoint;
+
+// Итоговые показатели одной ручки за прогон; задержки в миллисекундах
+@Getter
+@AllArgsConstructor
+public class EndpointSummary {
+    private final Endpoint endpoint;
+    private final long count;
+    private final long errors;
+    // повторы, хеджирующие запросы, хеджирующие запросы, ответившие раньше основного, и отказы выключателя
+    private final long retries;
+    private final long hedges;
+    private final long hedgeWins;
+    private final long rejected;
+    private final double throughput;
+    private final double p50Millis;
+    private final double p99Millis;
+    private final double p999Millis;
+    private final double maxMillis;
+}
@@ -0,0 +1,281 @@
+package load;
+
+import api.limit.EndpointGroup;
+import api.limit.LimitSnapshot;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+import service.Endpoint;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+
+// Соединение координатора с исполнителем распределённого прогона поверх TCP.
+// Каждое сообщение — байт типа и поля в DataOutput. Гистограммы передаются в сжатой кодировке
+// HdrHistogram: интервал с несколькими тысячами запросов занимает сотни байт, а координатор
+// складывает полученные гистограммы без потери точности перцентилей.
+// Порядок обмена: HELLO от исполнителя, JOB от координатора, затем INTERVAL от исполнителя
+// раз в интервал и в конце DONE или FAILED
+public class LoadChannel implements Closeable {
+    static final int HELLO = 1;
+    static final int JOB = 2;
+    static final int INTERVAL = 3;
+    static final int DONE = 4;
+    static final int FAILED = 5;
+
+    // "SCLD" и версия протокола: исполнитель другой сборки получит понятную ошибку, а не мусор
+    private static final int MAGIC = 0x53434C44;
+    private static final int VERSION = 2;
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    // буфер кодирования гистограмм переиспользуется между интервалами
+    private ByteBuffer encoded = ByteBuffer.allocate(0);
+
+    public LoadChannel(Socket socket) throws IOException {
+        this.socket = socket;
+        socket.setTcpNoDelay(true);
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    public static LoadChannel connect(String host, int port, int timeoutMillis) throws IOException {
+        Socket socket = new Socket();
+        socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+        return new LoadChannel(socket);
+    }
+
+    // Сколько ждать следующего сообщения; 0 — без ограничения
+    public void setReadTimeout(int millis) throws IOException {
+        socket.setSoTimeout(millis);
+    }
+
+    public String getRemoteAddress() {
+        return String.valueOf(socket.getRemoteSocketAddress());
+    }
+
+    // Тип следующего сообщения
+    public int readType() throws IOException {
+        return in.readUnsignedByte();
+    }
+
+    public synchronized void sendHello(String name, double weight) throws IOException {
+        out.writeByte(HELLO);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(name);
+        out.writeDouble(weight);
+        out.flush();
+    }
+
+    public Hello readHello() throws IOException {
+        expect(HELLO);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Подключился не исполнитель нагрузки: " + getRemoteAddress());
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException(String.format("Исполнитель %s говорит на версии протокола %d, координатор — на %d",
+                    getRemoteAddress(), version, VERSION));
+        }
+        return new Hello(in.readUTF(), in.readDouble());
+    }
+
+    public synchronized void sendJob(WorkerJob job) throws IOException {
+        LoadSettings settings = job.getSettings();
+        out.writeByte(JOB);
+        out.writeInt(job.getIndex());
+        out.writeInt(job.getWorkers());
+        out.writeLong(job.getStartAtEpochMillis());
+        out.writeLong(job.getIntervalMillis());
+        out.writeUTF(settings.getBaseUri());
+        out.writeDouble(settings.getRatePerSecond());
+        out.writeLong(settings.getDurationSeconds());
+        out.writeLong(settings.getWarmupSeconds());
+        out.writeBoolean(settings.isPoisson());
+        out.writeUTF(settings.getMix().toString());
+        out.writeInt(settings.getMaxInFlight());
+        out.writeLong(settings.getDrainTimeoutSeconds());
+        out.writeLong(settings.getSeed());
+        out.writeBoolean(settings.isResilience());
+        out.writeBoolean(settings.isAdaptiveLimit());
+        out.flush();
+    }
+
+    public WorkerJob readJob() throws IOException {
+        expect(JOB);
+        return WorkerJob.builder()
+                .index(in.readInt())
+                .workers(in.readInt())
+                .startAtEpochMillis(in.readLong())
+                .intervalMillis(in.readLong())
+                .settings(LoadSettings.builder()
+                        .baseUri(in.readUTF())
+                        .ratePerSecond(in.readDouble())
+                        .durationSeconds(in.readLong())
+                        .warmupSeconds(in.readLong())
+                        .poisson(in.readBoolean())
+                        .mix(LoadMix.parse(in.readUTF()))
+                        .maxInFlight(in.readInt())
+                        .drainTimeoutSeconds(in.readLong())
+                        .seed(in.readLong())
+                        .resilience(in.readBoolean())
+                        .adaptiveLimit(in.readBoolean())
+                        .build())
+                .build();
+    }
+
+    public synchronized void sendInterval(Map<Endpoint, EndpointInterval> interval) throws IOException {
+        out.writeByte(INTERVAL);
+        writeInterval(interval);
+        out.flush();
+    }
+
+    public synchronized void sendDone(Map<Endpoint, EndpointInterval> lastInterval, LoadReport report) throws IOException {
+        out.writeByte(DONE);
+        writeInterval(lastInterval);
+        out.writeDouble(report.getMeasuredSeconds());
+        out.writeShort(report.getSummaries().size());
+        for (EndpointSummary summary : report.getSummaries()) {
+            out.writeUTF(summary.getEndpoint().name());
+            out.writeLong(summary.getCount());
+            out.writeLong(summary.getErrors());
+            out.writeLong(summary.getRetries());
+            out.writeLong(summary.getHedges());
+            out.writeLong(summary.getHedgeWins());
+            out.writeLong(summary.getRejected());
+            out.writeDouble(summary.getThroughput());
+            out.writeDouble(summary.getP50Millis());
+            out.writeDouble(summary.getP99Millis());
+            out.writeDouble(summary.getP999Millis());
+            out.writeDouble(summary.getMaxMillis());
+        }
+        out.writeShort(report.getLimits().size());
+        for (LimitSnapshot limit : report.getLimits()) {
+            out.writeUTF(limit.getGroup().name());
+            out.writeInt(limit.getLimit());
+            out.writeInt(limit.getInFlight());
+            out.writeInt(limit.getPeakLimit());
+            out.writeLong(limit.getRejected());
+        }
+        out.flush();
+    }
+
+    // Вызывается после readType() == DONE
+    public WorkerResult readResult() throws IOException {
+        Map<Endpoint, EndpointInterval> lastInterval = readInterval();
+        double measuredSeconds = in.readDouble();
+        int summaryCount = in.readUnsignedShort();
+        List<EndpointSummary> summaries = new ArrayList<>(summaryCount);
+        for (int i = 0; i < summaryCount; i++) {
+            summaries.add(new EndpointSummary(Endpoint.valueOf(in.readUTF()),
+                    in.readLong(), in.readLong(), in.readLong(), in.readLong(), in.readLong(), in.readLong(),
+                    in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble()));
+        }
+        int limitCount = in.readUnsignedShort();
+        List<LimitSnapshot> limits = new ArrayList<>(limitCount);
+        for (int i = 0; i < limitCount; i++) {
+            limits.add(new LimitSnapshot(EndpointGroup.valueOf(in.readUTF()),
+                    in.readInt(), in.readInt(), in.readInt(), in.readLong()));
+        }
+        return new WorkerResult(lastInterval, measuredSeconds, summaries, limits);
+    }
+
+    public synchronized void sendFailure(String message) throws IOException {
+        out.writeByte(FAILED);
+        out.writeUTF(message == null ? "" : message);
+        out.flush();
+    }
+
+    // Вызывается после readType() == FAILED
+    public String readFailure() throws IOException {
+        return in.readUTF();
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    // ручки без запросов за интервал не передаются
+    private void writeInterval(Map<Endpoint, EndpointInterval> interval) throws IOException {
+        int nonEmpty = 0;
+        for (EndpointInterval endpoint : interval.values()) {
+            if (!isEmpty(endpoint)) {
+                nonEmpty++;
+            }
+        }
+        out.writeShort(nonEmpty);
+        for (Map.Entry<Endpoint, EndpointInterval> entry : interval.entrySet()) {
+            EndpointInterval endpoint = entry.getValue();
+            if (isEmpty(endpoint)) {
+                continue;
+            }
+            out.writeUTF(entry.getKey().name());
+            out.writeLong(endpoint.getSuccesses());
+            out.writeLong(endpoint.getErrors());
+            Histogram histogram = endpoint.getHistogram();
+            int capacity = histogram.getNeededByteBufferCapacity();
+            if (encoded.capacity() < capacity) {
+                encoded = ByteBuffer.allocate(capacity);
+            }
+            encoded.clear();
+            int length = histogram.encodeIntoCompressedByteBuffer(encoded);
+            out.writeInt(length);
+            out.write(encoded.array(), 0, length);
+        }
+    }
+
+    // Вызывается после readType() == INTERVAL; DONE начинается с такого же интервала
+    public Map<Endpoint, EndpointInterval> readInterval() throws IOException {
+        int count = in.readUnsignedShort();
+        Map<Endpoint, EndpointInterval> interval = new EnumMap<>(Endpoint.class);
+        for (int i = 0; i < count; i++) {
+            Endpoint endpoint = Endpoint.valueOf(in.readUTF());
+            long successes = in.readLong();
+            long errors = in.readLong();
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            try {
+                Histogram histogram = Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes),
+                        EndpointStats.HIGHEST_TRACKABLE_MICROS);
+                interval.put(endpoint, new EndpointInterval(histogram, successes, errors));
+            } catch (DataFormatException e) {
+                throw new IOException("Повреждённая гистограмма ручки " + endpoint, e);
+            }
+        }
+        return interval;
+    }
+
+    private static boolean isEmpty(EndpointInterval interval) {
+        return interval.getHistogram().getTotalCount() == 0 && interval.getSuccesses() == 0 && interval.getErrors() == 0;
+    }
+
+    private void expect(int type) throws IOException {
+        int actual = readType();
+        if (actual != type) {
+            throw new IOException(String.format("Ожидалось сообщение %d, пришло %d от %s", type, actual, getRemoteAddress()));
+        }
+    }
+
+    // Приветствие исполнителя: имя для отчёта и вес, пропорционально которому ему достаётся частота
+    @Getter
+    @AllArgsConstructor
+    public static class Hello {
+        private final String name;
+        private final double weight;
+    }
+}
@@ -0,0 +1,254 @@
+package load;
+
+import api.limit.EndpointGroup;
+import api.limit.LimitSnapshot;
+import org.HdrHistogram.Histogram;
+import service.Endpoint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Координатор распределённого прогона: ждёт исполнителей, делит суммарную частоту между ними
+// пропорционально весам, назначает общий момент старта и сводит присланные интервалы
+// в один отчёт. Гистограммы складываются, поэтому перцентили объединённого отчёта точные,
+// а не усреднённые по исполнителям. Сбой или потеря одного исполнителя не останавливает остальных:
+// в отчёт попадает всё, что он успел прислать, а в списке исполнителей — причина
+public class LoadCoordinator implements Closeable {
+    private final CoordinatorSettings settings;
+    private final ServerSocket server;
+
+    // объединённая статистика замера; изменяется потоками чтения исполнителей под lock
+    private final Object lock = new Object();
+    private final Map<Endpoint, Histogram> histograms = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, long[]> errors = new EnumMap<>(Endpoint.class);
+    // все ручки за последний интервал хода прогона
+    private final Histogram window = new Histogram(EndpointStats.HIGHEST_TRACKABLE_MICROS, 3);
+    private long windowErrors;
+
+    private LoadCoordinator(CoordinatorSettings settings, ServerSocket server) {
+        this.settings = settings;
+        this.server = server;
+        for (Endpoint endpoint : Endpoint.values()) {
+            histograms.put(endpoint, new Histogram(EndpointStats.HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(endpoint, new long[1]);
+        }
+    }
+
+    // Открывает порт settings.port (0 — любой свободный) и ждёт исполнителей в run()
+    public static LoadCoordinator bind(CoordinatorSettings settings) throws IOException {
+        return new LoadCoordinator(settings, new ServerSocket(settings.getPort()));
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public DistributedReport run() throws IOException, InterruptedException {
+        return run(line -> {
+        });
+    }
+
+    // progress получает строку хода прогона раз в интервал
+    public DistributedReport run(Consumer<String> progress) throws IOException, InterruptedException {
+        List<Worker> workers = register();
+        long startAt = assignJobs(workers);
+
+        ScheduledExecutorService printer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "load-coordinator-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        printer.scheduleAtFixedRate(() -> progress.accept(progressLine(startAt)),
+                settings.getIntervalMillis(), settings.getIntervalMillis(), TimeUnit.MILLISECONDS);
+        try {
+            List<Thread> readers = new ArrayList<>();
+            for (Worker worker : workers) {
+                Thread reader = new Thread(() -> collect(worker), "load-coordinator-" + worker.name);
+                reader.setDaemon(true);
+                reader.start();
+                readers.add(reader);
+            }
+            for (Thread reader : readers) {
+                reader.join();
+            }
+        } finally {
+            printer.shutdownNow();
+        }
+        return report(workers);
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+
+    private List<Worker> register() throws IOException {
+        List<Worker> workers = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(settings.getRegistrationTimeoutSeconds());
+        try {
+            while (workers.size() < settings.getWorkers()) {
+                server.setSoTimeout((int) Math.max(1, deadline - System.currentTimeMillis()));
+                Socket socket = server.accept();
+                LoadChannel channel = new LoadChannel(socket);
+                try {
+                    channel.setReadTimeout((int) TimeUnit.SECONDS.toMillis(settings.getSilenceTimeoutSeconds()));
+                    workers.add(new Worker(channel, channel.readHello()));
+                } catch (IOException e) {
+                    // чужое или несовместимое подключение не мешает дождаться остальных исполнителей
+                    channel.close();
+                }
+            }
+        } catch (SocketTimeoutException e) {
+            for (Worker worker : workers) {
+                worker.channel.close();
+            }
+            throw new IllegalStateException(String.format("За %d с подключилось %d исполнителей из %d",
+                    settings.getRegistrationTimeoutSeconds(), workers.size(), settings.getWorkers()));
+        }
+        return workers;
+    }
+
+    // Делит частоту пропорционально весам; каждому исполнителю — свой seed тестовых данных
+    private long assignJobs(List<Worker> workers) throws IOException {
+        LoadSettings load = settings.getLoad();
+        double totalWeight = workers.stream().mapToDouble(worker -> worker.weight).sum();
+        long startAt = System.currentTimeMillis() + settings.getStartDelayMillis();
+        for (int i = 0; i < workers.size(); i++) {
+            Worker worker = workers.get(i);
+            worker.rate = load.getRatePerSecond() * worker.weight / totalWeight;
+            worker.channel.sendJob(WorkerJob.builder()
+                    .index(i)
+                    .workers(workers.size())
+                    .startAtEpochMillis(startAt)
+                    .intervalMillis(settings.getIntervalMillis())
+                    .settings(load.toBuilder()
+                            .ratePerSecond(worker.rate)
+                            .seed(load.getSeed() + i)
+                            .build())
+                    .build());
+        }
+        return startAt;
+    }
+
+    // Читает сообщения исполнителя до итога, сбоя или потери связи
+    private void collect(Worker worker) {
+        try (LoadChannel channel = worker.channel) {
+            while (true) {
+                int type = channel.readType();
+                if (type == LoadChannel.INTERVAL) {
+                    merge(worker, channel.readInterval());
+                } else if (type == LoadChannel.DONE) {
+                    WorkerResult result = channel.readResult();
+                    merge(worker, result.getLastInterval());
+                    worker.result = result;
+                    worker.outcome = "завершён";
+                    return;
+                } else if (type == LoadChannel.FAILED) {
+                    worker.outcome = "сбой: " + channel.readFailure();
+                    return;
+                } else {
+                    worker.outcome = "неизвестное сообщение " + type;
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            worker.outcome = "связь потеряна: " + e;
+        }
+    }
+
+    private void merge(Worker worker, Map<Endpoint, EndpointInterval> interval) {
+        synchronized (lock) {
+            interval.forEach((endpoint, delta) -> {
+                histograms.get(endpoint).add(delta.getHistogram());
+                errors.get(endpoint)[0] += delta.getErrors();
+                window.add(delta.getHistogram());
+                windowErrors += delta.getErrors();
+                worker.requests += delta.getHistogram().getTotalCount();
+                worker.errors += delta.getErrors();
+            });
+        }
+    }
+
+    private String progressLine(long startAt) {
+        synchronized (lock) {
+            double seconds = settings.getIntervalMillis() / 1000.0;
+            String line = String.format("%6.1f с: %9.1f запросов/с, ошибок %d, p50 %.2f мс, p99 %.2f мс",
+                    (System.currentTimeMillis() - startAt) / 1000.0, window.getTotalCount() / seconds, windowErrors,
+                    window.getValueAtPercentile(50) / 1000.0, window.getValueAtPercentile(99) / 1000.0);
+            window.reset();
+            windowErrors = 0;
+            return line;
+        }
+    }
+
+    private DistributedReport report(List<Worker> workers) {
+        double measuredSeconds = settings.getLoad().getDurationSeconds();
+        Map<Endpoint, long[]> policy = new EnumMap<>(Endpoint.class);
+        Map<EndpointGroup, long[]> limits = new EnumMap<>(EndpointGroup.class);
+        List<WorkerSummary> summaries = new ArrayList<>();
+        for (Worker worker : workers) {
+            WorkerResult result = worker.result;
+            if (result != null) {
+                measuredSeconds = Math.max(measuredSeconds, result.getMeasuredSeconds());
+                for (EndpointSummary summary : result.getSummaries()) {
+                    long[] counters = policy.computeIfAbsent(summary.getEndpoint(), endpoint -> new long[4]);
+                    counters[0] += summary.getRetries();
+                    counters[1] += summary.getHedges();
+                    counters[2] += summary.getHedgeWins();
+                    counters[3] += summary.getRejected();
+                }
+                for (LimitSnapshot limit : result.getLimits()) {
+                    long[] sums = limits.computeIfAbsent(limit.getGroup(), group -> new long[4]);
+                    sums[0] += limit.getLimit();
+                    sums[1] += limit.getInFlight();
+                    sums[2] += limit.getPeakLimit();
+                    sums[3] += limit.getRejected();
+                }
+            }
+            summaries.add(new WorkerSummary(worker.name, worker.channel.getRemoteAddress(), worker.weight,
+                    worker.rate, worker.requests, worker.errors, result != null, worker.outcome));
+        }
+
+        List<EndpointSummary> endpoints = new ArrayList<>();
+        synchronized (lock) {
+            for (Map.Entry<Endpoint, Histogram> entry : histograms.entrySet()) {
+                long[] counters = policy.getOrDefault(entry.getKey(), new long[4]);
+                endpoints.add(LoadReport.summarize(entry.getKey(), entry.getValue(), errors.get(entry.getKey())[0],
+                        measuredSeconds, counters[0], counters[1], counters[2], counters[3]));
+            }
+        }
+        List<LimitSnapshot> mergedLimits = new ArrayList<>();
+        limits.forEach((group, sums) -> mergedLimits.add(
+                new LimitSnapshot(group, (int) sums[0], (int) sums[1], (int) sums[2], sums[3])));
+        return new DistributedReport(new LoadReport(measuredSeconds, histograms, endpoints, mergedLimits), summaries);
+    }
+
+    // Подключённый исполнитель; поля итога пишет только его поток чтения, а читает run() после join()
+    private static class Worker {
+        private final LoadChannel channel;
+        private final String name;
+        private final double weight;
+        private double rate;
+        private long requests;
+        private long errors;
+        private WorkerResult result;
+        private String outcome = "нет итога";
+
+        Worker(LoadChannel channel, LoadChannel.Hello hello) {
+            this.channel = channel;
+            this.name = hello.getName();
+            this.weight = hello.getWeight();
+        }
+    }
+}
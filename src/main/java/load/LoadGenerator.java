@@ -0,0 +1,183 @@
+package load;
+
+import api.ApiConfig;
+import api.ApiResponse;
+import api.AsyncClient;
+import api.AsyncCourierAPI;
+import api.AsyncOrderAPI;
+import api.limit.ConcurrencyLimits;
+import api.metrics.MetricsRegistry;
+import api.metrics.MetricsSnapshot;
+import api.resilience.ResilienceExecutor;
+import api.resilience.ResiliencePolicy;
+import api.transport.ExchangeTransport;
+import fixtures.TestDataGenerator;
+import service.Courier;
+import service.Endpoint;
+import service.LoginResult;
+import service.Order;
+import service.OrderListQuery;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import static org.apache.http.HttpStatus.SC_CREATED;
+import static org.apache.http.HttpStatus.SC_OK;
+
+// Генератор нагрузки с открытым циклом: сценарии запускаются по расписанию прибытия
+// независимо от того, успели ли завершиться предыдущие. Задержка первого шага сценария
+// отсчитывается от запланированного момента прибытия, а не от фактической отправки,
+// поэтому очередь на стороне клиента попадает в гистограмму (поправка на coordinated omission)
+public class LoadGenerator {
+    private static final OrderListQuery LIST_QUERY = OrderListQuery.builder().limit(10).build();
+
+    private final LoadSettings settings;
+    private final AsyncCourierAPI courierAPI;
+    private final AsyncOrderAPI orderAPI;
+    // метрики клиента: из них в отчёт попадают повторы, хеджирующие запросы и отказы выключателя
+    private final MetricsRegistry metrics;
+    private final ConcurrencyLimits limits;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    // данные сценариев готовятся в потоке расписания, поэтому генератору хватает одного экземпляра
+    private final TestDataGenerator data;
+    private final Iterator<Order> orders;
+    private final LongAdder completed = new LongAdder();
+
+    public LoadGenerator(LoadSettings settings) {
+        // запись и воспроизведение журнала задаются процессу свойством api.transport
+        this(settings, new AsyncClient(ApiConfig.builder()
+                .baseUri(settings.getBaseUri())
+                .connectTimeoutMillis(10_000)
+                .transport(ExchangeTransport.getDefault())
+                .build(), settings.getMaxInFlight(), MetricsRegistry.getDefault(),
+                new ResilienceExecutor(ResiliencePolicy.of(settings.isResilience()), MetricsRegistry.getDefault()),
+                ConcurrencyLimits.of(settings.isAdaptiveLimit())));
+    }
+
+    public LoadGenerator(LoadSettings settings, AsyncClient client) {
+        this.settings = settings;
+        this.courierAPI = new AsyncCourierAPI(client);
+        this.orderAPI = new AsyncOrderAPI(client);
+        this.metrics = client.getMetrics();
+        this.limits = client.getLimits();
+        this.data = new TestDataGenerator(settings.getSeed());
+        this.orders = data.orders().iterator();
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+
+    // Статистика замера по ручкам; читается во время прогона, например исполнителем распределённой нагрузки
+    public Map<Endpoint, EndpointStats> getStats() {
+        return Collections.unmodifiableMap(stats);
+    }
+
+    public LoadReport run() {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / settings.getRatePerSecond());
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(settings.getWarmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(settings.getDurationSeconds());
+
+        long launched = 0;
+        long intended = start;
+        MetricsSnapshot before = null;
+        while (intended < end) {
+            long delay = intended - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            if (before == null && intended >= measureFrom) {
+                before = metrics.snapshot();
+            }
+            launch(settings.getMix().pick(launched), intended, intended >= measureFrom);
+            launched++;
+            intended += settings.isPoisson()
+                    ? (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * intervalNanos)
+                    : intervalNanos;
+        }
+
+        // дожидаемся запущенных сценариев
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(settings.getDrainTimeoutSeconds());
+        while (completed.sum() < launched && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        return new LoadReport(stats, settings.getDurationSeconds(),
+                before != null ? before : metrics.snapshot(), metrics.snapshot(), limits.snapshot());
+    }
+
+    private void launch(LoadScenario scenario, long intended, boolean measured) {
+        CompletableFuture<?> flow;
+        try {
+            switch (scenario) {
+                case COURIER_FLOW:
+                    flow = courierFlow(intended, measured);
+                    break;
+                case ORDER_FLOW:
+                    flow = orderFlow(intended, measured);
+                    break;
+                default:
+                    flow = step(Endpoint.ORDER_LIST, intended, measured, SC_OK,
+                            () -> orderAPI.getOrderList(LIST_QUERY, 0));
+            }
+        } catch (RuntimeException e) {
+            flow = CompletableFuture.failedFuture(e);
+        }
+        flow.whenComplete((result, error) -> completed.increment());
+    }
+
+    // создание курьера -> логин -> удаление
+    private CompletableFuture<?> courierFlow(long intended, boolean measured) {
+        Courier courier = data.courier();
+        return step(Endpoint.COURIER_CREATE, intended, measured, SC_CREATED,
+                () -> courierAPI.postForCourierCreating(courier))
+                .thenCompose(created -> created.getStatusCode() != SC_CREATED ? done()
+                        : step(Endpoint.COURIER_LOGIN, System.nanoTime(), measured, SC_OK,
+                                () -> courierAPI.postForLogin(courier)))
+                .thenCompose(login -> {
+                    LoginResult result = login == null ? null : login.get();
+                    return result == null || result.getId() == null ? done()
+                            : step(Endpoint.COURIER_DELETE, System.nanoTime(), measured, SC_OK,
+                                    () -> courierAPI.deleteCourier(courier, result.getId()));
+                });
+    }
+
+    // создание заказа -> информация о заказе -> отмена
+    private CompletableFuture<?> orderFlow(long intended, boolean measured) {
+        Order order = orders.next();
+        return step(Endpoint.ORDER_CREATE, intended, measured, SC_CREATED, () -> orderAPI.makeAnOrder(order))
+                .thenCompose(created -> {
+                    Integer track = created.get() == null ? null : created.get().getTrack();
+                    if (track == null) {
+                        return done();
+                    }
+                    return step(Endpoint.ORDER_INFO, System.nanoTime(), measured, SC_OK,
+                            () -> orderAPI.getOrderInfo(track))
+                            .thenCompose(info -> step(Endpoint.ORDER_CANCEL, System.nanoTime(), measured, SC_OK,
+                                    () -> orderAPI.cancelOrder(track)));
+                });
+    }
+
+    // Выполняет запрос и записывает задержку от startNanos до получения ответа
+    private <T> CompletableFuture<ApiResponse<T>> step(Endpoint endpoint, long startNanos, boolean measured,
+                                                       int expectedStatusCode,
+                                                       Supplier<CompletableFuture<ApiResponse<T>>> call) {
+        return call.get().whenComplete((response, error) -> {
+            if (measured) {
+                boolean success = response != null && response.getStatusCode() == expectedStatusCode;
+                stats.get(endpoint).record(System.nanoTime() - startNanos, success);
+            }
+        });
+    }
+
+    private static <T> CompletableFuture<ApiResponse<T>> done() {
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,62 @@
+package load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Доли сценариев в нагрузке. Выбор сценария детерминированный: взвешенный round-robin
+// по номеру прибытия, поэтому пропорции точно соблюдаются даже на коротких прогонах
+public class LoadMix {
+    private final LoadScenario[] schedule;
+    private final Map<LoadScenario, Integer> weights;
+
+    private LoadMix(LoadScenario[] schedule, Map<LoadScenario, Integer> weights) {
+        this.schedule = schedule;
+        this.weights = weights;
+    }
+
+    public static LoadMix of(Map<LoadScenario, Integer> weights) {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("Сумма весов сценариев должна быть положительной");
+        }
+        // раскладываем сценарии по слотам равномерно, а не блоками
+        LoadScenario[] schedule = new LoadScenario[total];
+        Map<LoadScenario, Double> credit = new EnumMap<>(LoadScenario.class);
+        for (int slot = 0; slot < total; slot++) {
+            LoadScenario best = null;
+            for (Map.Entry<LoadScenario, Integer> weight : weights.entrySet()) {
+                double value = credit.merge(weight.getKey(), (double) weight.getValue() / total, Double::sum);
+                if (best == null || value > credit.get(best)) {
+                    best = weight.getKey();
+                }
+            }
+            credit.merge(best, -1.0, Double::sum);
+            schedule[slot] = best;
+        }
+        return new LoadMix(schedule, new EnumMap<>(weights));
+    }
+
+    // Разбор строки вида "courier_flow:1,order_flow:3,order_list:1"
+    public static LoadMix parse(String mix) {
+        Map<LoadScenario, Integer> weights = new EnumMap<>(LoadScenario.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            weights.put(LoadScenario.valueOf(pair[0].trim().toUpperCase()),
+                    pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1);
+        }
+        return of(weights);
+    }
+
+    public LoadScenario pick(long arrival) {
+        return schedule[(int) (arrival % schedule.length)];
+    }
+
+    // Строка в формате parse(): так смесь передаётся исполнителям распределённого прогона
+    @Override
+    public String toString() {
+        return weights.entrySet().stream()
+                .map(weight -> weight.getKey().name().toLowerCase() + ':' + weight.getValue())
+                .collect(Collectors.joining(","));
+    }
+}
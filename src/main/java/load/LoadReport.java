@@ -0,0 +1,99 @@
+package load;
+
+import api.limit.LimitSnapshot;
+import api.metrics.EndpointSnapshot;
+import api.metrics.MetricsSnapshot;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+import service.Endpoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+// Отчёт прогона: задержки по каждой ручке (с поправкой на coordinated omission), пропускная способность
+// и работа политики устойчивости клиента за время замера, а также подобранные лимиты параллельности
+@Getter
+public class LoadReport {
+    private final double measuredSeconds;
+    private final Map<Endpoint, Histogram> histograms;
+    private final List<EndpointSummary> summaries;
+    // лимиты одновременных запросов по группам ручек на конец прогона
+    private final List<LimitSnapshot> limits;
+
+    // before и after — снимки метрик клиента в начале и в конце замера
+    public LoadReport(Map<Endpoint, EndpointStats> stats, double measuredSeconds,
+                      MetricsSnapshot before, MetricsSnapshot after, List<LimitSnapshot> limits) {
+        this.measuredSeconds = measuredSeconds;
+        this.limits = Collections.unmodifiableList(limits);
+        Map<Endpoint, Histogram> histograms = new EnumMap<>(Endpoint.class);
+        List<EndpointSummary> summaries = new ArrayList<>();
+        stats.forEach((endpoint, endpointStats) -> {
+            Histogram histogram = endpointStats.getHistogram().copy();
+            histograms.put(endpoint, histogram);
+            summaries.add(summarize(endpoint, histogram, endpointStats.getErrorCount(), measuredSeconds,
+                    before.get(endpoint), after.get(endpoint)));
+        });
+        this.histograms = Collections.unmodifiableMap(histograms);
+        this.summaries = Collections.unmodifiableList(summaries);
+    }
+
+    // Отчёт из уже сведённых данных, например объединённый отчёт нескольких исполнителей
+    public LoadReport(double measuredSeconds, Map<Endpoint, Histogram> histograms,
+                      List<EndpointSummary> summaries, List<LimitSnapshot> limits) {
+        this.measuredSeconds = measuredSeconds;
+        Map<Endpoint, Histogram> copy = new EnumMap<>(Endpoint.class);
+        copy.putAll(histograms);
+        this.histograms = Collections.unmodifiableMap(copy);
+        this.summaries = Collections.unmodifiableList(new ArrayList<>(summaries));
+        this.limits = Collections.unmodifiableList(new ArrayList<>(limits));
+    }
+
+    // Сводка по гистограмме в микросекундах; счётчики политики устойчивости — разница снимков метрик
+    public static EndpointSummary summarize(Endpoint endpoint, Histogram histogram, long errors, double seconds,
+                                            EndpointSnapshot before, EndpointSnapshot after) {
+        return summarize(endpoint, histogram, errors, seconds,
+                delta(before, after, EndpointSnapshot::getRetries),
+                delta(before, after, EndpointSnapshot::getHedges),
+                delta(before, after, EndpointSnapshot::getHedgeWins),
+                delta(before, after, EndpointSnapshot::getRejected));
+    }
+
+    // Сводка по гистограмме в микросекундах и готовым счётчикам политики устойчивости
+    public static EndpointSummary summarize(Endpoint endpoint, Histogram histogram, long errors, double seconds,
+                                            long retries, long hedges, long hedgeWins, long rejected) {
+        long count = histogram.getTotalCount();
+        return new EndpointSummary(endpoint, count, errors, retries, hedges, hedgeWins, rejected,
+                seconds > 0 ? count / seconds : 0,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private static long delta(EndpointSnapshot before, EndpointSnapshot after, ToLongFunction<EndpointSnapshot> counter) {
+        return (after == null ? 0 : counter.applyAsLong(after)) - (before == null ? 0 : counter.applyAsLong(before));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(String.format("Длительность замера: %.1f с.%n", measuredSeconds));
+        report.append(String.format("%-28s %9s %7s %6s %6s %6s %6s %9s %9s %9s %9s %9s%n",
+                "Ручка", "Запросов", "Ошибок", "Повт.", "Хедж", "Хедж✓", "Отказ",
+                "Оп/с", "p50, мс", "p99, мс", "p99.9, мс", "max, мс"));
+        for (EndpointSummary summary : summaries) {
+            report.append(String.format("%-28s %9d %7d %6d %6d %6d %6d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    summary.getEndpoint(), summary.getCount(), summary.getErrors(),
+                    summary.getRetries(), summary.getHedges(), summary.getHedgeWins(), summary.getRejected(),
+                    summary.getThroughput(), summary.getP50Millis(), summary.getP99Millis(), summary.getP999Millis(), summary.getMaxMillis()));
+        }
+        report.append("Лимиты одновременных запросов (отклонено — за весь прогон):").append(System.lineSeparator());
+        for (LimitSnapshot limit : limits) {
+            report.append("  ").append(limit).append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package load;
+
+import api.log.ApiLog;
+import api.log.LogLevel;
+import perf.PerfRecorder;
+import stub.ScooterStandIn;
+
+import java.io.IOException;
+
+// Запуск нагрузочного прогона из командной строки:
+// mvn -Pload compile exec:java -Dload.rate=100 -Dload.duration=60 -Dload.mix=courier_flow:1,order_flow:3
+// Параметры: load.baseUri, load.rate, load.duration, load.warmup, load.mix, load.poisson, load.maxInFlight, load.seed,
+// load.resilience, load.limit.
+// С -Dload.standIn=true нагрузка идёт на встроенную замену сервиса в этом же процессе,
+// с -Dload.resilience=false запросы идут без повторов, хеджирования и выключателя,
+// с -Dload.limit=false — без адаптивного лимита параллельности (цель задержки — -Dapi.limit.targetMillis).
+// С -Dapi.transport=record обмены пишутся в журнал -Dapi.transport.file, с -Dapi.transport=replay
+// прогон идёт по журналу без сервиса; в обоих прогонах нужен один и тот же -Dtestdata.runId.
+// С -Dperf.record=true результат сохраняется в хранилище -Dperf.store под текущей ревизией git (см. PerfGate)
+public class LoadRunner {
+
+    public static void main(String[] args) throws IOException {
+        ApiLog.setLevel(LogLevel.valueOf(System.getProperty("api.log.level", "WARN").toUpperCase()));
+        LoadSettings settings = fromSystemProperties();
+        if (Boolean.getBoolean("load.standIn")) {
+            ScooterStandIn standIn = ScooterStandIn.start(0);
+            settings = settings.toBuilder().baseUri(standIn.getBaseUri()).build();
+            System.out.println("Встроенная замена сервиса: " + standIn.getBaseUri());
+        }
+        System.out.println(String.format("Нагрузка: %.1f сценариев/с в течение %d с (прогрев %d с)...",
+                settings.getRatePerSecond(), settings.getDurationSeconds(), settings.getWarmupSeconds()));
+
+        LoadReport report = new LoadGenerator(settings).run();
+        System.out.println(report);
+        PerfRecorder.recordLoad("load", settings, report);
+        System.exit(0);
+    }
+
+    static LoadSettings fromSystemProperties() {
+        LoadSettings defaults = LoadSettings.builder().build();
+        return LoadSettings.builder()
+                .baseUri(System.getProperty("load.baseUri", defaults.getBaseUri()))
+                .ratePerSecond(Double.parseDouble(System.getProperty("load.rate",
+                        String.valueOf(defaults.getRatePerSecond()))))
+                .durationSeconds(Long.getLong("load.duration", defaults.getDurationSeconds()))
+                .warmupSeconds(Long.getLong("load.warmup", defaults.getWarmupSeconds()))
+                .poisson(Boolean.getBoolean("load.poisson"))
+                .mix(System.getProperty("load.mix") != null
+                        ? LoadMix.parse(System.getProperty("load.mix"))
+                        : defaults.getMix())
+                .maxInFlight(Integer.getInteger("load.maxInFlight", defaults.getMaxInFlight()))
+                .seed(Long.getLong("load.seed", defaults.getSeed()))
+                .resilience(Boolean.parseBoolean(System.getProperty("load.resilience",
+                        String.valueOf(defaults.isResilience()))))
+                .adaptiveLimit(Boolean.parseBoolean(System.getProperty("load.limit",
+                        String.valueOf(defaults.isAdaptiveLimit()))))
+                .build();
+    }
+}
@@ -0,0 +1,11 @@
+package load;
+
+// Сценарии нагрузки, повторяющие пользовательские пути из тестов
+public enum LoadScenario {
+    // создание курьера -> логин -> удаление (как в CourierCreatingTest)
+    COURIER_FLOW,
+    // создание заказа -> информация о заказе -> отмена (как в GetOrdersListTest)
+    ORDER_FLOW,
+    // запрос страницы списка заказов
+    ORDER_LIST
+}
@@ -0,0 +1,30 @@
+package load;
+
+import lombok.Builder;
+import lombok.Getter;
+import service.ServiceLinks;
+
+// Параметры нагрузочного прогона
+@Getter
+@Builder(toBuilder = true)
+public class LoadSettings {
+    @Builder.Default private final String baseUri = ServiceLinks.BASE_URI;
+    // целевая частота прибытия сценариев, в секунду
+    @Builder.Default private final double ratePerSecond = 50;
+    @Builder.Default private final long durationSeconds = 60;
+    // первые секунды прогона не попадают в отчёт
+    @Builder.Default private final long warmupSeconds = 0;
+    // true — интервалы между прибытиями экспоненциальные (пуассоновский поток), false — равные
+    @Builder.Default private final boolean poisson = false;
+    @Builder.Default private final LoadMix mix = LoadMix.parse("courier_flow:1,order_flow:1,order_list:1");
+    // ограничение числа одновременных запросов со стороны клиента
+    @Builder.Default private final int maxInFlight = 512;
+    // сколько ждём завершения запущенных сценариев после окончания прогона
+    @Builder.Default private final long drainTimeoutSeconds = 30;
+    // повторы, хеджирование и выключатель; в тестах они выключены, под нагрузкой — включены
+    @Builder.Default private final boolean resilience = true;
+    // адаптивный лимит параллельности по группам ручек; в тестах он выключен, под нагрузкой — включён
+    @Builder.Default private final boolean adaptiveLimit = true;
+    // seed генератора тестовых данных: одинаковый seed — одинаковые тела запросов
+    @Builder.Default private final long seed = 20240101L;
+}
@@ -0,0 +1,129 @@
+package load;
+
+import api.log.ApiLog;
+import api.log.ApiLogger;
+import api.log.LogLevel;
+import org.HdrHistogram.Histogram;
+import service.Endpoint;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Исполнитель распределённого прогона: подключается к координатору, получает свою долю частоты,
+// в назначенный момент запускает LoadGenerator и раз в интервал отправляет приращения гистограмм
+// и счётчиков. Отправка идёт из отдельного потока и не тормозит расписание прибытий
+public class LoadWorker {
+    private static final ApiLogger log = ApiLog.getLogger(LoadWorker.class);
+
+    private final String host;
+    private final int port;
+    private final String name;
+    private final double weight;
+    // сколько пытаться подключиться, пока координатор ещё не запущен
+    private final long connectTimeoutMillis;
+
+    public LoadWorker(String host, int port, String name, double weight, long connectTimeoutMillis) {
+        this.host = host;
+        this.port = port;
+        this.name = name;
+        this.weight = weight;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    // Выполняет одно задание координатора; возвращает собственный отчёт исполнителя
+    public LoadReport run() throws IOException, InterruptedException {
+        try (LoadChannel channel = connect()) {
+            channel.sendHello(name, weight);
+            WorkerJob job = channel.readJob();
+            log.log(LogLevel.INFO, () -> String.format("Исполнитель %s: %d из %d, %.1f сценариев/с", name,
+                    job.getIndex() + 1, job.getWorkers(), job.getSettings().getRatePerSecond()));
+
+            LoadGenerator generator = new LoadGenerator(job.getSettings());
+            IntervalCursor cursor = new IntervalCursor(generator.getStats());
+            ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "load-worker-sender");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                // интервалы идут с момента получения задания: до старта они пустые и служат признаком жизни
+                sender.scheduleAtFixedRate(() -> {
+                    try {
+                        channel.sendInterval(cursor.next());
+                    } catch (IOException e) {
+                        log.warn("Не удалось отправить интервал координатору: %s", e.getMessage());
+                    }
+                }, job.getIntervalMillis(), job.getIntervalMillis(), TimeUnit.MILLISECONDS);
+
+                long startDelay = job.getStartAtEpochMillis() - System.currentTimeMillis();
+                if (startDelay > 0) {
+                    Thread.sleep(startDelay);
+                }
+                LoadReport report;
+                try {
+                    report = generator.run();
+                } catch (RuntimeException e) {
+                    channel.sendFailure(e.toString());
+                    throw e;
+                }
+                sender.shutdown();
+                sender.awaitTermination(job.getIntervalMillis() * 2, TimeUnit.MILLISECONDS);
+                channel.sendDone(cursor.next(), report);
+                return report;
+            } finally {
+                sender.shutdownNow();
+            }
+        }
+    }
+
+    private LoadChannel connect() throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + connectTimeoutMillis;
+        while (true) {
+            try {
+                return LoadChannel.connect(host, port, (int) Math.max(1, connectTimeoutMillis));
+            } catch (ConnectException e) {
+                if (System.currentTimeMillis() >= deadline) {
+                    throw e;
+                }
+                Thread.sleep(200);
+            }
+        }
+    }
+
+    // Приращения статистики генератора с прошлого вызова next(): копия накопленной гистограммы
+    // минус предыдущая копия. Запись задержек в генераторе при этом не меняется и не блокируется
+    private static class IntervalCursor {
+        private final Map<Endpoint, EndpointStats> stats;
+        private final Map<Endpoint, Histogram> previous = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, long[]> previousCounts = new EnumMap<>(Endpoint.class);
+
+        IntervalCursor(Map<Endpoint, EndpointStats> stats) {
+            this.stats = stats;
+            for (Endpoint endpoint : stats.keySet()) {
+                previous.put(endpoint, new Histogram(EndpointStats.HIGHEST_TRACKABLE_MICROS, 3));
+                previousCounts.put(endpoint, new long[2]);
+            }
+        }
+
+        Map<Endpoint, EndpointInterval> next() {
+            Map<Endpoint, EndpointInterval> interval = new EnumMap<>(Endpoint.class);
+            stats.forEach((endpoint, endpointStats) -> {
+                Histogram total = endpointStats.getHistogram().copy();
+                Histogram delta = total.copy();
+                delta.subtract(previous.put(endpoint, total));
+                long[] counts = previousCounts.get(endpoint);
+                long successes = endpointStats.getSuccessCount();
+                long errors = endpointStats.getErrorCount();
+                interval.put(endpoint, new EndpointInterval(delta, successes - counts[0], errors - counts[1]));
+                counts[0] = successes;
+                counts[1] = errors;
+            });
+            return interval;
+        }
+    }
+}
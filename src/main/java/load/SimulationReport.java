@@ -0,0 +1,35 @@
+package load;
+
+import api.metrics.MetricsSnapshot;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Итог моделирования: сколько сценариев курьеров завершилось, упало и было отменено по сроку
+@Getter
+@AllArgsConstructor
+public class SimulationReport {
+    private final int couriers;
+    private final int completed;
+    private final int failed;
+    private final int cancelled;
+    private final double seconds;
+    private final boolean virtualThreads;
+    // наибольшее число потоков платформы в JVM за прогон
+    private final int peakPlatformThreads;
+    // первая ошибка сценария или null
+    private final String firstError;
+    private final MetricsSnapshot metrics;
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(String.format(
+                "Курьеров: %d (потоки %s, потоков платформы максимум %d). Завершили сценарий: %d, ошибка: %d, "
+                        + "отменено по сроку: %d. Время: %.1f с, %.1f сценариев/с.%n",
+                couriers, virtualThreads ? "виртуальные" : "платформы", peakPlatformThreads,
+                completed, failed, cancelled, seconds, completed / Math.max(seconds, 1e-9)));
+        if (firstError != null) {
+            report.append("Первая ошибка: ").append(firstError).append(System.lineSeparator());
+        }
+        return report.append(metrics).toString();
+    }
+}
@@ -0,0 +1,43 @@
+package load;
+
+import api.log.ApiLog;
+import api.log.LogLevel;
+import stub.ScooterStandIn;
+
+import java.io.IOException;
+
+// Запуск моделирования одновременных курьеров из командной строки:
+// mvn -Pload compile exec:java -Dexec.mainClass=load.SimulationRunner -Dsim.couriers=10000
+// Параметры: sim.baseUri, sim.couriers, sim.timeout, sim.seed, sim.resilience, sim.limit; -Dload.standIn=true — встроенная замена сервиса.
+// Десятки тысяч курьеров требуют виртуальных потоков: сборка с профилем java21 на JDK 21 и -Dapi.threads=virtual
+public class SimulationRunner {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        ApiLog.setLevel(LogLevel.valueOf(System.getProperty("api.log.level", "WARN").toUpperCase()));
+        // курьеры, которым не хватило места в адаптивном лимите, ждут своей очереди, а не получают отказ
+        if (System.getProperty("api.limit.maxWaitMillis") == null) {
+            System.setProperty("api.limit.maxWaitMillis", "600000");
+        }
+        SimulationSettings defaults = SimulationSettings.builder().build();
+        SimulationSettings settings = SimulationSettings.builder()
+                .baseUri(System.getProperty("sim.baseUri", defaults.getBaseUri()))
+                .couriers(Integer.getInteger("sim.couriers", defaults.getCouriers()))
+                .timeoutSeconds(Long.getLong("sim.timeout", defaults.getTimeoutSeconds()))
+                .seed(Long.getLong("sim.seed", defaults.getSeed()))
+                .resilience(Boolean.parseBoolean(System.getProperty("sim.resilience",
+                        String.valueOf(defaults.isResilience()))))
+                .adaptiveLimit(Boolean.parseBoolean(System.getProperty("sim.limit",
+                        String.valueOf(defaults.isAdaptiveLimit()))))
+                .build();
+        if (Boolean.getBoolean("load.standIn")) {
+            ScooterStandIn standIn = ScooterStandIn.start(0);
+            settings = settings.toBuilder().baseUri(standIn.getBaseUri()).build();
+            System.out.println("Встроенная замена сервиса: " + standIn.getBaseUri());
+        }
+        System.out.println(String.format("Моделирование: %d курьеров одновременно...", settings.getCouriers()));
+
+        SimulationReport report = new CourierSimulation(settings).run();
+        System.out.println(report);
+        System.exit(0);
+    }
+}
@@ -0,0 +1,22 @@
+package load;
+
+import lombok.Builder;
+import lombok.Getter;
+import service.ServiceLinks;
+
+// Параметры моделирования одновременных курьеров на блокирующем API
+@Getter
+@Builder(toBuilder = true)
+public class SimulationSettings {
+    @Builder.Default private final String baseUri = ServiceLinks.BASE_URI;
+    // сколько курьеров проходят свой сценарий одновременно
+    @Builder.Default private final int couriers = 1_000;
+    // сценарии, не завершившиеся за это время, отменяются
+    @Builder.Default private final long timeoutSeconds = 120;
+    // повторы, хеджирование и выключатель для запросов курьеров
+    @Builder.Default private final boolean resilience = true;
+    // адаптивный лимит параллельности; курьеры, не уместившиеся в него, ждут своей очереди
+    @Builder.Default private final boolean adaptiveLimit = true;
+    // seed генератора тестовых данных; курьер с номером i получает seed + i
+    @Builder.Default private final long seed = 20240101L;
+}
@@ -0,0 +1,19 @@
+package load;
+
+import lombok.Builder;
+import lombok.Getter;
+
+// Задание исполнителю распределённого прогона: его доля нагрузки и общий момент старта
+@Getter
+@Builder(toBuilder = true)
+public class WorkerJob {
+    // номер исполнителя среди workers подключившихся
+    private final int index;
+    private final int workers;
+    // параметры прогона с долей частоты этого исполнителя и собственным seed тестовых данных
+    private final LoadSettings settings;
+    // момент старта по часам координатора; у исполнителей на разных машинах часы должны быть синхронизированы
+    private final long startAtEpochMillis;
+    // как часто исполнитель отправляет координатору гистограммы за интервал
+    private final long intervalMillis;
+}
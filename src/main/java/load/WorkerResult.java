@@ -0,0 +1,20 @@
+package load;
+
+import api.limit.LimitSnapshot;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import service.Endpoint;
+
+import java.util.List;
+import java.util.Map;
+
+// Итог исполнителя: последний интервал гистограмм, сводка его собственного отчёта
+// (из неё координатор берёт счётчики повторов, хеджирования и отказов) и лимиты параллельности
+@Getter
+@AllArgsConstructor
+public class WorkerResult {
+    private final Map<Endpoint, EndpointInterval> lastInterval;
+    private final double measuredSeconds;
+    private final List<EndpointSummary> summaries;
+    private final List<LimitSnapshot> limits;
+}
@@ -0,0 +1,27 @@
+package load;
+
+import api.log.ApiLog;
+import api.log.LogLevel;
+
+import java.io.IOException;
+
+// Запуск исполнителя распределённого прогона:
+// mvn -Pload compile exec:java -Dexec.mainClass=load.WorkerRunner -Dload.coordinator=host:7700
+// Параметры: load.coordinator (по умолчанию 127.0.0.1:7700), load.worker.name,
+// load.worker.weight (по умолчанию число процессоров) — доля частоты пропорциональна весу,
+// load.worker.connectTimeout — сколько секунд ждать запуска координатора.
+// Параметры нагрузки приходят от координатора; настройки клиента (api.*) задаются у исполнителя
+public class WorkerRunner {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        ApiLog.setLevel(LogLevel.valueOf(System.getProperty("api.log.level", "WARN").toUpperCase()));
+        String[] coordinator = System.getProperty("load.coordinator", "127.0.0.1:7700").split(":");
+        LoadWorker worker = new LoadWorker(coordinator[0], Integer.parseInt(coordinator[1]),
+                System.getProperty("load.worker.name", "worker-" + ProcessHandle.current().pid()),
+                Double.parseDouble(System.getProperty("load.worker.weight",
+                        String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                Long.getLong("load.worker.connectTimeout", 60) * 1000);
+        worker.run();
+        System.exit(0);
+    }
+}
@@ -0,0 +1,25 @@
+package load;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Вклад одного исполнителя в распределённый прогон
+@Getter
+@AllArgsConstructor
+public class WorkerSummary {
+    private final String name;
+    private final String address;
+    private final double weight;
+    private final double ratePerSecond;
+    private final long requests;
+    private final long errors;
+    // true — исполнитель прислал итог; иначе в outcome причина сбоя или потери связи
+    private final boolean completed;
+    private final String outcome;
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s): вес %.1f, %.1f сценариев/с, запросов %d, ошибок %d — %s",
+                name, address, weight, ratePerSecond, requests, errors, outcome);
+    }
+}
@@ -0,0 +1,95 @@
+package perf;
+
+import com.google.gson.Gson;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Хранилище результатов прогонов: каталог на ревизию git, в нём файл на имя прогона,
+// по строке JSON на каждый прогон. Повторные прогоны одной ревизии дописываются в тот же файл,
+// и по их разбросу сравнение оценивает шум. Каталог можно держать в репозитории рядом с кодом
+public class BaselineStore {
+    private static final Gson gson = new Gson();
+
+    private final Path root;
+
+    public BaselineStore(Path root) {
+        this.root = root;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public void save(PerfResult result) {
+        Path file = file(result.getKey(), result.getName());
+        try {
+            Files.createDirectories(file.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(gson.toJson(result));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось сохранить результат в " + file, e);
+        }
+    }
+
+    // Прогоны под ключом ревизии в порядке записи; пустой список, если их нет
+    public List<PerfResult> load(String key, String name) {
+        Path file = file(key, name);
+        if (!Files.isRegularFile(file)) {
+            return new ArrayList<>();
+        }
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            return lines.filter(line -> !line.isBlank())
+                    .map(line -> gson.fromJson(line, PerfResult.class))
+                    .sorted(Comparator.comparingLong(PerfResult::getTimestampMillis))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать " + file, e);
+        }
+    }
+
+    // Имена прогонов, сохранённых под ключом ревизии
+    public List<String> names(String key) {
+        Path dir = root.resolve(key);
+        if (!Files.isDirectory(dir)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(file -> file.endsWith(".jsonl"))
+                    .map(file -> file.substring(0, file.length() - ".jsonl".length()))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать " + dir, e);
+        }
+    }
+
+    // Ближайшая из ревизий-кандидатов (в порядке списка), для которой есть прогоны name
+    // в чистой рабочей копии; ключ текущего прогона пропускается
+    public String findBaseline(String name, List<String> candidates, String currentKey) {
+        for (String candidate : candidates) {
+            if (!candidate.equals(currentKey) && Files.isRegularFile(file(candidate, name))) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private Path file(String key, String name) {
+        return root.resolve(key).resolve(name + ".jsonl");
+    }
+}
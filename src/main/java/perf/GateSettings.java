@@ -0,0 +1,34 @@
+package perf;
+
+import lombok.Builder;
+import lombok.Getter;
+
+// Пороги сравнения с базой. Допустимое ухудшение показателя — наибольшее из трёх:
+// threshold от базового значения, noiseFactor разбросов между повторными прогонами базы
+// и доверительные интервалы показателя в базе и сейчас
+@Getter
+@Builder(toBuilder = true)
+public class GateSettings {
+    // относительное ухудшение, которое не считается регрессией
+    @Builder.Default private final double threshold = 0.10;
+    // во сколько раз ухудшение должно превышать шум между прогонами базы
+    @Builder.Default private final double noiseFactor = 3;
+    // p99 по меньшей выборке слишком случаен и не проверяется
+    @Builder.Default private final long minCount = 100;
+
+    public static GateSettings defaults() {
+        return GateSettings.builder().build();
+    }
+
+    // Пороги по свойствам perf.threshold, perf.noiseFactor и perf.minCount
+    public static GateSettings fromSystemProperties() {
+        GateSettings defaults = defaults();
+        return GateSettings.builder()
+                .threshold(Double.parseDouble(System.getProperty("perf.threshold",
+                        String.valueOf(defaults.getThreshold()))))
+                .noiseFactor(Double.parseDouble(System.getProperty("perf.noiseFactor",
+                        String.valueOf(defaults.getNoiseFactor()))))
+                .minCount(Long.getLong("perf.minCount", defaults.getMinCount()))
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package perf;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Ревизия рабочей копии git, под которой сохраняются результаты. Вне репозитория или без git — "unknown"
+@Getter
+@AllArgsConstructor
+public class GitRevision {
+    public static final String UNKNOWN = "unknown";
+
+    private final String hash;
+    private final boolean dirty;
+
+    public static GitRevision current(Path workTree) {
+        String hash = git(workTree, "rev-parse", "HEAD");
+        if (hash == null) {
+            return new GitRevision(UNKNOWN, false);
+        }
+        // неотслеживаемые файлы (отчёты, результаты) на измеряемый код не влияют
+        String status = git(workTree, "status", "--porcelain", "--untracked-files=no");
+        return new GitRevision(hash, status != null && !status.isEmpty());
+    }
+
+    // Полный хеш ревизии по любому её обозначению (HEAD~1, имя ветки, короткий хеш) или null
+    public static String resolve(Path workTree, String revision) {
+        return git(workTree, "rev-parse", "--verify", "--quiet", revision + "^{commit}");
+    }
+
+    // Предки ревизии от ближайшего, начиная с неё самой
+    public static List<String> ancestors(Path workTree, String revision, int limit) {
+        String list = git(workTree, "rev-list", "--max-count=" + limit, revision);
+        return list == null || list.isEmpty() ? new ArrayList<>() : Arrays.asList(list.split("\n"));
+    }
+
+    static String key(String hash, boolean dirty) {
+        return dirty ? hash + "-dirty" : hash;
+    }
+
+    public String getKey() {
+        return key(hash, dirty);
+    }
+
+    private static String git(Path workTree, String... args) {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        try {
+            Process process = new ProcessBuilder(command).directory(workTree.toFile())
+                    .redirectError(ProcessBuilder.Redirect.DISCARD).start();
+            String output;
+            try (InputStream in = process.getInputStream()) {
+                output = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+            }
+            return process.waitFor() == 0 ? output : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
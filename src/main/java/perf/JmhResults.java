@@ -0,0 +1,100 @@
+package perf;
+
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Разбор результатов JMH в формате JSON (-rf json). Для режимов времени на операцию пропускная
+// способность — обратная величина среднего времени, а p50 и p99 — перцентили времени по итерациям
+// (объём выборки — итерации всех форков, поэтому p99 сравнивается только при достаточном их числе);
+// для режима thrpt перцентили не заполняются
+final class JmhResults {
+    private static final Gson gson = new Gson();
+
+    private JmhResults() {
+    }
+
+    static List<PerfMetric> read(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Run[] runs = gson.fromJson(reader, Run[].class);
+            List<PerfMetric> metrics = new ArrayList<>();
+            for (Run run : runs) {
+                metrics.add(run.toMetric());
+            }
+            return metrics;
+        }
+    }
+
+    // Поля одного бенчмарка из отчёта JMH; остальные поля отчёта не нужны
+    private static class Run {
+        private String benchmark;
+        private int forks;
+        private int measurementIterations;
+        private Map<String, String> params;
+        private Metric primaryMetric;
+
+        PerfMetric toMetric() {
+            String name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+            if (params != null && !params.isEmpty()) {
+                name += params.toString();
+            }
+            String unit = primaryMetric.scoreUnit;
+            long count = (long) Math.max(1, forks) * measurementIterations;
+            if (unit.startsWith("ops/")) {
+                double perSecond = 1 / seconds(unit.substring("ops/".length()));
+                return new PerfMetric(name, count, 0, 0, 0,
+                        primaryMetric.score * perSecond, primaryMetric.scoreError * perSecond);
+            }
+            // время на операцию: ns/op, us/op, ms/op, s/op
+            double secondsPerUnit = seconds(unit.substring(0, unit.indexOf('/')));
+            double throughput = 1 / (primaryMetric.score * secondsPerUnit);
+            return new PerfMetric(name, count,
+                    percentile("50.0") * secondsPerUnit * 1000,
+                    percentile("99.0") * secondsPerUnit * 1000,
+                    0,
+                    throughput,
+                    finite(throughput * primaryMetric.scoreError / primaryMetric.score));
+        }
+
+        private double percentile(String key) {
+            return primaryMetric.scorePercentiles == null ? 0
+                    : primaryMetric.scorePercentiles.getOrDefault(key, 0.0);
+        }
+    }
+
+    private static class Metric {
+        private double score;
+        // JMH пишет "NaN", если итераций слишком мало для оценки интервала
+        private double scoreError;
+        private String scoreUnit;
+        private Map<String, Double> scorePercentiles;
+    }
+
+    private static double finite(double value) {
+        return Double.isFinite(value) ? value : 0;
+    }
+
+    private static double seconds(String unit) {
+        switch (unit) {
+            case "ns":
+                return 1e-9;
+            case "us":
+                return 1e-6;
+            case "ms":
+                return 1e-3;
+            case "s":
+                return 1;
+            case "min":
+                return 60;
+            default:
+                throw new IllegalArgumentException("Неизвестная единица времени JMH: " + unit);
+        }
+    }
+}
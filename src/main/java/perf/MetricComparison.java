@@ -0,0 +1,33 @@
+package perf;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Сравнение одного показателя с базой: базовое значение — медиана прогонов базовой ревизии
+@Getter
+@AllArgsConstructor
+public class MetricComparison {
+    public enum Kind {
+        // больше — хуже
+        P99_MILLIS,
+        // меньше — хуже
+        THROUGHPUT
+    }
+
+    private final String metric;
+    private final Kind kind;
+    private final double baseline;
+    private final double current;
+    // на сколько показатель может ухудшиться, не считаясь регрессией
+    private final double allowed;
+    private final boolean regression;
+
+    // Ухудшение относительно базы в долях; отрицательное — улучшение
+    public double getChange() {
+        if (baseline == 0) {
+            return 0;
+        }
+        double change = (current - baseline) / baseline;
+        return kind == Kind.THROUGHPUT ? -change : change;
+    }
+}
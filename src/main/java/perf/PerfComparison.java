@@ -0,0 +1,144 @@
+package perf;
+
+import com.google.gson.GsonBuilder;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+// Сравнение последнего прогона с прогонами базовой ревизии по p99 и пропускной способности.
+// База — медиана прогонов базовой ревизии, шум — их разброс (1.4826 × MAD, оценка σ, устойчивая
+// к одиночному выбросу; нужно хотя бы три прогона) и доверительные интервалы самих показателей:
+// p99 по объёму выборки, пропускной способности — по оценке JMH. Так одна и та же проверка годится
+// и для шумного нагрузочного прогона, и для бенчмарков с узким доверительным интервалом
+@Getter
+public class PerfComparison {
+    private static final double MAD_TO_SIGMA = 1.4826;
+
+    private final String name;
+    private final String description;
+    private final String currentKey;
+    // null — базы нет, сравнивать не с чем
+    private final String baselineKey;
+    private final int baselineRuns;
+    private final List<MetricComparison> comparisons;
+
+    private PerfComparison(String name, String description, String currentKey, String baselineKey,
+                           int baselineRuns, List<MetricComparison> comparisons) {
+        this.name = name;
+        this.description = description;
+        this.currentKey = currentKey;
+        this.baselineKey = baselineKey;
+        this.baselineRuns = baselineRuns;
+        this.comparisons = Collections.unmodifiableList(comparisons);
+    }
+
+    public static PerfComparison withoutBaseline(PerfResult current) {
+        return new PerfComparison(current.getName(), current.getDescription(), current.getKey(), null, 0,
+                new ArrayList<>());
+    }
+
+    public static PerfComparison compare(PerfResult current, String baselineKey, List<PerfResult> baseline,
+                                         GateSettings settings) {
+        List<MetricComparison> comparisons = new ArrayList<>();
+        for (PerfMetric metric : current.getMetrics()) {
+            List<PerfMetric> history = new ArrayList<>();
+            for (PerfResult run : baseline) {
+                PerfMetric previous = run.getMetric(metric.getName());
+                if (previous != null) {
+                    history.add(previous);
+                }
+            }
+            if (history.isEmpty()) {
+                continue;
+            }
+            // p99 по маленькой выборке — почти максимум, его колебания регрессией не считаются
+            if (metric.getCount() >= settings.getMinCount()
+                    && median(history, PerfMetric::getCount) >= settings.getMinCount()) {
+                addIfMeasured(comparisons, compareP99(metric, history, settings));
+            }
+            addIfMeasured(comparisons, compareThroughput(metric, history, settings));
+        }
+        return new PerfComparison(current.getName(), current.getDescription(), current.getKey(), baselineKey,
+                baseline.size(), comparisons);
+    }
+
+    public boolean hasRegression() {
+        return comparisons.stream().anyMatch(MetricComparison::isRegression);
+    }
+
+    public String toJson() {
+        return new GsonBuilder().setPrettyPrinting().create().toJson(this);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(String.format("Прогон %s (%s)%n", name, description));
+        if (baselineKey == null) {
+            return report.append(String.format("Ревизия %s: базы для сравнения нет, результат станет базой для следующих%n",
+                    currentKey)).toString();
+        }
+        report.append(String.format("Ревизия %s против %s (прогонов базы: %d)%n", currentKey, baselineKey, baselineRuns));
+        report.append(String.format("%-32s %-10s %12s %12s %9s %9s  %s%n",
+                "Показатель", "", "База", "Сейчас", "Ухудш.", "Допуск", "Итог"));
+        for (MetricComparison comparison : comparisons) {
+            boolean p99 = comparison.getKind() == MetricComparison.Kind.P99_MILLIS;
+            report.append(String.format("%-32s %-10s %12.2f %12.2f %+8.1f%% %8.1f%%  %s%n",
+                    comparison.getMetric(), p99 ? "p99, мс" : "оп/с",
+                    comparison.getBaseline(), comparison.getCurrent(), comparison.getChange() * 100,
+                    comparison.getAllowed() / comparison.getBaseline() * 100,
+                    comparison.isRegression() ? "РЕГРЕССИЯ" : "ок"));
+        }
+        return report.toString();
+    }
+
+    private static MetricComparison compareP99(PerfMetric metric, List<PerfMetric> history, GateSettings settings) {
+        double baseline = median(history, PerfMetric::getP99Millis);
+        double interval = Math.hypot(median(history, PerfMetric::getP99Error), metric.getP99Error());
+        double allowed = Math.max(Math.max(settings.getThreshold() * baseline,
+                settings.getNoiseFactor() * noise(history, PerfMetric::getP99Millis)), interval);
+        return new MetricComparison(metric.getName(), MetricComparison.Kind.P99_MILLIS, baseline,
+                metric.getP99Millis(), allowed, metric.getP99Millis() - baseline > allowed);
+    }
+
+    private static MetricComparison compareThroughput(PerfMetric metric, List<PerfMetric> history,
+                                                      GateSettings settings) {
+        double baseline = median(history, PerfMetric::getThroughput);
+        // доверительные интервалы базы и текущего прогона независимы и складываются квадратично
+        double interval = Math.hypot(median(history, PerfMetric::getThroughputError), metric.getThroughputError());
+        double allowed = Math.max(Math.max(settings.getThreshold() * baseline,
+                settings.getNoiseFactor() * noise(history, PerfMetric::getThroughput)), interval);
+        return new MetricComparison(metric.getName(), MetricComparison.Kind.THROUGHPUT, baseline,
+                metric.getThroughput(), allowed, baseline - metric.getThroughput() > allowed);
+    }
+
+    // Показатель, не измерявшийся в базе или сейчас (0), не сравнивается
+    private static void addIfMeasured(List<MetricComparison> comparisons, MetricComparison comparison) {
+        if (comparison.getBaseline() > 0 && comparison.getCurrent() > 0) {
+            comparisons.add(comparison);
+        }
+    }
+
+    private static double noise(List<PerfMetric> history, ToDoubleFunction<PerfMetric> value) {
+        if (history.size() < 3) {
+            return 0;
+        }
+        double median = median(history, value);
+        double[] deviations = history.stream().mapToDouble(metric -> Math.abs(value.applyAsDouble(metric) - median))
+                .toArray();
+        return MAD_TO_SIGMA * median(deviations);
+    }
+
+    private static double median(List<PerfMetric> history, ToDoubleFunction<PerfMetric> value) {
+        return median(history.stream().mapToDouble(value).toArray());
+    }
+
+    private static double median(double[] values) {
+        Arrays.sort(values);
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+}
@@ -0,0 +1,117 @@
+package perf;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Label;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StatusDetails;
+import io.qameta.allure.model.TestResult;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Проверка сборки: последний прогон каждого имени под текущей ревизией сравнивается с ближайшей
+// предыдущей ревизией, для которой в хранилище есть прогоны того же имени, и сборка падает
+// при регрессии p99 или пропускной способности сверх порогов GateSettings. Итог сравнения
+// попадает в отчёт Allure отдельной записью. Запускается в профиле perf: mvn -Pperf verify.
+// Параметры: perf.store, perf.name (через запятую; по умолчанию все прогоны текущей ревизии),
+// perf.baseline — ревизия базы вместо поиска по истории, perf.failOnRegression (по умолчанию true),
+// perf.threshold, perf.noiseFactor, perf.minCount
+public final class PerfGate {
+    // на сколько коммитов назад искать базу
+    private static final int HISTORY_DEPTH = 200;
+
+    private PerfGate() {
+    }
+
+    public static void main(String[] args) {
+        Path workTree = Paths.get(".");
+        BaselineStore store = PerfRecorder.store();
+        GitRevision revision = GitRevision.current(workTree);
+        List<String> names = System.getProperty("perf.name") != null
+                ? Arrays.asList(System.getProperty("perf.name").split(","))
+                : store.names(revision.getKey());
+        if (names.isEmpty()) {
+            System.out.println(String.format("В %s нет прогонов ревизии %s — сравнивать нечего",
+                    store.getRoot(), revision.getKey()));
+            return;
+        }
+
+        List<PerfComparison> comparisons = compare(store, revision, names, GateSettings.fromSystemProperties(),
+                baselineCandidates(workTree, revision));
+        comparisons.forEach(System.out::println);
+        attach(comparisons);
+
+        List<String> regressed = comparisons.stream().filter(PerfComparison::hasRegression)
+                .map(PerfComparison::getName).collect(Collectors.toList());
+        if (!regressed.isEmpty() && Boolean.parseBoolean(System.getProperty("perf.failOnRegression", "true"))) {
+            throw new PerfRegressionException("Регрессия производительности в прогонах " + regressed
+                    + " относительно базы; подробности выше и в отчёте Allure");
+        }
+    }
+
+    static List<PerfComparison> compare(BaselineStore store, GitRevision revision, List<String> names,
+                                        GateSettings settings, List<String> candidates) {
+        List<PerfComparison> comparisons = new ArrayList<>();
+        for (String name : names) {
+            List<PerfResult> runs = store.load(revision.getKey(), name.trim());
+            if (runs.isEmpty()) {
+                continue;
+            }
+            PerfResult current = runs.get(runs.size() - 1);
+            String baselineKey = store.findBaseline(current.getName(), candidates, revision.getKey());
+            comparisons.add(baselineKey == null
+                    ? PerfComparison.withoutBaseline(current)
+                    : PerfComparison.compare(current, baselineKey, store.load(baselineKey, current.getName()), settings));
+        }
+        return comparisons;
+    }
+
+    // Явная ревизия из perf.baseline или история текущей ревизии от ближайшего предка.
+    // Для грязной рабочей копии первый кандидат — чистый прогон той же ревизии
+    private static List<String> baselineCandidates(Path workTree, GitRevision revision) {
+        String baseline = System.getProperty("perf.baseline");
+        if (baseline == null) {
+            return GitRevision.UNKNOWN.equals(revision.getHash())
+                    ? Collections.emptyList()
+                    : GitRevision.ancestors(workTree, revision.getHash(), HISTORY_DEPTH);
+        }
+        String resolved = GitRevision.resolve(workTree, baseline);
+        if (resolved == null) {
+            throw new IllegalStateException("Ревизия базы не найдена в git: " + baseline);
+        }
+        return Collections.singletonList(resolved);
+    }
+
+    private static void attach(List<PerfComparison> comparisons) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        for (PerfComparison comparison : comparisons) {
+            String uuid = UUID.randomUUID().toString();
+            TestResult testResult = new TestResult()
+                    .setUuid(uuid)
+                    .setName("Сравнение с базой: " + comparison.getName())
+                    .setFullName("perf.PerfGate." + comparison.getName())
+                    .setStatus(comparison.hasRegression() ? Status.FAILED : Status.PASSED)
+                    .setLabels(List.of(new Label().setName("suite").setValue("Производительность")));
+            if (comparison.hasRegression()) {
+                testResult.setStatusDetails(new StatusDetails()
+                        .setMessage("Регрессия относительно ревизии " + comparison.getBaselineKey()));
+            }
+            lifecycle.scheduleTestCase(testResult);
+            lifecycle.startTestCase(uuid);
+            lifecycle.addAttachment("Сравнение с базой", "text/plain", ".txt",
+                    comparison.toString().getBytes(StandardCharsets.UTF_8));
+            lifecycle.addAttachment("Сравнение с базой (JSON)", "application/json", ".json",
+                    comparison.toJson().getBytes(StandardCharsets.UTF_8));
+            lifecycle.stopTestCase(uuid);
+            lifecycle.writeTestCase(uuid);
+        }
+    }
+}
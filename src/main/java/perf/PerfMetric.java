@@ -0,0 +1,21 @@
+package perf;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Показатели одной ручки или одного бенчмарка за прогон. 0 — показатель не измерялся
+@Getter
+@AllArgsConstructor
+public class PerfMetric {
+    private final String name;
+    // размер выборки, по которой посчитаны перцентили: запросы ручки или итерации бенчмарка
+    private final long count;
+    private final double p50Millis;
+    private final double p99Millis;
+    // полуширина доверительного интервала p99 по объёму выборки; 0 — не оценивалась
+    private final double p99Error;
+    // операций в секунду
+    private final double throughput;
+    // полуширина доверительного интервала пропускной способности, если её оценил сам инструмент (JMH)
+    private final double throughputError;
+}
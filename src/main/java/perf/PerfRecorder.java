@@ -0,0 +1,62 @@
+package perf;
+
+import load.LoadReport;
+import load.LoadSettings;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Запись результатов прогонов в хранилище под текущей ревизией git.
+// Нагрузочные прогоны (LoadRunner, CoordinatorRunner) пишут результат при -Dperf.record=true,
+// main переносит в хранилище отчёт JMH: mvn -Pperf exec:java@perf-record-jmh после mvn -Pjmh compile exec:exec.
+// Параметры: perf.store — каталог хранилища (по умолчанию perf-results), perf.name — имя прогона
+// (по умолчанию load-<частота>rps, distributed-load-<частота>rps или jmh), perf.jmhResult — файл отчёта JMH
+public final class PerfRecorder {
+
+    private PerfRecorder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path report = Paths.get(System.getProperty("perf.jmhResult", "target/jmh-result.json"));
+        if (!Files.isRegularFile(report)) {
+            throw new IllegalStateException("Нет отчёта JMH " + report + ": сначала mvn -Pjmh compile exec:exec");
+        }
+        GitRevision revision = GitRevision.current(Paths.get("."));
+        PerfResult result = new PerfResult(name("jmh"), revision.getHash(), revision.isDirty(),
+                Files.getLastModifiedTime(report).toMillis(), "JMH, " + report.getFileName(),
+                JmhResults.read(report));
+        store().save(result);
+        System.out.println(String.format("Результаты JMH (%d бенчмарков) сохранены как %s/%s",
+                result.getMetrics().size(), result.getKey(), result.getName()));
+    }
+
+    // Сохраняет результат нагрузочного прогона, если включена запись; prefix отличает виды прогонов
+    public static void recordLoad(String prefix, LoadSettings settings, LoadReport report) {
+        if (!Boolean.getBoolean("perf.record")) {
+            return;
+        }
+        String description = String.format("%.1f сценариев/с, %d с, прогрев %d с, смесь %s%s",
+                settings.getRatePerSecond(), settings.getDurationSeconds(), settings.getWarmupSeconds(),
+                settings.getMix(), settings.isPoisson() ? ", пуассоновский поток" : "");
+        PerfResult result = PerfResult.fromLoadReport(
+                name(String.format("%s-%srps", prefix, formatRate(settings.getRatePerSecond()))),
+                description, GitRevision.current(Paths.get(".")), report);
+        store().save(result);
+        System.out.println(String.format("Результат сохранён как %s/%s", result.getKey(), result.getName()));
+    }
+
+    static BaselineStore store() {
+        return new BaselineStore(Paths.get(System.getProperty("perf.store", "perf-results")));
+    }
+
+    // имя прогона становится именем файла, поэтому в нём остаются только безопасные символы
+    private static String name(String defaultName) {
+        return System.getProperty("perf.name", defaultName).replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private static String formatRate(double rate) {
+        return rate == Math.rint(rate) ? String.valueOf((long) rate) : String.valueOf(rate);
+    }
+}
@@ -0,0 +1,10 @@
+package perf;
+
+// Показатели прогона ухудшились сильнее допустимого относительно базовой ревизии
+public class PerfRegressionException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    public PerfRegressionException(String message) {
+        super(message);
+    }
+}
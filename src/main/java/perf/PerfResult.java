@@ -0,0 +1,68 @@
+package perf;
+
+import load.EndpointSummary;
+import load.LoadReport;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Результат одного прогона нагрузки или бенчмарков, привязанный к ревизии git.
+// name отличает несопоставимые прогоны: с другой частотой, смесью сценариев или набором бенчмарков
+@Getter
+@AllArgsConstructor
+public class PerfResult {
+    // доверительный интервал p99 — около 99.7% (три σ биномиального числа значений ниже p99)
+    private static final double P99_Z = 3;
+
+    private final String name;
+    private final String revision;
+    // в рабочей копии были незакоммиченные изменения
+    private final boolean dirty;
+    private final long timestampMillis;
+    // параметры прогона для человека, читающего отчёт сравнения
+    private final String description;
+    private final List<PerfMetric> metrics;
+
+    public static PerfResult fromLoadReport(String name, String description, GitRevision revision, LoadReport report) {
+        List<PerfMetric> metrics = new ArrayList<>();
+        for (EndpointSummary summary : report.getSummaries()) {
+            metrics.add(new PerfMetric(summary.getEndpoint().toString(), summary.getCount(),
+                    summary.getP50Millis(), summary.getP99Millis(),
+                    p99Error(report.getHistograms().get(summary.getEndpoint())),
+                    summary.getThroughput(), 0));
+        }
+        return new PerfResult(name, revision.getHash(), revision.isDirty(), System.currentTimeMillis(),
+                description, metrics);
+    }
+
+    // Полуширина интервала p99 без предположений о распределении: ранг p99 в выборке из n значений
+    // колеблется на z·√(n·0.99·0.01), и интервал — значения гистограммы на границах этого разброса рангов.
+    // На сотнях запросов интервал широкий, и обычные колебания p99 не выглядят регрессией
+    private static double p99Error(Histogram histogram) {
+        long count = histogram == null ? 0 : histogram.getTotalCount();
+        if (count == 0) {
+            return 0;
+        }
+        double spread = P99_Z * Math.sqrt(count * 0.99 * 0.01) / count * 100;
+        double low = histogram.getValueAtPercentile(Math.max(0, 99 - spread));
+        double high = histogram.getValueAtPercentile(Math.min(100, 99 + spread));
+        return (high - low) / 2 / 1000.0;
+    }
+
+    // Ключ хранилища: ревизия, а для грязной рабочей копии — ревизия с пометкой
+    public String getKey() {
+        return GitRevision.key(revision, dirty);
+    }
+
+    public PerfMetric getMetric(String metricName) {
+        for (PerfMetric metric : metrics) {
+            if (metric.getName().equals(metricName)) {
+                return metric;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,62 @@
+package service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.regex.Pattern;
+
+import static service.ServiceLinks.*;
+
+// Ручки сервиса с HTTP-методами; используются для метрик и отчётов по каждой ручке.
+// Идемпотентные запросы можно безопасно повторить: повтор не создаёт на сервере новых объектов
+@Getter
+public enum Endpoint {
+    COURIER_CREATE("POST", COURIER_CREATE_ENDPOINT, false),
+    COURIER_LOGIN("POST", COURIER_LOGIN_ENDPOINT, false),
+    COURIER_DELETE("DELETE", COURIER_DELETE_ENDPOINT, true),
+    ORDER_CREATE("POST", ORDER_CREATE_ENDPOINT, false),
+    ORDER_INFO("GET", ORDER_INFO_ENDPOINT, true),
+    ORDER_LIST("GET", ORDER_LIST_ENDPOINT, true),
+    ORDER_CANCEL("PUT", ORDER_CANCEL_ENDPOINT, true);
+
+    private final String method;
+    private final String path;
+    private final boolean idempotent;
+    @Getter(AccessLevel.NONE)
+    private final Pattern pattern;
+
+    Endpoint(String method, String path, boolean idempotent) {
+        this.method = method;
+        this.path = path;
+        this.idempotent = idempotent;
+        // шаблон пути без ведущего слэша, вместо %d подходит любое число
+        this.pattern = Pattern.compile(Pattern.quote(trimSlash(path)).replace("%d", "\\E\\d+\\Q"));
+    }
+
+    // Ручка по HTTP-методу и фактическому пути запроса; null, если путь не относится к сервису
+    public static Endpoint resolve(String method, String requestPath) {
+        String normalized = trimSlash(requestPath);
+        for (Endpoint endpoint : values()) {
+            if (endpoint.method.equalsIgnoreCase(method) && endpoint.pattern.matcher(normalized).matches()) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    // Безопасный запрос только читает данные: его копия не меняет ни состояние сервера, ни ответ основного запроса
+    public boolean isSafe() {
+        return "GET".equals(method);
+    }
+
+    private static String trimSlash(String path) {
+        int query = path.indexOf('?');
+        String withoutQuery = query >= 0 ? path.substring(0, query) : path;
+        return withoutQuery.startsWith("/") ? withoutQuery.substring(1) : withoutQuery;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + path;
+    }
+}
@@ -0,0 +1,13 @@
+package service;
+
+import lombok.*;
+
+// Ответ на логин курьера. При ошибке сервис заполняет code и message
+@Getter
+@Setter
+@NoArgsConstructor
+public class LoginResult {
+    private Integer id;
+    private Integer code;
+    private String message;
+}
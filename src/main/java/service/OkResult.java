@@ -0,0 +1,13 @@
+package service;
+
+import lombok.*;
+
+// Ответ с признаком успешного выполнения (создание и удаление курьера, отмена заказа). При ошибке сервис заполняет code и message
+@Getter
+@Setter
+@NoArgsConstructor
+public class OkResult {
+    private Boolean ok;
+    private Integer code;
+    private String message;
+}
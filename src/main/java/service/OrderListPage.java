@@ -0,0 +1,13 @@
+package service;
+
+import lombok.*;
+import java.util.List;
+
+// Одна страница списка заказов /api/v1/orders
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrderListPage {
+    private List<OrderView> orders;
+    private PageInfo pageInfo;
+}
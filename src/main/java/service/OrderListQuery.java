@@ -0,0 +1,44 @@
+package service;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Параметры запроса списка заказов /api/v1/orders: фильтры и размер страницы
+@Getter
+@Builder(toBuilder = true)
+public class OrderListQuery {
+    // заказы конкретного курьера
+    private final Integer courierId;
+    // номера станций метро, рядом с которыми ищем заказы
+    private final List<String> nearestStation;
+    // размер страницы
+    @Builder.Default private final int limit = 30;
+    // номер первой страницы
+    @Builder.Default private final int page = 0;
+
+    public static OrderListQuery all() {
+        return OrderListQuery.builder().build();
+    }
+
+    // Строка параметров запроса для указанной страницы
+    public String toQueryString(int pageNumber) {
+        StringBuilder query = new StringBuilder("limit=").append(limit).append("&page=").append(pageNumber);
+        if (courierId != null) {
+            query.append("&courierId=").append(courierId);
+        }
+        if (nearestStation != null && !nearestStation.isEmpty()) {
+            // сервис ожидает массив в формате JSON: ["1", "2"]
+            StringBuilder stations = new StringBuilder("[");
+            for (int i = 0; i < nearestStation.size(); i++) {
+                stations.append(i == 0 ? "" : ", ").append('"').append(nearestStation.get(i)).append('"');
+            }
+            stations.append(']');
+            query.append("&nearestStation=").append(URLEncoder.encode(stations.toString(), StandardCharsets.UTF_8));
+        }
+        return query.toString();
+    }
+}
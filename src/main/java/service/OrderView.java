@@ -0,0 +1,26 @@
+package service;
+
+import lombok.*;
+import java.util.List;
+
+// Заказ в том виде, в котором его возвращает список заказов /api/v1/orders
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrderView {
+    private int id;
+    private Integer courierId;
+    private String firstName;
+    private String lastName;
+    private String address;
+    private String metroStation;
+    private String phone;
+    private int rentTime;
+    private String deliveryDate;
+    private int track;
+    private List<String> color;
+    private String comment;
+    private String createdAt;
+    private String updatedAt;
+    private int status;
+}
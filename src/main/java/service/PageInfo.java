@@ -0,0 +1,14 @@
+package service;
+
+import lombok.*;
+
+// Информация о странице списка заказов
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageInfo {
+    private int page;
+    private int total;
+    private int limit;
+}
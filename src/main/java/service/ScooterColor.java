@@ -0,0 +1,32 @@
+package service;
+
+import java.util.List;
+
+// Цвета самоката, которые принимает ручка создания заказа
+public enum ScooterColor {
+    BLACK,
+    GREY;
+
+    // Набор цветов в виде битовой маски; -1 — в списке есть значение, которого нет среди цветов,
+    // повтор или цвета идут не в порядке объявления: такой список маска не восстанавливает
+    public static int mask(List<String> colors) {
+        int mask = 0;
+        int previous = -1;
+        for (String color : colors) {
+            int ordinal;
+            if (BLACK.name().equals(color)) {
+                ordinal = BLACK.ordinal();
+            } else if (GREY.name().equals(color)) {
+                ordinal = GREY.ordinal();
+            } else {
+                return -1;
+            }
+            if (ordinal <= previous) {
+                return -1;
+            }
+            previous = ordinal;
+            mask |= 1 << ordinal;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,13 @@
+package service;
+
+import lombok.*;
+
+// Ответ на создание заказа. При ошибке сервис заполняет code и message
+@Getter
+@Setter
+@NoArgsConstructor
+public class TrackResult {
+    private Integer track;
+    private Integer code;
+    private String message;
+}
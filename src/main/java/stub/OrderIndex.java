@@ -0,0 +1,55 @@
+package stub;
+
+import service.OrderView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Заказы одной выборки (все или одной станции метро) в порядке id. Индекс — неблокирующий
+// ConcurrentSkipListMap: создание и отмена заказа стоят O(log n) и не ждут друг друга,
+// а страница собирается обходом индекса с начала, без общей блокировки
+final class OrderIndex {
+    private final ConcurrentSkipListMap<Integer, OrderView> orders = new ConcurrentSkipListMap<>();
+    // размер ConcurrentSkipListMap считается обходом, поэтому он хранится отдельно
+    private final AtomicInteger size = new AtomicInteger();
+
+    void add(OrderView order) {
+        if (orders.putIfAbsent(order.getId(), order) == null) {
+            size.incrementAndGet();
+        }
+    }
+
+    void remove(OrderView order) {
+        if (orders.remove(order.getId(), order)) {
+            size.decrementAndGet();
+        }
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    // Не больше limit заказов, начиная с заказа номер skip. Обходятся только первые skip + limit заказов;
+    // при параллельных изменениях страница слабо согласована, как и любой обход ConcurrentSkipListMap
+    List<OrderView> page(int skip, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        Iterator<OrderView> iterator = orders.values().iterator();
+        for (int skipped = 0; skipped < skip; skipped++) {
+            if (!iterator.hasNext()) {
+                return Collections.emptyList();
+            }
+            iterator.next();
+        }
+        List<OrderView> page = new ArrayList<>(Math.min(limit, 64));
+        while (page.size() < limit && iterator.hasNext()) {
+            page.add(iterator.next());
+        }
+        return page;
+    }
+}
@@ -0,0 +1,384 @@
+package stub;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import service.Courier;
+import service.Order;
+import service.OrderView;
+import service.PageInfo;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Встроенная замена сервиса самокатов для офлайн-прогонов: реализует ручки курьеров и заказов
+// с теми же статус-кодами и сообщениями, которые проверяют тесты. Данные хранятся в памяти
+// в сегментированных хранилищах: курьеры по логину (и по id для удаления), заказы по треку.
+// Как и на стенде, заранее заведён курьер Luigi, на котором CourierCreatingTest проверяет занятый логин.
+// Ручки принятия заказа курьером нет, поэтому заказы курьерам не назначаются и список заказов
+// с фильтром courierId всегда пуст: функциональные проверки заказов конкретного курьера
+// против замены не выполняются
+public class ScooterStandIn implements AutoCloseable {
+    private static final Gson GSON = new Gson();
+    private static final String NOT_ENOUGH_TO_CREATE = "Недостаточно данных для создания учетной записи";
+    private static final String NOT_ENOUGH_TO_LOGIN = "Недостаточно данных для входа";
+    // логин, который на стенде уже занят и на котором тесты проверяют отказ 409
+    private static final String FIXTURE_LOGIN = "Luigi";
+
+    static {
+        // без этого сервер отправляет заголовки и тело разными пакетами с задержкой по алгоритму Нейгла
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private final ShardedStore<String, StoredCourier> couriersByLogin;
+    private final ShardedStore<Integer, StoredCourier> couriersById;
+    private final ShardedStore<Integer, OrderView> ordersByTrack;
+    // заказы в порядке id для постраничной выдачи списка: все и по станциям метро
+    private final OrderIndex orders = new OrderIndex();
+    private final ShardedStore<String, OrderIndex> ordersByStation;
+    private final AtomicInteger courierIds = new AtomicInteger();
+    private final AtomicInteger orderIds = new AtomicInteger();
+    private final AtomicInteger tracks = new AtomicInteger(100_000);
+
+    // port 0 — выбрать свободный порт
+    public ScooterStandIn(int port, int threads) throws IOException {
+        int shards = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+        this.couriersByLogin = new ShardedStore<>(shards);
+        this.couriersById = new ShardedStore<>(shards);
+        this.ordersByTrack = new ShardedStore<>(shards);
+        this.ordersByStation = new ShardedStore<>(shards);
+        addCourier(FIXTURE_LOGIN, "1234", "Луиджи");
+
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 4096);
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "stand-in-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/api/v1/courier", this::handleCourier);
+        server.createContext("/api/v1/courier/login", this::handleLogin);
+        server.createContext("/api/v1/orders", this::handleOrders);
+        server.createContext("/api/v1/orders/track", this::handleOrderInfo);
+        server.createContext("/api/v1/orders/cancel", this::handleCancel);
+    }
+
+    public static ScooterStandIn start(int port) throws IOException {
+        ScooterStandIn standIn = new ScooterStandIn(port, Runtime.getRuntime().availableProcessors() * 2);
+        standIn.server.start();
+        return standIn;
+    }
+
+    // Адрес в том же виде, что и ServiceLinks.BASE_URI
+    public String getBaseUri() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    public long getCourierCount() {
+        return couriersByLogin.size();
+    }
+
+    public long getOrderCount() {
+        return ordersByTrack.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private StoredCourier addCourier(String login, String password, String firstName) {
+        StoredCourier stored = new StoredCourier(courierIds.incrementAndGet(), login, password, firstName);
+        if (couriersByLogin.putIfAbsent(stored.login, stored) != null) {
+            return null;
+        }
+        couriersById.putIfAbsent(stored.id, stored);
+        return stored;
+    }
+
+    // POST /api/v1/courier — создание, DELETE /api/v1/courier/:id — удаление
+    private void handleCourier(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        if ("POST".equals(method) && path.equals("/api/v1/courier")) {
+            Courier courier = readBody(exchange, Courier.class);
+            if (courier == null || isBlank(courier.getLogin()) || isBlank(courier.getPassword())) {
+                sendError(exchange, 400, NOT_ENOUGH_TO_CREATE);
+                return;
+            }
+            if (addCourier(courier.getLogin(), courier.getPassword(), courier.getFirstName()) == null) {
+                sendError(exchange, 409, "Этот логин уже используется");
+                return;
+            }
+            send(exchange, 201, Map.of("ok", true));
+        } else if ("DELETE".equals(method) && path.startsWith("/api/v1/courier/")) {
+            Integer id = parseInt(path.substring("/api/v1/courier/".length()));
+            if (id == null) {
+                sendError(exchange, 400, "Недостаточно данных для удаления курьера");
+                return;
+            }
+            StoredCourier stored = couriersById.remove(id);
+            if (stored == null) {
+                sendError(exchange, 404, "Курьера с таким id нет.");
+                return;
+            }
+            couriersByLogin.remove(stored.login, stored);
+            send(exchange, 200, Map.of("ok", true));
+        } else {
+            sendError(exchange, 404, "Not Found.");
+        }
+    }
+
+    // POST /api/v1/courier/login
+    private void handleLogin(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            sendError(exchange, 404, "Not Found.");
+            return;
+        }
+        Courier courier = readBody(exchange, Courier.class);
+        if (courier == null || isBlank(courier.getLogin()) || isBlank(courier.getPassword())) {
+            sendError(exchange, 400, NOT_ENOUGH_TO_LOGIN);
+            return;
+        }
+        StoredCourier stored = couriersByLogin.get(courier.getLogin());
+        if (stored == null || !stored.password.equals(courier.getPassword())) {
+            sendError(exchange, 404, "Учетная запись не найдена");
+            return;
+        }
+        send(exchange, 200, Map.of("id", stored.id));
+    }
+
+    // POST /api/v1/orders — создание, GET /api/v1/orders — список
+    private void handleOrders(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        if ("POST".equals(method)) {
+            Order order = readBody(exchange, Order.class);
+            if (order == null) {
+                sendError(exchange, 400, "Недостаточно данных для создания заказа");
+                return;
+            }
+            OrderView stored = toView(order, orderIds.incrementAndGet(), tracks.incrementAndGet());
+            // заказ попадает в индексы раньше, чем его трек становится виден отмене
+            orders.add(stored);
+            ordersByStation.computeIfAbsent(stored.getMetroStation(), station -> new OrderIndex()).add(stored);
+            ordersByTrack.putIfAbsent(stored.getTrack(), stored);
+            send(exchange, 201, Map.of("track", stored.getTrack()));
+        } else if ("GET".equals(method)) {
+            listOrders(exchange, query(exchange));
+        } else {
+            sendError(exchange, 404, "Not Found.");
+        }
+    }
+
+    private void listOrders(HttpExchange exchange, Map<String, String> query) throws IOException {
+        int limit = parseIntOrDefault(query.get("limit"), 30);
+        int page = parseIntOrDefault(query.get("page"), 0);
+        Integer courierId = parseInt(query.get("courierId"));
+        if (query.containsKey("courierId") && (courierId == null || couriersById.get(courierId) == null)) {
+            sendError(exchange, 404, String.format("Курьер с идентификатором %s не найден", query.get("courierId")));
+            return;
+        }
+        Set<String> stations = null;
+        if (query.get("nearestStation") != null) {
+            try {
+                stations = new HashSet<>(GSON.fromJson(query.get("nearestStation"),
+                        new TypeToken<List<String>>() { }.getType()));
+            } catch (JsonParseException e) {
+                sendError(exchange, 400, "Неверный формат списка станций");
+                return;
+            }
+        }
+
+        // заказы выдаются в порядке id. Замена не назначает заказы курьерам, поэтому у курьера их нет;
+        // иначе страница берётся из индекса всех заказов или индексов выбранных станций
+        List<OrderView> found;
+        int total;
+        int skip = (int) Math.max(0, Math.min(Integer.MAX_VALUE, (long) page * limit));
+        if (courierId != null) {
+            found = Collections.emptyList();
+            total = 0;
+        } else if (stations == null) {
+            found = orders.page(skip, limit);
+            total = orders.size();
+        } else {
+            List<OrderIndex> indexes = new ArrayList<>();
+            for (String station : stations) {
+                OrderIndex index = ordersByStation.get(station);
+                if (index != null) {
+                    indexes.add(index);
+                }
+            }
+            found = stationsPage(indexes, skip, limit);
+            total = indexes.stream().mapToInt(OrderIndex::size).sum();
+        }
+        Map<String, Object> body = new HashMap<>();
+        body.put("orders", found);
+        body.put("pageInfo", new PageInfo(page, total, limit));
+        body.put("availableStations", Collections.emptyList());
+        send(exchange, 200, body);
+    }
+
+    // Страница объединения станций: у каждой станции берутся первые skip + limit заказов,
+    // они сливаются по id, и из результата вырезается страница; остальные заказы станций не просматриваются
+    private static List<OrderView> stationsPage(List<OrderIndex> indexes, int skip, int limit) {
+        if (indexes.size() == 1) {
+            return indexes.get(0).page(skip, limit);
+        }
+        int prefix = (int) Math.min(Integer.MAX_VALUE, (long) skip + limit);
+        List<OrderView> merged = new ArrayList<>();
+        for (OrderIndex index : indexes) {
+            merged.addAll(index.page(0, prefix));
+        }
+        merged.sort(Comparator.comparingInt(OrderView::getId));
+        if (skip >= merged.size()) {
+            return Collections.emptyList();
+        }
+        return merged.subList(skip, Math.min(merged.size(), prefix));
+    }
+
+    // GET /api/v1/orders/track?t=
+    private void handleOrderInfo(HttpExchange exchange) throws IOException {
+        Integer track = parseInt(query(exchange).get("t"));
+        if (track == null) {
+            sendError(exchange, 400, "Недостаточно данных для поиска");
+            return;
+        }
+        OrderView order = ordersByTrack.get(track);
+        if (order == null) {
+            sendError(exchange, 404, "Заказ не найден");
+            return;
+        }
+        send(exchange, 200, Map.of("order", order));
+    }
+
+    // PUT /api/v1/orders/cancel?track=
+    private void handleCancel(HttpExchange exchange) throws IOException {
+        Integer track = parseInt(query(exchange).get("track"));
+        if (track == null) {
+            sendError(exchange, 400, "Недостаточно данных для поиска");
+            return;
+        }
+        OrderView order = ordersByTrack.remove(track);
+        if (order == null) {
+            sendError(exchange, 404, "Заказ не найден");
+            return;
+        }
+        orders.remove(order);
+        ordersByStation.get(order.getMetroStation()).remove(order);
+        send(exchange, 200, Map.of("ok", true));
+    }
+
+    private static OrderView toView(Order order, int id, int track) {
+        OrderView view = new OrderView();
+        view.setId(id);
+        view.setTrack(track);
+        view.setFirstName(order.getFirstName());
+        view.setLastName(order.getLastName());
+        view.setAddress(order.getAddress());
+        view.setMetroStation(String.valueOf(order.getMetroStation()));
+        view.setPhone(order.getPhone());
+        view.setRentTime(order.getRentTime());
+        view.setDeliveryDate(order.getDeliveryDate());
+        view.setComment(order.getComment());
+        view.setColor(order.getColor());
+        String now = Instant.now().toString();
+        view.setCreatedAt(now);
+        view.setUpdatedAt(now);
+        return view;
+    }
+
+    private static <T> T readBody(HttpExchange exchange, Class<T> type) {
+        try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            return GSON.fromJson(reader, type);
+        } catch (IOException | JsonParseException e) {
+            return null;
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int statusCode, String message) throws IOException {
+        send(exchange, statusCode, Map.of("code", statusCode, "message", message));
+    }
+
+    private static void send(HttpExchange exchange, int statusCode, Object body) throws IOException {
+        byte[] bytes = GSON.toJson(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        String raw = exchange.getRequestURI().getRawQuery();
+        Map<String, String> query = new HashMap<>();
+        if (raw == null || raw.isEmpty()) {
+            return query;
+        }
+        for (String pair : raw.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator >= 0 ? pair.substring(0, separator) : pair;
+            String value = separator >= 0 ? pair.substring(separator + 1) : "";
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static Integer parseInt(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int parseIntOrDefault(String value, int defaultValue) {
+        Integer parsed = parseInt(value);
+        return parsed == null || parsed < 0 ? defaultValue : parsed;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    private static final class StoredCourier {
+        private final int id;
+        private final String login;
+        private final String password;
+        private final String firstName;
+
+        private StoredCourier(int id, String login, String password, String firstName) {
+            this.id = id;
+            this.login = login;
+            this.password = password;
+            this.firstName = firstName;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package stub;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Хранилище, разбитое на независимые сегменты по хешу ключа, чтобы потоки,
+// работающие с разными ключами, не конкурировали за одни и те же участки таблицы
+class ShardedStore<K, V> {
+    private final ConcurrentHashMap<K, V>[] shards;
+    private final int mask;
+
+    @SuppressWarnings("unchecked")
+    ShardedStore(int shardCount) {
+        // число сегментов округляется вверх до степени двойки
+        int size = Integer.highestOneBit(Math.max(1, shardCount - 1)) << 1;
+        this.shards = (ConcurrentHashMap<K, V>[]) new ConcurrentHashMap<?, ?>[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    private ConcurrentHashMap<K, V> shard(Object key) {
+        int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    V get(K key) {
+        return shard(key).get(key);
+    }
+
+    // null — значение добавлено; иначе возвращается уже существующее
+    V putIfAbsent(K key, V value) {
+        return shard(key).putIfAbsent(key, value);
+    }
+
+    V computeIfAbsent(K key, Function<K, V> factory) {
+        return shard(key).computeIfAbsent(key, factory);
+    }
+
+    V remove(K key) {
+        return shard(key).remove(key);
+    }
+
+    boolean remove(K key, V value) {
+        return shard(key).remove(key, value);
+    }
+
+    long size() {
+        long size = 0;
+        for (ConcurrentHashMap<K, V> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,12 @@
+package stub;
+
+// Запуск замены сервиса отдельным процессом: mvn -Pload compile exec:java -Dexec.mainClass=stub.StandInMain -Dstub.port=8080
+public class StandInMain {
+
+    public static void main(String[] args) throws Exception {
+        ScooterStandIn standIn = ScooterStandIn.start(Integer.getInteger("stub.port", 8080));
+        Runtime.getRuntime().addShutdownHook(new Thread(standIn::close));
+        System.out.println("Замена сервиса самокатов запущена: " + standIn.getBaseUri());
+        Thread.currentThread().join();
+    }
+}
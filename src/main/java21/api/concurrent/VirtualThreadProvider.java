@@ -0,0 +1,18 @@
+package api.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Виртуальные потоки Java 21; загружается TaskThreads по имени, только при -Dapi.threads=virtual
+class VirtualThreadProvider implements ThreadProvider {
+
+    @Override
+    public ExecutorService newPerTaskExecutor(String name) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+    }
+
+    @Override
+    public boolean isVirtual() {
+        return true;
+    }
+}
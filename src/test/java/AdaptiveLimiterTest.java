@@ -0,0 +1,184 @@
+import api.limit.AdaptiveLimiter;
+import api.limit.ConcurrencyLimitException;
+import api.limit.EndpointGroup;
+import api.limit.LimitPermit;
+import api.limit.LimitSettings;
+import io.qameta.allure.Description;
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AdaptiveLimiterTest {
+
+    @Test
+    @DisplayName("Лимит растёт, пока ответы быстрее цели.")
+    @Description("Успешные ответы при занятом лимите увеличивают его примерно на единицу за каждые limit ответов, " +
+            "но не выше maxLimit.")
+    public void additiveIncreaseTest() {
+        AdaptiveLimiter limiter = limiter(settings().initialLimit(4).maxLimit(6));
+        for (int round = 0; round < 20; round++) {
+            List<LimitPermit> permits = new ArrayList<>();
+            for (int i = 0; i < limiter.getLimit(); i++) {
+                LimitPermit permit = limiter.acquire();
+                permit.start();
+                permits.add(permit);
+            }
+            permits.forEach(permit -> permit.release(false));
+        }
+        assertEquals(6, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Перегрузка уменьшает лимит один раз на поколение.")
+    @Description("Первый ответ 5xx уменьшает лимит в backoffRatio раз; запросы, отправленные до уменьшения, " +
+            "его не повторяют, а следующий отправленный после уменьшения — повторяет, не ниже minLimit.")
+    public void multiplicativeDecreaseTest() {
+        AdaptiveLimiter limiter = limiter(settings().initialLimit(8).minLimit(3));
+        LimitPermit first = limiter.acquire();
+        LimitPermit second = limiter.acquire();
+        first.start();
+        second.start();
+
+        first.release(true);
+        assertEquals(4, limiter.getLimit());
+        second.release(true);
+        assertEquals(4, limiter.getLimit());
+
+        LimitPermit third = limiter.acquire();
+        third.start();
+        third.release(true);
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Неначатая отправка не меняет лимит.")
+    @Description("Место, освобождённое до start(), возвращается без подбора лимита, даже с признаком перегрузки.")
+    public void notStartedPermitTest() {
+        AdaptiveLimiter limiter = limiter(settings().initialLimit(8));
+        LimitPermit permit = limiter.acquire();
+        permit.release(true);
+        permit.release(true);
+        assertEquals(8, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Запрос сверх лимита отклоняется после maxWaitMillis.")
+    @Description("Синхронный acquire() при занятом лимите ждёт не дольше maxWaitMillis " +
+            "и завершается ConcurrencyLimitException.")
+    public void rejectTest() {
+        AdaptiveLimiter limiter = limiter(settings().initialLimit(1).minLimit(1).maxWaitMillis(20));
+        LimitPermit held = limiter.acquire();
+        try {
+            limiter.acquire();
+            fail("Ожидался отказ по лимиту");
+        } catch (ConcurrencyLimitException e) {
+            assertEquals(1, limiter.getRejected());
+        }
+        held.release(false);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Асинхронный запрос ждёт места в очереди.")
+    @Description("acquireAsync() при занятом лимите возвращает незавершённый future, " +
+            "который получает место, как только оно освобождается.")
+    public void asyncQueueTest() {
+        AdaptiveLimiter limiter = limiter(settings().initialLimit(1).minLimit(1));
+        LimitPermit held = limiter.acquire();
+        CompletableFuture<LimitPermit> first = limiter.acquireAsync();
+        CompletableFuture<LimitPermit> second = limiter.acquireAsync();
+        assertFalse(first.isDone());
+
+        held.release(false);
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+        assertEquals(1, limiter.getInFlight());
+
+        first.join().release(false);
+        assertTrue(second.isDone());
+        second.join().release(false);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Просроченное асинхронное ожидание отклоняется и не занимает место.")
+    @Description("Через maxWaitMillis future из очереди завершается ConcurrencyLimitException, " +
+            "а освободившееся потом место не достаётся просроченному ожиданию.")
+    public void asyncExpiryTest() throws InterruptedException {
+        AdaptiveLimiter limiter = limiter(settings().initialLimit(1).minLimit(1).maxWaitMillis(20));
+        LimitPermit held = limiter.acquire();
+        CompletableFuture<LimitPermit> waiter = limiter.acquireAsync();
+        try {
+            waiter.join();
+            fail("Ожидался отказ по лимиту");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof ConcurrencyLimitException);
+        }
+        // отказ учитывается в потоке планировщика сразу после завершения future
+        for (int i = 0; i < 100 && limiter.getRejected() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, limiter.getRejected());
+
+        held.release(false);
+        assertEquals(0, limiter.getInFlight());
+        assertTrue(limiter.acquireAsync().isDone());
+    }
+
+    @Test
+    @DisplayName("Закрытый лимит отказывает ждущим и новым запросам.")
+    @Description("close() будит ждущий поток и завершает асинхронные ожидания ConcurrencyLimitException, " +
+            "не дожидаясь maxWaitMillis; место, занятое до закрытия, освобождается как обычно.")
+    public void closeTest() throws Exception {
+        AdaptiveLimiter limiter = limiter(settings().initialLimit(1).minLimit(1).maxWaitMillis(60_000));
+        LimitPermit held = limiter.acquire();
+        CompletableFuture<LimitPermit> asyncWaiter = limiter.acquireAsync();
+        CompletableFuture<LimitPermit> syncWaiter = CompletableFuture.supplyAsync(limiter::acquire);
+        // даём потоку встать в ожидание; успел он или нет, после закрытия он получает отказ
+        Thread.sleep(50);
+        assertFalse(syncWaiter.isDone());
+
+        limiter.close();
+        for (CompletableFuture<LimitPermit> waiter : List.of(asyncWaiter, syncWaiter)) {
+            try {
+                waiter.get(5, TimeUnit.SECONDS);
+                fail("Ожидался отказ закрытого лимита");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof ConcurrencyLimitException);
+            }
+        }
+        try {
+            limiter.acquire();
+            fail("Ожидался отказ закрытого лимита");
+        } catch (ConcurrencyLimitException e) {
+            // ожидаемо: новые запросы после закрытия не пропускаются
+        }
+        assertTrue(limiter.acquireAsync().isCompletedExceptionally());
+
+        held.release(false);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private static LimitSettings.LimitSettingsBuilder settings() {
+        return LimitSettings.defaults().toBuilder()
+                .backoffRatio(0.5)
+                .targetLatencyMillis(10_000);
+    }
+
+    private static AdaptiveLimiter limiter(LimitSettings.LimitSettingsBuilder settings) {
+        return new AdaptiveLimiter(EndpointGroup.ORDERS, settings.build());
+    }
+}
@@ -0,0 +1,75 @@
+import api.concurrent.AsyncSemaphore;
+import io.qameta.allure.Description;
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncSemaphoreTest {
+
+    @Test
+    @DisplayName("Ожидание места в окне не занимает поток.")
+    @Description("Когда разрешений нет, acquire() сразу возвращает незавершённый future, " +
+            "а release() передаёт разрешение ожидающим в порядке очереди.")
+    public void waitersAreGrantedInOrderTest() {
+        AsyncSemaphore semaphore = new AsyncSemaphore(1);
+        assertTrue(semaphore.acquire().isDone());
+
+        CompletableFuture<Void> first = semaphore.acquire();
+        CompletableFuture<Void> second = semaphore.acquire();
+        assertFalse(first.isDone());
+        assertEquals(2, semaphore.getQueueLength());
+
+        semaphore.release();
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+
+        semaphore.release();
+        semaphore.release();
+        assertTrue(second.isDone());
+        assertEquals(1, semaphore.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Отменённое ожидание не теряет разрешение.")
+    @Description("Разрешение, освобождённое для отменённого ожидания, достаётся следующему в очереди.")
+    public void cancelledWaiterIsSkippedTest() {
+        AsyncSemaphore semaphore = new AsyncSemaphore(0);
+        CompletableFuture<Void> cancelled = semaphore.acquire();
+        CompletableFuture<Void> next = semaphore.acquire();
+        cancelled.cancel(false);
+
+        semaphore.release();
+        assertTrue(next.isDone());
+        assertFalse(next.isCompletedExceptionally());
+        assertEquals(0, semaphore.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Прерванное синхронное ожидание уходит из очереди.")
+    @Description("Прерывание потока в acquireBlocking() отменяет ожидание, и освобождённое разрешение " +
+            "возвращается семафору.")
+    public void interruptedBlockingAcquireTest() throws Exception {
+        AsyncSemaphore semaphore = new AsyncSemaphore(0);
+        Thread waiter = new Thread(() -> {
+            try {
+                semaphore.acquireBlocking();
+            } catch (InterruptedException e) {
+                // ожидаемо
+            }
+        });
+        waiter.start();
+        while (semaphore.getQueueLength() == 0) {
+            Thread.sleep(1);
+        }
+        waiter.interrupt();
+        waiter.join(5_000);
+
+        semaphore.release();
+        assertEquals(1, semaphore.availablePermits());
+    }
+}
@@ -0,0 +1,107 @@
+import api.resilience.CircuitBreaker;
+import api.resilience.ResilienceSettings;
+import io.qameta.allure.Description;
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CircuitBreakerTest {
+    private static final long OPEN_MILLIS = 50;
+
+    private final ResilienceSettings settings = ResilienceSettings.builder()
+            .breakerWindow(4)
+            .breakerMinCalls(4)
+            .breakerFailureRate(0.5)
+            .breakerOpenMillis(OPEN_MILLIS)
+            .breakerProbes(2)
+            .build();
+
+    @Test
+    @DisplayName("Выключатель размыкается при доле ошибок не ниже порога.")
+    @Description("Пока в окне меньше breakerMinCalls ответов, выключатель замкнут; " +
+            "две ошибки из четырёх ответов размыкают его, и запросы отклоняются.")
+    public void opensAtFailureRateTest() {
+        CircuitBreaker breaker = new CircuitBreaker(settings);
+        breaker.onResult(true);
+        breaker.onResult(true);
+        breaker.onResult(false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onResult(false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Старые исходы вытесняются из окна.")
+    @Description("Ошибка, вытесненная из окна успешными ответами, больше не учитывается в доле ошибок.")
+    public void slidingWindowTest() {
+        CircuitBreaker breaker = new CircuitBreaker(settings);
+        breaker.onResult(true);
+        breaker.onResult(false);
+        breaker.onResult(false);
+        breaker.onResult(false);
+        // окно: ошибка вытеснена, в нём одна ошибка из четырёх
+        breaker.onResult(false);
+        breaker.onResult(true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("Успешные пробные запросы замыкают выключатель.")
+    @Description("После breakerOpenMillis выключатель пропускает ровно breakerProbes пробных запросов " +
+            "и замыкается, когда все они успешны.")
+    public void halfOpenProbesCloseTest() throws InterruptedException {
+        CircuitBreaker breaker = openedBreaker();
+        Thread.sleep(OPEN_MILLIS + 10);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onResult(false);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onResult(false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Неудачный пробный запрос снова размыкает выключатель.")
+    @Description("Одна ошибка среди пробных запросов возвращает выключатель в разомкнутое состояние.")
+    public void halfOpenFailureReopensTest() throws InterruptedException {
+        CircuitBreaker breaker = openedBreaker();
+        Thread.sleep(OPEN_MILLIS + 10);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Выключатель с пустым окном не срабатывает.")
+    @Description("breakerWindow = 0 выключает выключатель: запросы пропускаются при любом числе ошибок.")
+    public void disabledBreakerTest() {
+        CircuitBreaker breaker = new CircuitBreaker(ResilienceSettings.disabled());
+        for (int i = 0; i < 100; i++) {
+            breaker.onResult(true);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    private CircuitBreaker openedBreaker() {
+        CircuitBreaker breaker = new CircuitBreaker(settings);
+        for (int i = 0; i < 4; i++) {
+            breaker.onResult(true);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+}
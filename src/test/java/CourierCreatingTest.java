@@ -1,32 +1,24 @@
+import api.ApiResponse;
 import api.CourierAPI;
+import fixtures.TestDataGenerator;
 import service.Courier;
-import service.ServiceLinks;
+import service.OkResult;
 import io.qameta.allure.Description;
 import io.qameta.allure.junit4.DisplayName;
-import io.restassured.RestAssured;
-import io.restassured.response.Response;
-import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import static org.apache.http.HttpStatus.*;
-import net.datafaker.Faker;
 
 public class CourierCreatingTest {
 
+    // созданных курьеров удаляет в фоне CleanupRegistry, поэтому @After здесь не нужен
     private Courier courier;
-    private int courierId;
     private CourierAPI courierAPI= new CourierAPI();
-    private Faker faker = new Faker();
 
     @Before
     public void preconditions () {
-        RestAssured.baseURI = ServiceLinks.BASE_URI;
-
         // Создали json с курьером с рандомными данными
-        String login = faker.name().username();
-        String password = faker.internet().password(3,10);
-        String firstName = faker.name().firstName();
-        courier = new Courier (login, password, firstName);
+        courier = TestDataGenerator.current().courier();
     }
 
     @Test
@@ -36,15 +28,11 @@ public class CourierCreatingTest {
             "Проверяется статус-код и тело ответа.")
     public void courierCreatingWithAllFieldsTest () {
         // Отправляем запрос и сохраняем его в переменную
-        Response responseCreate = courierAPI.postForCourierCreating (courier);
+        ApiResponse<OkResult> responseCreate = courierAPI.postForCourierCreating (courier);
 
         // Проверили статус-код ответа
         courierAPI.assertStatusCode (responseCreate, SC_CREATED);
 
-        // Получили ID клиента для последующего удаления
-        Response responseLogin = courierAPI.postForLogin(courier);
-        courierId = courierAPI.getCourierId(responseLogin);
-
         // Проверили тело ответа на соответствие документации
         String responseBodyKey = "ok";
         String expectedKeyValue = "true";
@@ -56,22 +44,18 @@ public class CourierCreatingTest {
     @Description ("Убеждаемся, что невозможно создать курьера с логином, который уже зарегистрирован в БД.")
     public void impossibleToUseTheSameLoginTest () {
         // Отправляем запрос и сохраняем его в переменную
-        Response firstResponse = courierAPI.postForCourierCreating (courier);
+        ApiResponse<OkResult> firstResponse = courierAPI.postForCourierCreating (courier);
 
         // Убедились, что курьер создан
         courierAPI.assertStatusCode (firstResponse, SC_CREATED);
 
-        // Получили айди курьера для последующего удаления
-        Response responseLogin = courierAPI.postForLogin(courier);
-        courierId = courierAPI.getCourierId(responseLogin);
-
         System.out.println("Пробуем создать курьера с тем же логином...");
 
         // Создали новый объект с json с аналогичным логином
         Courier sameLoginCourier = new Courier("Luigi", "159159159159", "ЛуиджиЛуиджи");
 
         // Сохранили ответ в переменную
-        Response secondResponse = courierAPI.postForCourierCreating (sameLoginCourier);
+        ApiResponse<OkResult> secondResponse = courierAPI.postForCourierCreating (sameLoginCourier);
 
         // Проверили статус-код ответа на создание дубля курьера
         courierAPI.assertStatusCode (secondResponse, SC_CONFLICT);
@@ -92,13 +76,8 @@ public class CourierCreatingTest {
         courier.setLogin("");
 
         // Отправляем запрос и сохраняем его в переменную
-        Response responseCreate = courierAPI.postForCourierCreating (courier);
+        ApiResponse<OkResult> responseCreate = courierAPI.postForCourierCreating (courier);
 
-        // Если курьер будет создан, то ему присвоится айди, по которому произойдет удаление
-        if (responseCreate.getStatusCode() == SC_CREATED) {
-            Response responseLogin = courierAPI.postForLogin(courier);
-            courierId = courierAPI.getCourierId(responseLogin);
-        }
         // Проверили статус-код ответа на создание курьера без обязательного поля
         courierAPI.assertStatusCode (responseCreate, SC_BAD_REQUEST);
 
@@ -118,13 +97,7 @@ public class CourierCreatingTest {
         courier.setPassword("");
 
         // Отправляем запрос и сохраняем его в переменную
-        Response responseCreate = courierAPI.postForCourierCreating (courier);
-
-        // Если курьер вдруг будет создан, то ему присвоится айди, по которому произойдет удаление
-        if (responseCreate.getStatusCode() == SC_CREATED) {
-            Response responseLogin = courierAPI.postForLogin(courier);
-            courierId = courierAPI.getCourierId(responseLogin);
-        }
+        ApiResponse<OkResult> responseCreate = courierAPI.postForCourierCreating (courier);
 
         // Проверили статус-код ответа на создание курьера без обязательного поля
         courierAPI.assertStatusCode (responseCreate, SC_BAD_REQUEST);
@@ -134,12 +107,4 @@ public class CourierCreatingTest {
         String expectedKeyValue = "Недостаточно данных для создания учетной записи";
         courierAPI.assertResponseBody (responseCreate, responseBodyKey, expectedKeyValue);
     }
-
-    @After
-    public void postconditions () {
-        // удаляем курьера
-        if (courierId != 0) {
-            courierAPI.deleteCourier(courier, courierId);
-        }
-    }
 }
@@ -1,11 +1,11 @@
+import api.ApiResponse;
 import api.CourierAPI;
+import fixtures.CourierLease;
+import fixtures.CourierPool;
 import service.Courier;
-import service.ServiceLinks;
+import service.LoginResult;
 import io.qameta.allure.Description;
 import io.qameta.allure.junit4.DisplayName;
-import io.restassured.RestAssured;
-import io.restassured.response.Response;
-import net.datafaker.Faker;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -15,20 +15,14 @@ import static org.junit.Assert.assertNotNull;
 public class CourierLoginTest {
     private Courier courier;
     private int courierId;
+    private CourierLease lease;
     private CourierAPI courierAPI = new CourierAPI();
-    private Faker faker = new Faker();
 
     @Before
     public void preconditions() {
-        RestAssured.baseURI = ServiceLinks.BASE_URI;
-
-        // Создали json с рандомными данными курьера
-        String login = faker.name().username();
-        String password = faker.internet().password(3,10);
-        courier = new Courier (login, password);
-
-        // Создали курьера
-        courierAPI.postForCourierCreating(courier);
+        // Взяли заранее созданного курьера из пула
+        lease = CourierPool.getDefault().lease();
+        courier = lease.getCourier();
     }
 
     @Test
@@ -38,7 +32,7 @@ public class CourierLoginTest {
             "Проверяется статус-код и тело ответа.")
     public void loginTest() {
         // Отправляем запрос и сохраняем его в переменную
-        Response response = courierAPI.postForLogin(courier);
+        ApiResponse<LoginResult> response = courierAPI.postForLogin(courier);
 
         // Проверили статус-код на соответствие ожиданиям
         courierAPI.assertStatusCode(response, SC_OK);
@@ -57,19 +51,13 @@ public class CourierLoginTest {
     @DisplayName ("Попытка входа без логина.")
     @Description ("Убеждаемся, что невозможно войти в систему с пустым логином.")
     public void requiredLoginFieldTest () {
-        // Отправляем запрос и сохраняем его в переменную
-        Response response = courierAPI.postForLogin(courier);
-
-        // Получили айди курьера для последующего удаления
-        courierId = courierAPI.getCourierId(response);
-
         System.out.println("Пытаемся войти в систему без логина...");
 
         // Очистили логин курьера
         courier.setLogin("");
 
-        // Снова попытались войти
-        Response negativeResponse = courierAPI.postForLogin(courier);
+        // Попытались войти
+        ApiResponse<LoginResult> negativeResponse = courierAPI.postForLogin(courier);
 
         // Проверили статус-код на соответствие ожиданиям
         courierAPI.assertStatusCode(negativeResponse, SC_BAD_REQUEST);
@@ -84,19 +72,13 @@ public class CourierLoginTest {
     @DisplayName ("Попытка входа без пароля.")
     @Description ("Убеждаемся, что невозможно войти в систему с пустым паролем.")
     public void requiredPasswordFieldTest () {
-        // Отправляем запрос и сохраняем его в переменную
-        Response response = courierAPI.postForLogin(courier);
-
-        // Получили айди курьера для последующего удаления
-        courierId = courierAPI.getCourierId(response);
-
         System.out.println("Пытаемся войти в систему без пароля...");
 
         // Очистили пароль курьера
         courier.setPassword("");
 
-        // Снова попытались войти
-        Response negativeResponse = courierAPI.postForLogin(courier);
+        // Попытались войти
+        ApiResponse<LoginResult> negativeResponse = courierAPI.postForLogin(courier);
 
         // Проверили статус-код на соответствие ожиданиям
         courierAPI.assertStatusCode(negativeResponse, SC_BAD_REQUEST);
@@ -111,19 +93,13 @@ public class CourierLoginTest {
     @DisplayName ("Попытка входа с неверным логином.")
     @Description ("Убеждаемся, что невозможно войти в систему с неверным логином.")
     public void wrongLoginFieldTest () {
-        // Отправляем запрос и сохраняем его в переменную
-        Response response = courierAPI.postForLogin(courier);
-
-        // Получили айди курьера для последующего удаления
-        courierId = courierAPI.getCourierId(response);
-
-        System.out.println("Пытаемся снова войти в систему, но с неверным логином...");
+        System.out.println("Пытаемся войти в систему, но с неверным логином...");
 
         // Поменяли логин курьера
         courier.setLogin("LuigiLuigi");
 
-        // Снова попытались войти
-        Response negativeResponse = courierAPI.postForLogin(courier);
+        // Попытались войти
+        ApiResponse<LoginResult> negativeResponse = courierAPI.postForLogin(courier);
 
         // Проверили статус-код на соответствие ожиданиям
         courierAPI.assertStatusCode(negativeResponse, SC_NOT_FOUND);
@@ -138,19 +114,13 @@ public class CourierLoginTest {
     @DisplayName ("Попытка входа с неверным паролем.")
     @Description ("Убеждаемся, что невозможно войти в систему с неверным паролем.")
     public void wrongPasswordFieldTest () {
-        // Отправляем запрос и сохраняем его в переменную
-        Response response = courierAPI.postForLogin(courier);
-
-        // Получили айди курьера для последующего удаления
-        courierId = courierAPI.getCourierId(response);
-
-        System.out.println("Пытаемся снова войти в систему, но с неверным паролем...");
+        System.out.println("Пытаемся войти в систему, но с неверным паролем...");
 
         // Поменяли пароль
         courier.setPassword("159159159159");
 
-        // Снова попытались войти
-        Response negativeResponse = courierAPI.postForLogin(courier);
+        // Попытались войти
+        ApiResponse<LoginResult> negativeResponse = courierAPI.postForLogin(courier);
 
         // Проверили статус-код на соответствие ожиданиям
         courierAPI.assertStatusCode(negativeResponse, SC_NOT_FOUND);
@@ -163,9 +133,9 @@ public class CourierLoginTest {
 
     @After
     public void postconditions() {
-        // удаляем курьера
-        if (courierId != 0) {
-            courierAPI.deleteCourier(courier, courierId);
+        // вернули курьера в пул; удалит его сам пул по окончании прогона
+        if (lease != null) {
+            lease.close();
         }
     }
 }
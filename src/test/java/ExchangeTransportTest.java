@@ -0,0 +1,102 @@
+import api.transport.ExchangeTransport;
+import api.transport.RecordedExchange;
+import io.qameta.allure.Description;
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class ExchangeTransportTest {
+    private static final URI COURIER = URI.create("http://127.0.0.1:8080/api/v1/courier");
+    private static final URI ORDERS = URI.create("http://127.0.0.1:8080/api/v1/orders?limit=2&page=0");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    @DisplayName("Повторный запрос получает ответы в порядке записи.")
+    @Description("n-й одинаковый запрос получает n-й записанный ответ, а после них — последний; " +
+            "записи, дописанные после повторного открытия журнала, тоже воспроизводятся.")
+    public void appendReopenReplayOrderTest() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("exchanges.log");
+        byte[] courier = utf8("{\"login\":\"ivan\",\"password\":\"1234\"}");
+        try (ExchangeTransport transport = ExchangeTransport.record(file)) {
+            transport.record("POST", COURIER, courier, 201, "application/json", utf8("{\"ok\":true}"));
+            transport.record("POST", COURIER, courier, 409, "application/json", utf8("{\"message\":\"занят\"}"));
+        }
+        try (ExchangeTransport transport = ExchangeTransport.record(file)) {
+            transport.record("GET", ORDERS, null, 200, null, utf8("{\"orders\":[]}"));
+        }
+
+        try (ExchangeTransport transport = ExchangeTransport.replay(file)) {
+            assertEquals(201, transport.replay("POST", COURIER, courier).getStatusCode());
+            RecordedExchange second = transport.replay("POST", COURIER, courier);
+            assertEquals(409, second.getStatusCode());
+            assertEquals("{\"message\":\"занят\"}", second.getBodyAsString());
+            assertEquals(409, transport.replay("POST", COURIER, courier).getStatusCode());
+
+            RecordedExchange orders = transport.replay("GET", ORDERS, null);
+            assertEquals(200, orders.getStatusCode());
+            assertNull(orders.getContentType());
+            assertEquals("{\"orders\":[]}", orders.getBodyAsString());
+        }
+    }
+
+    @Test
+    @DisplayName("Ключ обмена не зависит от порядка полей и параметров.")
+    @Description("Порядок параметров запроса, порядок и форматирование полей JSON и дата доставки " +
+            "не меняют ключ, а другое значение поля — меняет.")
+    public void keyNormalizationTest() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("exchanges.log");
+        try (ExchangeTransport transport = ExchangeTransport.record(file)) {
+            transport.record("POST", ORDERS, utf8("{\"firstName\":\"Иван\",\"color\":[\"GREY\"]," +
+                    "\"deliveryDate\":\"2026-01-01\"}"), 201, "application/json", utf8("{\"track\":1}"));
+        }
+
+        try (ExchangeTransport transport = ExchangeTransport.replay(file)) {
+            URI reordered = URI.create("http://localhost/api/v1/orders?page=0&limit=2");
+            byte[] reformatted = utf8("{ \"deliveryDate\": \"2026-12-31\",\n  \"color\": [\"GREY\"], \"firstName\": \"Иван\" }");
+            assertEquals(201, transport.replay("POST", reordered, reformatted).getStatusCode());
+
+            try {
+                transport.replay("POST", ORDERS, utf8("{\"firstName\":\"Пётр\",\"color\":[\"GREY\"]}"));
+                fail("Запрос с другим телом не должен найтись в журнале");
+            } catch (IllegalStateException e) {
+                // ожидаемо: такого запроса не записывали
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Тело не в формате JSON сравнивается по байтам.")
+    @Description("Для тела, которое не разбирается как JSON, ключ строится по его байтам как есть.")
+    public void nonJsonBodyTest() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("exchanges.log");
+        try (ExchangeTransport transport = ExchangeTransport.record(file)) {
+            transport.record("PUT", COURIER, utf8("plain text"), 200, "text/plain", utf8("ok"));
+        }
+
+        try (ExchangeTransport transport = ExchangeTransport.replay(file)) {
+            assertEquals("ok", transport.replay("PUT", COURIER, utf8("plain text")).getBodyAsString());
+            try {
+                transport.replay("PUT", COURIER, utf8("plain  text"));
+                fail("Запрос с другим телом не должен найтись в журнале");
+            } catch (IllegalStateException e) {
+                // ожидаемо: байты тела другие
+            }
+        }
+    }
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
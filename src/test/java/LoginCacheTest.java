@@ -0,0 +1,82 @@
+import api.LoginCache;
+import io.qameta.allure.Description;
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LoginCacheTest {
+
+    @Test
+    @DisplayName("ID курьера отдаётся по логину и паролю.")
+    @Description("После put() ID возвращается только для той же пары логин+пароль; попадания и промахи считаются.")
+    public void putAndGetTest() {
+        LoginCache cache = new LoginCache(16, 60_000);
+        cache.put("ivan", "1234", 7);
+
+        assertEquals(7, cache.get("ivan", "1234"));
+        assertEquals(0, cache.get("ivan", "4321"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Устаревшая запись не отдаётся.")
+    @Description("Запись старше ttl считается промахом и удаляется из кэша.")
+    public void ttlExpiryTest() throws InterruptedException {
+        LoginCache cache = new LoginCache(16, 20);
+        cache.put("ivan", "1234", 7);
+        Thread.sleep(40);
+
+        assertEquals(0, cache.get("ivan", "1234"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("При переполнении вытесняется давно не использованная запись.")
+    @Description("Запись, к которой обращались недавно, остаётся, а самая давняя по обращению — вытесняется.")
+    public void lruEvictionTest() {
+        LoginCache cache = new LoginCache(2, 60_000);
+        cache.put("first", "1", 1);
+        cache.put("second", "2", 2);
+        // обращение делает первую запись самой свежей
+        assertEquals(1, cache.get("first", "1"));
+        cache.put("third", "3", 3);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.get("first", "1"));
+        assertEquals(0, cache.get("second", "2"));
+        assertEquals(3, cache.get("third", "3"));
+    }
+
+    @Test
+    @DisplayName("Удаление курьера сбрасывает все его записи.")
+    @Description("invalidate() убирает записи с ID удалённого курьера, в том числе под разными паролями.")
+    public void invalidateOnDeleteTest() {
+        LoginCache cache = new LoginCache(16, 60_000);
+        cache.put("ivan", "old", 7);
+        cache.put("ivan", "new", 7);
+        cache.put("petr", "1234", 8);
+        cache.invalidate(7);
+
+        assertEquals(0, cache.get("ivan", "old"));
+        assertEquals(0, cache.get("ivan", "new"));
+        assertEquals(8, cache.get("petr", "1234"));
+    }
+
+    @Test
+    @DisplayName("Удаление прежнего курьера не сбрасывает запись, перезаписанную новым ID.")
+    @Description("Пара логин+пароль, сохранённая заново с другим ID, переживает invalidate() прежнего ID " +
+            "и сбрасывается invalidate() нового.")
+    public void invalidateAfterOverwriteTest() {
+        LoginCache cache = new LoginCache(16, 60_000);
+        cache.put("ivan", "1234", 7);
+        cache.put("ivan", "1234", 9);
+        cache.invalidate(7);
+        assertEquals(9, cache.get("ivan", "1234"));
+
+        cache.invalidate(9);
+        assertEquals(0, cache.get("ivan", "1234"));
+        assertEquals(0, cache.size());
+    }
+}
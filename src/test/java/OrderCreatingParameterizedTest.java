@@ -1,33 +1,29 @@
+import api.ApiResponse;
 import api.OrderAPI;
+import fixtures.TestDataGenerator;
 import service.Order;
-import service.ServiceLinks;
+import service.TrackResult;
 import io.qameta.allure.Description;
 import io.qameta.allure.junit4.DisplayName;
-import io.restassured.RestAssured;
-import io.restassured.response.Response;
-import net.datafaker.Faker;
-import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
-import java.time.LocalDate;
 import java.util.List;
-import java.util.Locale;
 
 import static org.junit.Assert.assertEquals;
 import static org.apache.http.HttpStatus.*;
 
 @RunWith(Parameterized.class)
 public class OrderCreatingParameterizedTest {
+    // созданный заказ отменяет в фоне CleanupRegistry, поэтому @After здесь не нужен
     private Order order;
     private int orderTrack;
     private final int expectedStatusCode;
     private final List<String>color;
     private String testName; // Сюда будет записано название теста параметров
     private OrderAPI orderAPI = new OrderAPI();
-    private Faker faker = new Faker(new Locale("ru"));
 
     // конструктор для параметризации
     public OrderCreatingParameterizedTest(List<String>color, int expectedStatusCode, String testName) {
@@ -49,17 +45,8 @@ public class OrderCreatingParameterizedTest {
 
     @Before
     public void preconditions () {
-        RestAssured.baseURI = ServiceLinks.BASE_URI;
         // Создали заказ с json
-        String firstName = faker.name().firstName();
-        String lastName = faker.name().lastName();
-        String address = faker.address().fullAddress();
-        int metroStation = faker.number().numberBetween(1, 20);
-        String phone = faker.phoneNumber().phoneNumber();
-        int rentTime = faker.number().numberBetween(1, 7);
-        String deliveryDate = LocalDate.now().plusDays(7).toString(); // я не понял, как это сделать через faker
-        String comment = faker.lorem().sentence(3);
-        order = new Order(firstName, lastName, address, metroStation, phone, rentTime, deliveryDate, comment, color);
+        order = TestDataGenerator.current().order(color);
     }
 
     @Test
@@ -67,7 +54,7 @@ public class OrderCreatingParameterizedTest {
     @Description ("Позитивная проверка создания заказа со всеми заполненными полями и разными вариантами цвета.")
     public void makeAnOrderTest () {
         // Отправляем запрос и сохраняем его в переменную
-        Response response = orderAPI.makeAnOrder(order);
+        ApiResponse<TrackResult> response = orderAPI.makeAnOrder(order);
 
         // Проверяем соответствие статус-кода
         int actualStatusCode = response.getStatusCode();
@@ -82,12 +69,4 @@ public class OrderCreatingParameterizedTest {
         // Выводим заказ на экран
         orderAPI.printOrderInfo(orderTrack);
     }
-
-    @After
-    public void postconditions () {
-        // отменяем заказ;
-        if (orderTrack !=0) {
-            orderAPI.cancelOrder(orderTrack);
-        }
-    }
 }
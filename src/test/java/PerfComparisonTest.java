@@ -0,0 +1,151 @@
+import io.qameta.allure.Description;
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Test;
+import perf.GateSettings;
+import perf.MetricComparison;
+import perf.PerfComparison;
+import perf.PerfMetric;
+import perf.PerfResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PerfComparisonTest {
+    private static final String METRIC = "GET api/v1/orders";
+    private static final double DELTA = 1e-6;
+
+    private final GateSettings settings = GateSettings.defaults();
+
+    @Test
+    @DisplayName("Ухудшение p99 в пределах порога не считается регрессией.")
+    @Description("Без шума между прогонами базы допуск — threshold от медианы базы: " +
+            "+9% проходит, +11% — регрессия.")
+    public void p99ThresholdTest() {
+        List<PerfResult> baseline = baseline(p99(100), p99(100), p99(100));
+
+        MetricComparison within = compare(p99(109), baseline, MetricComparison.Kind.P99_MILLIS);
+        assertEquals(100, within.getBaseline(), DELTA);
+        assertEquals(10, within.getAllowed(), DELTA);
+        assertFalse(within.isRegression());
+
+        MetricComparison over = compare(p99(111), baseline, MetricComparison.Kind.P99_MILLIS);
+        assertEquals(0.11, over.getChange(), DELTA);
+        assertTrue(over.isRegression());
+    }
+
+    @Test
+    @DisplayName("Допуск растёт с разбросом прогонов базы.")
+    @Description("Шум — 1.4826 × MAD прогонов базы; ухудшение сравнивается с noiseFactor шумов, " +
+            "если это больше порога.")
+    public void madNoiseTest() {
+        // медиана 100, отклонения 0, 20, 20, 10, 10 — MAD 10
+        List<PerfResult> baseline = baseline(p99(100), p99(120), p99(80), p99(110), p99(90));
+        double allowed = 3 * 1.4826 * 10;
+
+        MetricComparison within = compare(p99(140), baseline, MetricComparison.Kind.P99_MILLIS);
+        assertEquals(allowed, within.getAllowed(), DELTA);
+        assertFalse(within.isRegression());
+
+        assertTrue(compare(p99(145), baseline, MetricComparison.Kind.P99_MILLIS).isRegression());
+    }
+
+    @Test
+    @DisplayName("Одиночный выброс в базе не расширяет допуск.")
+    @Description("MAD не чувствителен к одному выбросу: медиана и допуск остаются как без него.")
+    public void outlierTest() {
+        List<PerfResult> baseline = baseline(p99(100), p99(100), p99(100), p99(100), p99(500));
+
+        MetricComparison comparison = compare(p99(115), baseline, MetricComparison.Kind.P99_MILLIS);
+        assertEquals(100, comparison.getBaseline(), DELTA);
+        assertEquals(10, comparison.getAllowed(), DELTA);
+        assertTrue(comparison.isRegression());
+    }
+
+    @Test
+    @DisplayName("Шум по двум прогонам базы не оценивается.")
+    @Description("Меньше трёх прогонов базы — MAD не считается, допуск задаёт только порог.")
+    public void fewRunsTest() {
+        List<PerfResult> baseline = baseline(p99(80), p99(120));
+
+        MetricComparison comparison = compare(p99(115), baseline, MetricComparison.Kind.P99_MILLIS);
+        assertEquals(100, comparison.getBaseline(), DELTA);
+        assertEquals(10, comparison.getAllowed(), DELTA);
+        assertTrue(comparison.isRegression());
+    }
+
+    @Test
+    @DisplayName("Доверительные интервалы базы и прогона складываются квадратично.")
+    @Description("Если интервалы шире порога, допуск — √(базовый² + текущий²).")
+    public void confidenceIntervalTest() {
+        List<PerfResult> baseline = baseline(metric(1_000, 100, 30, 1_000, 0));
+
+        MetricComparison comparison = compare(metric(1_000, 140, 40, 1_000, 0), baseline,
+                MetricComparison.Kind.P99_MILLIS);
+        assertEquals(50, comparison.getAllowed(), DELTA);
+        assertFalse(comparison.isRegression());
+    }
+
+    @Test
+    @DisplayName("Падение пропускной способности сравнивается с порогом.")
+    @Description("Меньшая пропускная способность — ухудшение: −9% проходит, −11% — регрессия.")
+    public void throughputTest() {
+        List<PerfResult> baseline = baseline(p99(100), p99(100), p99(100));
+
+        assertFalse(compare(metric(1_000, 100, 0, 910, 0), baseline, MetricComparison.Kind.THROUGHPUT)
+                .isRegression());
+        MetricComparison over = compare(metric(1_000, 100, 0, 890, 0), baseline, MetricComparison.Kind.THROUGHPUT);
+        assertEquals(0.11, over.getChange(), DELTA);
+        assertTrue(over.isRegression());
+    }
+
+    @Test
+    @DisplayName("p99 по маленькой выборке не проверяется.")
+    @Description("Прогон с числом запросов меньше minCount сравнивается только по пропускной способности.")
+    public void minCountTest() {
+        List<PerfResult> baseline = baseline(p99(100), p99(100), p99(100));
+
+        PerfComparison comparison = PerfComparison.compare(run(metric(50, 500, 0, 1_000, 0)), "base", baseline,
+                settings);
+        assertNull(find(comparison, MetricComparison.Kind.P99_MILLIS));
+        assertFalse(comparison.hasRegression());
+    }
+
+    private MetricComparison compare(PerfMetric current, List<PerfResult> baseline, MetricComparison.Kind kind) {
+        return find(PerfComparison.compare(run(current), "base", baseline, settings), kind);
+    }
+
+    private static MetricComparison find(PerfComparison comparison, MetricComparison.Kind kind) {
+        for (MetricComparison metric : comparison.getComparisons()) {
+            if (metric.getKind() == kind) {
+                return metric;
+            }
+        }
+        return null;
+    }
+
+    private static List<PerfResult> baseline(PerfMetric... metrics) {
+        List<PerfResult> runs = new ArrayList<>();
+        for (PerfMetric metric : metrics) {
+            runs.add(run(metric));
+        }
+        return runs;
+    }
+
+    private static PerfResult run(PerfMetric metric) {
+        return new PerfResult("load", "0000000", false, 0, "тест", List.of(metric));
+    }
+
+    private static PerfMetric p99(double p99Millis) {
+        return metric(1_000, p99Millis, 0, 1_000, 0);
+    }
+
+    private static PerfMetric metric(long count, double p99Millis, double p99Error,
+                                     double throughput, double throughputError) {
+        return new PerfMetric(METRIC, count, p99Millis / 2, p99Millis, p99Error, throughput, throughputError);
+    }
+}
@@ -0,0 +1,68 @@
+import api.TrackCache;
+import io.qameta.allure.Description;
+import io.qameta.allure.junit4.DisplayName;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TrackCacheTest {
+
+    @Test
+    @DisplayName("Закэшированный ответ отдаётся по треку.")
+    @Description("После put() значение возвращается по тому же треку, повторная запись трека не добавляет запись, " +
+            "а попадания и промахи учитываются в статистике.")
+    public void putAndGetTest() {
+        TrackCache<String> cache = new TrackCache<>(64, 60_000);
+        cache.put(100_001, "первый");
+        cache.put(100_002, "второй");
+        cache.put(100_001, "первый, обновлённый");
+
+        assertEquals("первый, обновлённый", cache.get(100_001));
+        assertEquals("второй", cache.get(100_002));
+        assertNull(cache.get(100_003));
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Устаревшая запись не отдаётся.")
+    @Description("Запись старше ttl считается промахом и удаляется из кэша.")
+    public void ttlExpiryTest() throws InterruptedException {
+        TrackCache<String> cache = new TrackCache<>(64, 20);
+        cache.put(100_001, "заказ");
+        Thread.sleep(40);
+
+        assertNull(cache.get(100_001));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Сброшенная запись не отдаётся.")
+    @Description("invalidate() удаляет ответ по треку, например после отмены заказа.")
+    public void invalidateTest() {
+        TrackCache<String> cache = new TrackCache<>(64, 60_000);
+        cache.put(100_001, "заказ");
+        cache.invalidate(100_001);
+
+        assertNull(cache.get(100_001));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Переполненный кэш вытесняет старые записи.")
+    @Description("Размер кэша не превышает его таблицу, вытеснения живых записей учитываются, " +
+            "а только что записанный трек всегда доступен.")
+    public void evictionTest() {
+        TrackCache<Integer> cache = new TrackCache<>(8, 60_000);
+        for (int track = 100_000; track < 100_200; track++) {
+            cache.put(track, track);
+            assertEquals(Integer.valueOf(track), cache.get(track));
+        }
+        assertTrue(cache.size() <= 16);
+        assertTrue(cache.getEvictions() >= 200 - 16);
+    }
+}